@@ -17,6 +17,7 @@ package io.mdsl.cli;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import org.apache.commons.cli.CommandLine;
@@ -30,7 +31,17 @@ import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
 import org.eclipse.xtext.generator.IGenerator2;
 
 import io.mdsl.MDSLResource;
+import io.mdsl.exception.TemplateRenderBudgetExceededException;
+import io.mdsl.generator.AbstractMDSLGenerator;
+import io.mdsl.generator.GenModelImporter;
+import io.mdsl.generator.GraphQLGenerator;
+import io.mdsl.generator.JavaGenerator;
+import io.mdsl.generator.OpenAPIGenerator;
+import io.mdsl.generator.TextFileFanOut;
 import io.mdsl.generator.TextFileGenerator;
+import io.mdsl.generator.freemarker.TemplateRenderBudget;
+import io.mdsl.generator.freemarker.TemplateRenderProfile;
+import io.mdsl.generator.model.MDSLGeneratorModel;
 import io.mdsl.standalone.MDSLStandaloneAPI;
 import io.mdsl.standalone.MDSLStandaloneSetup;
 
@@ -40,6 +51,9 @@ import io.mdsl.standalone.MDSLStandaloneSetup;
  */
 public class MDSLCommandLineInterface {
 
+	private static final String MAX_ITEMS_OPTION = "maxItems";
+	private static final Integer UNBOUNDED_ARRAYS = null; // default of the OpenAPI generator
+
 	private MDSLStandaloneAPI api;
 	private String outputDir = "./";
 
@@ -59,6 +73,13 @@ public class MDSLCommandLineInterface {
 
 			// validate input path
 			String inputPath = cmd.getOptionValue("input");
+			if (isGeneratorModelExport(inputPath)) {
+				// exported generator model: render the template without parsing MDSL
+				validateGeneratorModelExport(inputPath, cmd.getOptionValue("generator"));
+				setOutputDir(cmd.getOptionValue("outputDir"));
+				generateFromGeneratorModelExport(inputPath, cmd);
+				return;
+			}
 			validateInputFile(inputPath);
 
 			// load MDSL resource
@@ -76,6 +97,9 @@ public class MDSLCommandLineInterface {
 		} catch (ParseException e) {
 			System.out.println(e.getMessage());
 			printHelp(options);
+		} catch (TemplateRenderBudgetExceededException e) {
+			System.out.println("ERROR: " + e.getMessage());
+			System.exit(1);
 		}
 	}
 
@@ -89,7 +113,8 @@ public class MDSLCommandLineInterface {
 		Options options = new Options();
 
 		// input MDSL file
-		Option input = new Option("i", "input", true, "Path to the MDSL file for which you want to generate output.");
+		Option input = new Option("i", "input", true,
+				"Path to the MDSL file for which you want to generate output. In combination with the 'text' generator, the path to a generator model exported as JSON, YAML or CBOR can be given instead.");
 		input.setRequired(true);
 		options.addOption(input);
 
@@ -114,6 +139,41 @@ public class MDSLCommandLineInterface {
 				"The name of the file that shall be generated. This parameter is only used if you pass 'text' to the 'generator' (-g) parameter because the Freemarker generator does not guess any file name extension).");
 		options.addOption(outputFilename);
 
+		// render profile (Freemarker generators only)
+		Option profile = new Option("p", "profile", false,
+				"Prints the time spent in the macros, #list loops and custom methods of the Freemarker templates. This parameter is only used with the 'text', 'java' and 'graphql' generators.");
+		options.addOption(profile);
+
+		// render budget (Freemarker generator only)
+		Option maxRenderTime = new Option(null, "maxRenderTime", true,
+				"Aborts the rendering of the Freemarker template if it takes longer than the given number of seconds. This parameter is only used if you pass 'text' to the 'generator' (-g) parameter.");
+		options.addOption(maxRenderTime);
+		Option maxOutputSize = new Option(null, "maxOutputSize", true,
+				"Aborts the rendering of the Freemarker template if a generated file gets larger than the given number of megabytes. This parameter is only used if you pass 'text' to the 'generator' (-g) parameter.");
+		options.addOption(maxOutputSize);
+
+		// shared schemas (OpenAPI generator only)
+		Option sharedSchemas = new Option(null, "sharedSchemas", false,
+				"Moves schemas that occur more than once into the components of the OpenAPI specification and references them. This parameter is only used with the 'oas' generator.");
+		options.addOption(sharedSchemas);
+		Option splitOutput = new Option(null, "splitOutput", false,
+				"Writes the OpenAPI specification as several files: one per resource, a shared components file and a root file that references them. This parameter is only used with the 'oas' generator.");
+		options.addOption(splitOutput);
+		Option json = new Option(null, "json", false,
+				"Writes the OpenAPI specification as JSON instead of YAML. This parameter is only used with the 'oas' generator.");
+		options.addOption(json);
+		Option minifyJson = new Option(null, "minifyJson", false,
+				"Writes the JSON without indentation and line breaks. This parameter is only used with the 'oas' generator and '--json'.");
+		options.addOption(minifyJson);
+		Option maxItems = new Option(null, MAX_ITEMS_OPTION, true,
+				"Bounds all arrays in the OpenAPI specification to the given number of items (maxItems). This parameter is only used with the 'oas' generator.");
+		options.addOption(maxItems);
+
+		// parallel conversion
+		Option parallel = new Option(null, "parallel", false,
+				"Converts the independent parts of the MDSL model (providers, clients, bindings, OpenAPI paths etc.) concurrently. The output does not depend on this parameter.");
+		options.addOption(parallel);
+
 		Option standalone = new Option("s", "standalone", false, "Create output in main memory and write it to standard output console.");
 		options.addOption(standalone);
 		
@@ -135,6 +195,37 @@ public class MDSLCommandLineInterface {
 		}
 	}
 
+	private boolean isGeneratorModelExport(String inputPath) {
+		return inputPath != null && inputPath.matches(".*\\.(json|yaml|yml|cbor)$");
+	}
+
+	private void validateGeneratorModelExport(String inputPath, String generatorName) {
+		if (!new File(inputPath).exists()) {
+			System.out.println("ERROR: The file '" + inputPath + "' does not exist.");
+			System.exit(1);
+		}
+		if (generatorName == null || MDSLGenerator.byName(generatorName) != MDSLGenerator.ARBITRARY_TEXT_BY_TEMPLATE) {
+			System.out.println("ERROR: Exported generator models can only be used with the 'text' generator (-g text).");
+			System.exit(1);
+		}
+	}
+
+	private void generateFromGeneratorModelExport(String inputPath, CommandLine cmd) {
+		ensureTemplatePathIsSet(cmd.getOptionValue("template"));
+		TextFileFanOut fanOut = readFanOutOrEnsureFileNameIsSet(cmd.getOptionValue("outputFile"), cmd.getOptionValue("template"));
+		File exportedModel = new File(inputPath);
+		MDSLGeneratorModel genModel = new GenModelImporter().importFrom(exportedModel);
+		TextFileGenerator freemarkerGen = new TextFileGenerator();
+		freemarkerGen.setFreemarkerTemplateFile(new File(cmd.getOptionValue("template")));
+		freemarkerGen.setTargetFileName(cmd.getOptionValue("outputFile"));
+		freemarkerGen.setFanOut(fanOut);
+		freemarkerGen.setRenderBudget(getRenderBudget(cmd));
+		TemplateRenderProfile renderProfile = enableRenderProfile(freemarkerGen, cmd);
+		freemarkerGen.generateFromGeneratorModel(genModel, exportedModel.getName(), new File(outputDir));
+		System.out.println("The output files have been generated into '" + this.outputDir + "'.");
+		printRenderProfile(renderProfile);
+	}
+
 	private void setOutputDir(String outputDir) {
 		if (outputDir == null || "".equals(outputDir))
 			return;
@@ -167,7 +258,7 @@ public class MDSLCommandLineInterface {
 		return mdsl;
 	}
 
-	private void generate(MDSLResource resource, String generatorName, CommandLine cmd) {
+	private void generate(MDSLResource resource, String generatorName, CommandLine cmd) throws ParseException {
 		if (generatorName == null) {
 			System.out.println("Use -g to pass the generator you want to call.");
 			System.exit(1);
@@ -176,18 +267,100 @@ public class MDSLCommandLineInterface {
 
 		if (generator == MDSLGenerator.ARBITRARY_TEXT_BY_TEMPLATE) {
 			ensureTemplatePathIsSet(cmd.getOptionValue("template"));
-			ensureFileNameIsSet(cmd.getOptionValue("outputFile"));
+			TextFileFanOut fanOut = readFanOutOrEnsureFileNameIsSet(cmd.getOptionValue("outputFile"), cmd.getOptionValue("template"));
 			TextFileGenerator freemarkerGen = (TextFileGenerator) generator.getGenerator();
 			freemarkerGen.setFreemarkerTemplateFile(new File(cmd.getOptionValue("template")));
 			freemarkerGen.setTargetFileName(cmd.getOptionValue("outputFile"));
+			freemarkerGen.setFanOut(fanOut);
+			freemarkerGen.setRenderBudget(getRenderBudget(cmd));
+			configureConversion(freemarkerGen, cmd);
+			TemplateRenderProfile renderProfile = enableRenderProfile(freemarkerGen, cmd);
 			api.callGenerator(resource, freemarkerGen, outputDir);
+			System.out.println("The output files have been generated into '" + this.outputDir + "'.");
+			printRenderProfile(renderProfile);
 		} else {
-			api.callGenerator(resource, generator.getGenerator(), outputDir);
+			IGenerator2 gg = generator.getGenerator();
+			configureOpenAPIGenerator(gg, cmd);
+			configureConversion(gg, cmd);
+			TemplateRenderProfile renderProfile = enableRenderProfile(gg, cmd);
+			api.callGenerator(resource, gg, outputDir);
+			System.out.println("The output files have been generated into '" + this.outputDir + "'.");
+			printRenderProfile(renderProfile);
 		}
-		System.out.println("The output files have been generated into '" + this.outputDir + "'.");
+	}
+
+	private TemplateRenderBudget getRenderBudget(CommandLine cmd) {
+		if (!cmd.hasOption("maxRenderTime") && !cmd.hasOption("maxOutputSize"))
+			return null;
+		long maxRenderMillis = parseLimit(cmd, "maxRenderTime") * 1000;
+		long maxOutputBytes = parseLimit(cmd, "maxOutputSize") * 1024 * 1024;
+		return new TemplateRenderBudget(maxRenderMillis, maxOutputBytes);
+	}
+
+	private long parseLimit(CommandLine cmd, String option) {
+		if (!cmd.hasOption(option))
+			return TemplateRenderBudget.UNLIMITED;
+		try {
+			long limit = Long.parseLong(cmd.getOptionValue(option));
+			if (limit > 0)
+				return limit;
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+		System.out.println("ERROR: Please provide a positive number for --" + option + ".");
+		System.exit(1);
+		return TemplateRenderBudget.UNLIMITED;
+	}
+
+	private void configureOpenAPIGenerator(IGenerator2 generator, CommandLine cmd) throws ParseException {
+		if (generator instanceof OpenAPIGenerator) {
+			((OpenAPIGenerator) generator).setExtractSharedSchemas(cmd.hasOption("sharedSchemas"));
+			((OpenAPIGenerator) generator).setSplitOutput(cmd.hasOption("splitOutput"));
+			((OpenAPIGenerator) generator).setJsonOutput(cmd.hasOption("json"));
+			((OpenAPIGenerator) generator).setMinifyJson(cmd.hasOption("minifyJson"));
+			((OpenAPIGenerator) generator).setMaxItems(parseMaxItems(cmd));
+		}
+	}
+
+	private void configureConversion(IGenerator2 generator, CommandLine cmd) {
+		if (cmd.hasOption("parallel") && generator instanceof AbstractMDSLGenerator)
+			((AbstractMDSLGenerator) generator).setConversionPool(ForkJoinPool.commonPool());
+	}
+
+	private Integer parseMaxItems(CommandLine cmd) throws ParseException {
+		if (!cmd.hasOption(MAX_ITEMS_OPTION))
+			return UNBOUNDED_ARRAYS;
+		try {
+			int maxItems = Integer.parseInt(cmd.getOptionValue(MAX_ITEMS_OPTION));
+			if (maxItems > 0)
+				return maxItems;
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+		throw new ParseException("ERROR: Please provide a positive number (up to " + Integer.MAX_VALUE + ") for --" + MAX_ITEMS_OPTION + ".");
+	}
+
+	private TemplateRenderProfile enableRenderProfile(IGenerator2 generator, CommandLine cmd) {
+		if (!cmd.hasOption("profile"))
+			return null;
+		TemplateRenderProfile renderProfile = new TemplateRenderProfile();
+		if (generator instanceof TextFileGenerator)
+			((TextFileGenerator) generator).setRenderProfile(renderProfile);
+		else if (generator instanceof JavaGenerator)
+			((JavaGenerator) generator).setRenderProfile(renderProfile);
+		else if (generator instanceof GraphQLGenerator)
+			((GraphQLGenerator) generator).setRenderProfile(renderProfile);
+		else
+			System.out.println("WARNING: The selected generator does not use Freemarker templates; the profile (-p) is ignored.");
+		return renderProfile;
+	}
+
+	private void printRenderProfile(TemplateRenderProfile renderProfile) {
+		if (renderProfile != null && !renderProfile.getEntries().isEmpty())
+			System.out.print(renderProfile.getReport());
 	}
 	
-	private void generateInMemory(MDSLResource resource, String generatorName, CommandLine cmd) {
+	private void generateInMemory(MDSLResource resource, String generatorName, CommandLine cmd) throws ParseException {
 		if (generatorName == null) {
 			System.out.println("Use -g to pass the generator you want to call.");
 			System.exit(1);
@@ -199,10 +372,14 @@ public class MDSLCommandLineInterface {
 			ensureTemplatePathIsSet(cmd.getOptionValue("template"));
 			TextFileGenerator freemarkerGen = (TextFileGenerator) generator.getGenerator();
 			freemarkerGen.setFreemarkerTemplateFile(new File(cmd.getOptionValue("template")));
+			freemarkerGen.setRenderBudget(getRenderBudget(cmd));
+			configureConversion(freemarkerGen, cmd);
 			// TODO main memory option (done?)
 			result = api.callGeneratorInMemory(resource, freemarkerGen);
 		} else {
 			IGenerator2 gg = generator.getGenerator();
+			configureOpenAPIGenerator(gg, cmd);
+			configureConversion(gg, cmd);
 			result = api.callGeneratorInMemory(resource, gg);
 		}
 		System.out.println("The conversion output has been generated in main memory:");
@@ -225,6 +402,14 @@ public class MDSLCommandLineInterface {
 		}
 	}
 
+	private TextFileFanOut readFanOutOrEnsureFileNameIsSet(String filename, String pathToTemplate) {
+		// templates with a fan-out manifest declare the names of the generated files themselves
+		TextFileFanOut fanOut = TextFileFanOut.readManifest(new File(pathToTemplate));
+		if (fanOut == null)
+			ensureFileNameIsSet(filename);
+		return fanOut;
+	}
+
 	private void ensureFileNameIsSet(String filename) {
 		if (filename == null || "".equals(filename)) {
 			System.out.println(
@@ -18,6 +18,7 @@ package io.mdsl.cli;
 import org.eclipse.xtext.generator.IGenerator2;
 
 import io.mdsl.generator.ALPSGenerator;
+import io.mdsl.generator.GenModelCBORExporter;
 import io.mdsl.generator.GenModelJSONExporter;
 import io.mdsl.generator.GenModelYAMLExporter;
 import io.mdsl.generator.GraphQLGenerator;
@@ -48,7 +49,9 @@ public enum MDSLGenerator {
 	SOAD("soad", "transformation chain to generate bound endpoint type from user story"),
 	STORY_TO_OAS("storyoas", "transformation chain to generate OpenAPI from scenario/story"),
 	GEN_MODEL_JSON_EXPORT("gen-model-json", "Generator model as JSON (exporter)"), 
-	GEN_MODEL_YAML_EXPORT("gen-model-yaml", "Generator model as YAML (exporter)");
+	GEN_MODEL_COMPACT_JSON_EXPORT("gen-model-json-compact", "Generator model as JSON without indentation (exporter)"), 
+	GEN_MODEL_YAML_EXPORT("gen-model-yaml", "Generator model as YAML (exporter)"),
+	GEN_MODEL_CBOR_EXPORT("gen-model-cbor", "Generator model as CBOR, a binary JSON encoding (exporter)");
 
 	// TODO (future work) add more QFs (parameterized); add CLI version information to help message
 	
@@ -110,8 +113,12 @@ public enum MDSLGenerator {
 			return new StoryToOpenAPIGenerator("n/a"); // TODO tbc
 		if (this == GEN_MODEL_JSON_EXPORT)
 			return new GenModelJSONExporter();
+		if (this == GEN_MODEL_COMPACT_JSON_EXPORT)
+			return new GenModelJSONExporter(false);
 		if (this == GEN_MODEL_YAML_EXPORT)
 			return new GenModelYAMLExporter();
+		if (this == GEN_MODEL_CBOR_EXPORT)
+			return new GenModelCBORExporter();
 		
 		// default:
 		return new TextFileGenerator();
@@ -0,0 +1,53 @@
+package io.mdsl.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.generator.GeneratorContext;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class GenModelCBORExporterTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void canExportGenModelAsCBOR() throws IOException {
+		// given
+		String testCaseName = "simple-generation-input-2";
+		Resource inputModel = getTestResource(testCaseName + ".mdsl");
+
+		// when
+		generate(inputModel, new GenModelCBORExporter());
+		generate(inputModel, new GenModelJSONExporter());
+
+		// then
+		File cborFile = new File(getGenerationDirectory(), testCaseName + "_GeneratorModel.cbor");
+		File jsonFile = new File(getGenerationDirectory(), testCaseName + "_GeneratorModel.json");
+		assertTrue(cborFile.exists());
+		assertTrue(cborFile.length() < jsonFile.length());
+		JsonNode cborContent = new ObjectMapper(new CBORFactory()).readTree(cborFile);
+		JsonNode jsonContent = new ObjectMapper().readTree(jsonFile);
+		assertEquals(jsonContent, cborContent);
+	}
+
+	private void generate(Resource inputModel, AbstractGenModelExporter generator) {
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/exporter/";
+	}
+
+}
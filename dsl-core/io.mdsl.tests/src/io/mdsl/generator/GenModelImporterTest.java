@@ -0,0 +1,97 @@
+package io.mdsl.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.xtext.generator.GeneratorContext;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mdsl.generator.model.DataType;
+import io.mdsl.generator.model.HTTPBinding;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.composition.Flow;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class GenModelImporterTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void canImportJSONExport() throws IOException {
+		// given
+		File exportedModel = getTestInputFile("simple-generation-input-2_GeneratorModel.json");
+
+		// when
+		MDSLGeneratorModel genModel = new GenModelImporter().importFrom(exportedModel);
+
+		// then
+		assertEquals("TestAPI", genModel.getApiName());
+		assertEquals(8, genModel.getDataTypes().size());
+		assertSame(genModel.getEndpoints().get(1), genModel.getProviders().get(0).offeredEndpoints().get(0));
+		HTTPBinding binding = (HTTPBinding) genModel.getEndpoints().get(1).getProtocolBinding();
+		assertEquals("POST", binding.getResources().get(0).getOperationBindings().get("work").getVerb());
+		DataType requestType = (DataType) genModel.getEndpoints().get(1).getOperations().get(0).getParameters().get(0).getType();
+		assertSame(genModel.getDataTypes().get(6), requestType);
+		assertEquals(exportedContent(exportedModel), reexport(genModel));
+	}
+
+	@Test
+	public void canImportFlows() throws IOException {
+		// given
+		File exportedModel = getTestInputFile("flowvariations_GeneratorModel.json");
+
+		// when
+		MDSLGeneratorModel genModel = new GenModelImporter().importFrom(exportedModel);
+
+		// then
+		Flow flow = genModel.getOrchestrationFlows().get(0);
+		assertSame(flow.getCommands().get(0), flow.getEvents().get(flow.getEvents().keySet().iterator().next()).triggeredCommands().get(0));
+		assertEquals(exportedContent(exportedModel), reexport(genModel));
+	}
+
+	@Test
+	public void canImportYAMLExport() throws IOException {
+		// given
+		File exportedModel = getTestInputFile("simple-generation-input-2_GeneratorModel.yaml");
+
+		// when
+		MDSLGeneratorModel genModel = new GenModelImporter().importFrom(exportedModel);
+
+		// then
+		assertEquals(exportedContent(getTestInputFile("simple-generation-input-2_GeneratorModel.json")), reexport(genModel));
+	}
+
+	@Test
+	public void canImportCBORExport() throws IOException {
+		// given
+		GenModelCBORExporter exporter = new GenModelCBORExporter();
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		exporter.doGenerate(getTestResource("flowvariations.mdsl"), javaIoFileSystemAccess, new GeneratorContext());
+
+		// when
+		MDSLGeneratorModel genModel = new GenModelImporter()
+				.importFrom(new File(getGenerationDirectory(), "flowvariations_GeneratorModel.cbor"));
+
+		// then
+		assertEquals(exportedContent(getTestInputFile("flowvariations_GeneratorModel.json")), reexport(genModel));
+	}
+
+	private String exportedContent(File exportedModel) throws IOException {
+		return new ObjectMapper().readTree(exportedModel).toString();
+	}
+
+	private String reexport(MDSLGeneratorModel genModel) throws IOException {
+		return new ObjectMapper().valueToTree(genModel).toString();
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/exporter/";
+	}
+
+}
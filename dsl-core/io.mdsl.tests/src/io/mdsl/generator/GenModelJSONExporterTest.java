@@ -76,8 +76,28 @@ public class GenModelJSONExporterTest extends AbstractMDSLInputIntegrationTest {
 		assertThatGeneratedFileMatchesExpectations(testCaseName + "_GeneratorModel.json");
 	}
 
+	@Test
+	public void canExportGenModelAsJSONWithoutIndentation() throws IOException {
+		// given
+		Resource inputModel = getTestResource("simple-generation-input-1.mdsl");
+
+		// when
+		generateJSONExport(inputModel, new GenModelJSONExporter(false));
+
+		// then
+		assertEquals(
+				"{\"apiName\":\"TestAPI\",\"dataTypes\":[],\"endpoints\":[{\"name\":\"TestEndpoint\",\"operations\":[],"
+						+ "\"protocolBinding\":{\"protocolName\":\"Undefined\"},\"states\":[],\"transitions\":[]}],"
+						+ "\"providers\":[],\"clients\":[],\"providerImplementations\":[],\"orchestrationFlows\":[],\"cuts\":[]}",
+				FileUtils.readFileToString(new File(getGenerationDirectory(), "simple-generation-input-1_GeneratorModel.json"),
+						"UTF-8"));
+	}
+
 	private void generateJSONExport(Resource inputModel) {
-		GenModelJSONExporter generator = new GenModelJSONExporter();
+		generateJSONExport(inputModel, new GenModelJSONExporter());
+	}
+
+	private void generateJSONExport(Resource inputModel, GenModelJSONExporter generator) {
 		// TODO move next three lines to method in superclass
 		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
 		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
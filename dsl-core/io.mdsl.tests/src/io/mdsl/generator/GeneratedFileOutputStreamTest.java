@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.xtext.generator.IFileSystemAccess;
+import org.eclipse.xtext.generator.InMemoryFileSystemAccess;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.junit.jupiter.api.Test;
+
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class GeneratedFileOutputStreamTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void publishesLocalFileOnCommit() throws IOException {
+		// given
+		JavaIoFileSystemAccess fsa = getFileSystemAccess();
+		fsa.setOutputPath(getGenerationDirectory().getAbsolutePath());
+
+		// when
+		try (GeneratedFileOutputStream out = GeneratedFileOutputStream.open(fsa, "streamed/output.bin")) {
+			out.write("streamed content".getBytes(StandardCharsets.UTF_8));
+			out.commit();
+		}
+
+		// then
+		assertEquals("streamed content", getGeneratedFileContent("streamed/output.bin"));
+		assertEquals(1, new File(getGenerationDirectory(), "streamed").list().length);
+	}
+
+	@Test
+	public void keepsExistingLocalFileIfNotCommitted() throws IOException {
+		// given
+		JavaIoFileSystemAccess fsa = getFileSystemAccess();
+		fsa.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		File file = new File(getGenerationDirectory(), "aborted/output.bin");
+		FileUtils.writeStringToFile(file, "previous content", StandardCharsets.UTF_8);
+
+		// when
+		try (GeneratedFileOutputStream out = GeneratedFileOutputStream.open(fsa, "aborted/output.bin")) {
+			out.write("partial".getBytes(StandardCharsets.UTF_8));
+		}
+
+		// then
+		assertEquals("previous content", getGeneratedFileContent("aborted/output.bin"));
+		assertEquals(1, file.getParentFile().list().length);
+	}
+
+	@Test
+	public void keepsExistingLocalFileIfOutputConfigurationDoesNotOverride() throws IOException {
+		// given
+		JavaIoFileSystemAccess fsa = getFileSystemAccess();
+		fsa.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		fsa.getOutputConfigurations().get(IFileSystemAccess.DEFAULT_OUTPUT).setOverrideExistingResources(false);
+		File file = new File(getGenerationDirectory(), "kept/output.bin");
+		FileUtils.writeStringToFile(file, "previous content", StandardCharsets.UTF_8);
+
+		// when
+		try (GeneratedFileOutputStream out = GeneratedFileOutputStream.open(fsa, "kept/output.bin")) {
+			out.write("new content".getBytes(StandardCharsets.UTF_8));
+			out.commit();
+		}
+
+		// then
+		assertEquals("previous content", getGeneratedFileContent("kept/output.bin"));
+		assertEquals(1, file.getParentFile().list().length);
+	}
+
+	@Test
+	public void handsContentOverToFileSystemAccessOnCommitOnly() throws IOException {
+		// given
+		InMemoryFileSystemAccess fsa = new InMemoryFileSystemAccess();
+		byte[] content = "buffered content".getBytes(StandardCharsets.UTF_8);
+
+		// when
+		try (GeneratedFileOutputStream out = GeneratedFileOutputStream.open(fsa, "aborted.bin")) {
+			out.write(content);
+		}
+		try (GeneratedFileOutputStream out = GeneratedFileOutputStream.open(fsa, "committed.bin")) {
+			out.write(content);
+			out.commit();
+		}
+
+		// then
+		assertFalse(fsa.getBinaryFiles().containsKey(IFileSystemAccess.DEFAULT_OUTPUT + "aborted.bin"));
+		assertTrue(fsa.getBinaryFiles().containsKey(IFileSystemAccess.DEFAULT_OUTPUT + "committed.bin"));
+		assertArrayEquals(content, fsa.getBinaryFiles().get(IFileSystemAccess.DEFAULT_OUTPUT + "committed.bin"));
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/freemarker-generation/";
+	}
+
+}
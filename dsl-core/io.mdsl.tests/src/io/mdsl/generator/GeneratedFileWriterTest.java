@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.generator.GeneratorContext;
+import org.eclipse.xtext.generator.IFileSystemAccess;
+import org.eclipse.xtext.generator.InMemoryFileSystemAccess;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.junit.jupiter.api.Test;
+
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class GeneratedFileWriterTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void writesLocalFileDirectly() throws IOException {
+		// given
+		JavaIoFileSystemAccess fsa = getFileSystemAccess();
+		fsa.setOutputPath(getGenerationDirectory().getAbsolutePath());
+
+		// when
+		try (GeneratedFileWriter writer = GeneratedFileWriter.open(fsa, "streamed/output.txt")) {
+			writer.write("streamed ");
+			writer.write("text äöü");
+			writer.commit();
+		}
+
+		// then
+		assertEquals("streamed text äöü", getGeneratedFileContent("streamed/output.txt"));
+	}
+
+	@Test
+	public void handsTextOverToInMemoryFileSystemAccess() throws IOException {
+		// given
+		Resource inputModel = getTestResource("fan-out-input.mdsl");
+		TextFileGenerator generator = new TextFileGenerator();
+		generator.setFreemarkerTemplateFile(getTestFile("simple-test-template.ftl"));
+		generator.setTargetFileName("output.txt");
+		InMemoryFileSystemAccess fsa = new InMemoryFileSystemAccess();
+
+		// when
+		generator.doGenerate(inputModel, fsa, new GeneratorContext());
+
+		// then
+		assertEquals("FanOutAPI specified in fan-out-input.mdsl", fsa.getTextFiles().get(IFileSystemAccess.DEFAULT_OUTPUT + "output.txt").toString());
+	}
+
+	@Test
+	public void keepsExistingFileIfNotCommitted() throws IOException {
+		// given
+		JavaIoFileSystemAccess fsa = getFileSystemAccess();
+		fsa.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		try (GeneratedFileWriter writer = GeneratedFileWriter.open(fsa, "aborted/output.txt")) {
+			writer.write("complete text");
+			writer.commit();
+		}
+
+		// when
+		try (Writer writer = GeneratedFileWriter.open(fsa, "aborted/output.txt")) {
+			writer.write("truncated");
+		}
+
+		// then
+		assertEquals("complete text", getGeneratedFileContent("aborted/output.txt"));
+	}
+
+	@Test
+	public void discardsUncommittedTextOfInMemoryFileSystemAccess() throws IOException {
+		// given
+		InMemoryFileSystemAccess fsa = new InMemoryFileSystemAccess();
+
+		// when
+		try (Writer writer = GeneratedFileWriter.open(fsa, "output.txt")) {
+			writer.write("truncated");
+		}
+
+		// then
+		assertTrue(fsa.getAllFiles().isEmpty());
+	}
+
+	private File getTestFile(String fileName) {
+		return new File(Paths.get("").toAbsolutePath().toString(), testDirectory() + fileName);
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/freemarker-generation/";
+	}
+
+}
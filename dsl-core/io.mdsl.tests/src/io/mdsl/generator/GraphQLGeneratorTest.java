@@ -1,9 +1,14 @@
 package io.mdsl.generator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -11,6 +16,9 @@ import org.eclipse.xtext.generator.GeneratorContext;
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
 import org.junit.jupiter.api.Test;
 
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.MDSLGeneratorModel.Section;
 import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
 
 /**
@@ -77,6 +85,48 @@ public class GraphQLGeneratorTest extends AbstractMDSLInputIntegrationTest {
 		assertThatInputFileGeneratesExpectedOutput("endpoint-test-mutation-with-input-types", "TestEndpoint");
 	}
 
+	@Test
+	public void doesNotConvertOrchestrationFlows() throws IOException {
+		// given
+		Resource inputModel = getTestResource("multiple-endpoints-test.mdsl");
+		List<MDSLGeneratorModel> genModels = new ArrayList<>();
+		GraphQLGenerator generator = new GraphQLGenerator() {
+			@Override
+			protected MDSLGeneratorModel convertToGeneratorModel(ServiceSpecification mdslSpecification) {
+				MDSLGeneratorModel genModel = super.convertToGeneratorModel(mdslSpecification);
+				genModels.add(genModel);
+				return genModel;
+			}
+		};
+
+		// when
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertEquals(getExpectedTestResult("multiple-endpoints-test_TestEndpoint1.graphql"), getGeneratedFileContent("multiple-endpoints-test_TestEndpoint1.graphql"));
+		assertTrue(genModels.get(0).isLoaded(Section.ENDPOINTS));
+		assertFalse(genModels.get(0).isLoaded(Section.ORCHESTRATION_FLOWS));
+	}
+
+	@Test
+	public void generatesSameOutputWithParallelConversion() throws IOException {
+		// given
+		Resource inputModel = getTestResource("multiple-endpoints-test.mdsl");
+		GraphQLGenerator generator = new GraphQLGenerator();
+		generator.setConversionPool(ForkJoinPool.commonPool());
+
+		// when
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertEquals(getExpectedTestResult("multiple-endpoints-test_TestEndpoint1.graphql"), getGeneratedFileContent("multiple-endpoints-test_TestEndpoint1.graphql"));
+		assertEquals(getExpectedTestResult("multiple-endpoints-test_TestEndpoint2.graphql"), getGeneratedFileContent("multiple-endpoints-test_TestEndpoint2.graphql"));
+	}
+
 	/**
 	 * Allows to test whether a test input file ({baseFilename}.mdsl) leads to the
 	 * expected output ({baseFilename}.yaml).
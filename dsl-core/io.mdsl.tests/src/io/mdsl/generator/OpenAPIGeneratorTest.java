@@ -1,11 +1,13 @@
 package io.mdsl.generator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -232,6 +234,164 @@ public class OpenAPIGeneratorTest extends AbstractMDSLInputIntegrationTest {
 	public void testBoundMAPDecoratorOperations() throws IOException {
 		assertThatInputFileGeneratesExpectedOutput("map-all-role-decorators-bound");
 	}
+
+	@Test
+	public void canDeriveCachingContractFromRolesAndCachingBindings() throws IOException {
+		assertThatInputFileGeneratesExpectedOutput("http-binding-caching");
+	}
+
+	@Test
+	public void canBoundPagesAndAddPagingParameters() throws IOException {
+		assertThatInputFileGeneratesExpectedOutput("http-binding-pagination");
+	}
+
+	@Test
+	public void canMapAsynchronousOperationsToStatusResources() throws IOException {
+		assertThatInputFileGeneratesExpectedOutput("http-binding-asynchronous");
+	}
+
+	@Test
+	public void canEmitContentEncodings() throws IOException {
+		assertThatInputFileGeneratesExpectedOutput("http-binding-compression");
+	}
+
+	@Test
+	public void canBoundAllArrays() throws IOException {
+		// given
+		Resource inputModel = getTestResource("http-binding-verbs-datatypes1.mdsl");
+		OpenAPIGenerator generator = new OpenAPIGenerator();
+		generator.setMaxItems(50);
+
+		// when
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertTrue(generator.getValidationMessages().isEmpty(), "OAS validation reports errors");
+		String yaml = getGeneratedFileContent("http-binding-verbs-datatypes1.yaml");
+		int arrays = yaml.split("type: array", -1).length - 1;
+		assertTrue(arrays > 0);
+		assertEquals(arrays, yaml.split("maxItems: 50", -1).length - 1);
+	}
+
+	@Test
+	public void canReferenceDataTypesInsteadOfRepeatingThem() throws IOException {
+		assertThatInputFileGeneratesExpectedOutputWithSharedSchemas("http-binding-verbs-datatypes1");
+	}
+
+	@Test
+	public void canMoveRepeatedStructuresToComponents() throws IOException {
+		assertThatInputFileGeneratesExpectedOutputWithSharedSchemas("http-binding-restbucks-ml3");
+	}
+
+	@Test
+	public void canSplitOutputIntoPathAndComponentFiles() throws IOException {
+		// given
+		Resource inputModel = getTestResource("http-binding-restbucks-ml3.mdsl");
+		OpenAPIGenerator generator = new OpenAPIGenerator();
+		generator.setRoundTripValidation(true);
+		generator.setSplitOutput(true);
+		generator.setExtractSharedSchemas(true);
+
+		// when
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertTrue(generator.getValidationMessages().isEmpty(), "OAS validation reports errors");
+		assertTrue(generator.getRoundTripValidationMessages().join().isEmpty(), "OAS parser reports errors");
+		String root = getGeneratedFileContent("http-binding-restbucks-ml3.yaml");
+		assertTrue(root.contains("$ref: http-binding-restbucks-ml3/RESTBucksProvider-PaymentResource.yaml#/~1payment~1%7Bid%7D"));
+		assertTrue(root.contains("securitySchemes:"));
+		assertFalse(getGeneratedFileContent("http-binding-restbucks-ml3/components.yaml").contains("securitySchemes:"));
+		assertTrue(getGeneratedFileContent("http-binding-restbucks-ml3/RESTBucksProvider-Orders.yaml").contains("$ref: components.yaml#/components/schemas/"));
+		assertTrue(getGeneratedFileContent("http-binding-restbucks-ml3/components.yaml").startsWith("components:"));
+	}
+
+	@Test
+	public void canWriteJson() throws IOException {
+		// given
+		Resource inputModel = getTestResource("http-binding-restbucks-ml3.mdsl");
+		OpenAPIGenerator generator = new OpenAPIGenerator();
+		generator.setRoundTripValidation(true);
+		generator.setJsonOutput(true);
+
+		// when
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertTrue(generator.getRoundTripValidationMessages().join().isEmpty(), "OAS parser reports errors");
+		String json = getGeneratedFileContent("http-binding-restbucks-ml3.json");
+		assertTrue(json.startsWith("{") && json.contains("  \"openapi\" : \"3.0.1\","));
+		assertFalse(new File(getGenerationDirectory(), "http-binding-restbucks-ml3.yaml").exists());
+	}
+
+	@Test
+	public void canWriteMinifiedJson() throws IOException {
+		// given
+		Resource inputModel = getTestResource("http-binding-restbucks-ml3.mdsl");
+		OpenAPIGenerator generator = new OpenAPIGenerator();
+		generator.setRoundTripValidation(true);
+		generator.setJsonOutput(true);
+		generator.setMinifyJson(true);
+
+		// when
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertTrue(generator.getRoundTripValidationMessages().join().isEmpty(), "OAS parser reports errors");
+		String json = getGeneratedFileContent("http-binding-restbucks-ml3.json");
+		assertTrue(json.startsWith("{\"openapi\":\"3.0.1\","));
+		assertFalse(json.contains("\n"));
+	}
+
+	@Test
+	public void splitOutputLeavesUnchangedFilesUntouched() throws IOException {
+		// given
+		Resource inputModel = getTestResource("http-binding-restbucks-ml3.mdsl");
+		OpenAPIGenerator generator = new OpenAPIGenerator();
+		generator.setSplitOutput(true);
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+		File componentsFile = new File(getGenerationDirectory(), "http-binding-restbucks-ml3/components.yaml");
+		assertTrue(componentsFile.setLastModified(0));
+
+		// when
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertEquals(0, componentsFile.lastModified());
+	}
+
+	@Test
+	public void splitOutputDeletesStaleDocuments() throws IOException {
+		// given
+		Resource inputModel = getTestResource("http-binding-restbucks-ml3.mdsl");
+		OpenAPIGenerator generator = new OpenAPIGenerator();
+		generator.setSplitOutput(true);
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+		File staleDocument = new File(getGenerationDirectory(), "http-binding-restbucks-ml3/RESTBucksProvider-RemovedResource.yaml");
+		File otherFile = new File(getGenerationDirectory(), "http-binding-restbucks-ml3/README.md");
+		FileUtils.writeStringToFile(staleDocument, "/removed: {}", StandardCharsets.UTF_8);
+		FileUtils.writeStringToFile(otherFile, "notes", StandardCharsets.UTF_8);
+
+		// when
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertFalse(staleDocument.exists());
+		assertTrue(otherFile.exists());
+		assertTrue(new File(getGenerationDirectory(), "http-binding-restbucks-ml3/components.yaml").exists());
+	}
 	
 	
 	/**
@@ -239,10 +399,25 @@ public class OpenAPIGeneratorTest extends AbstractMDSLInputIntegrationTest {
 	 * expected output ({baseFilename}.yaml).
 	 */
 	protected void assertThatInputFileGeneratesExpectedOutput(String baseFilename) throws IOException {
+		assertThatInputFileGeneratesExpectedOutput(baseFilename, false, baseFilename + ".yaml");
+	}
+
+	/**
+	 * Same as {@link #assertThatInputFileGeneratesExpectedOutput(String)}, with
+	 * shared schemas moved to the components; the expected output is
+	 * {baseFilename}-shared-schemas.yaml.
+	 */
+	protected void assertThatInputFileGeneratesExpectedOutputWithSharedSchemas(String baseFilename) throws IOException {
+		assertThatInputFileGeneratesExpectedOutput(baseFilename, true, baseFilename + "-shared-schemas.yaml");
+	}
+
+	private void assertThatInputFileGeneratesExpectedOutput(String baseFilename, boolean extractSharedSchemas, String expectedFilename) throws IOException {
 	
 		// given
 		Resource inputModel = getTestResource(baseFilename + ".mdsl");
 		OpenAPIGenerator generator = new OpenAPIGenerator();
+		generator.setRoundTripValidation(true);
+		generator.setExtractSharedSchemas(extractSharedSchemas);
 
 		// when
 		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
@@ -251,7 +426,8 @@ public class OpenAPIGeneratorTest extends AbstractMDSLInputIntegrationTest {
 
 		// then
 		assertTrue(generator.getValidationMessages().isEmpty(), "OAS validation reports errors");
-		assertEquals(getExpectedTestResult(baseFilename + ".yaml"), getGeneratedFileContent(baseFilename + ".yaml"));
+		assertTrue(generator.getRoundTripValidationMessages().join().isEmpty(), "OAS parser reports errors");
+		assertEquals(getExpectedTestResult(expectedFilename), getGeneratedFileContent(baseFilename + ".yaml"));
 		
 	}
 
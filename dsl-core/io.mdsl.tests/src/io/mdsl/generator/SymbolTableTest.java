@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class SymbolTableTest {
+
+	@Test
+	public void canReserveName() {
+		// given
+		SymbolTable symbolTable = new SymbolTable();
+
+		// when
+		boolean firstReservation = symbolTable.reserve("Customer");
+		boolean secondReservation = symbolTable.reserve("Customer");
+
+		// then
+		assertTrue(firstReservation);
+		assertFalse(secondReservation);
+		assertTrue(symbolTable.isReserved("Customer"));
+		assertFalse(symbolTable.isReserved("Address"));
+	}
+
+	@Test
+	public void addsSuffixesToNamesAlreadyTaken() {
+		// given
+		SymbolTable symbolTable = new SymbolTable();
+
+		// when
+		String first = symbolTable.getUniqueName("Customer");
+		String second = symbolTable.getUniqueName("Customer");
+		String third = symbolTable.getUniqueName("Customer");
+
+		// then
+		assertEquals("Customer", first);
+		assertEquals("Customer_2", second);
+		assertEquals("Customer_3", third);
+	}
+
+	@Test
+	public void skipsSuffixedNamesReservedExplicitly() {
+		// given
+		SymbolTable symbolTable = new SymbolTable();
+		symbolTable.reserve("Customer");
+		symbolTable.reserve("Customer_2");
+
+		// when
+		String name = symbolTable.getUniqueName("Customer");
+
+		// then
+		assertEquals("Customer_3", name);
+	}
+
+	@Test
+	public void countsSequencesIndependently() {
+		// given
+		SymbolTable symbolTable = new SymbolTable();
+
+		// when
+		symbolTable.nextInSequence("anonymous");
+		int secondAnonymous = symbolTable.nextInSequence("anonymous");
+		int firstTree = symbolTable.nextInSequence("tree");
+
+		// then
+		assertEquals(2, secondAnonymous);
+		assertEquals(1, firstTree);
+	}
+
+	@Test
+	public void internsNames() {
+		// given
+		SymbolTable symbolTable = new SymbolTable();
+
+		// when
+		String first = symbolTable.intern(new String("customerId"));
+		String second = symbolTable.intern(new String("customerId"));
+
+		// then
+		assertSame(first, second);
+	}
+
+	@Test
+	public void anonymousFieldNameGeneratorsShareSymbolTableCounter() {
+		// given
+		SymbolTable symbolTable = new SymbolTable();
+		AnonymousFieldNameGenerator generator1 = new AnonymousFieldNameGenerator(symbolTable);
+		AnonymousFieldNameGenerator generator2 = new AnonymousFieldNameGenerator(symbolTable);
+
+		// when
+		String name1 = generator1.getUniqueName(null);
+		String name2 = generator2.getUniqueName("");
+		String name3 = generator2.getUniqueName("1st-name");
+
+		// then
+		assertEquals("anonymous1", name1);
+		assertEquals("anonymous2", name2);
+		assertEquals("_1stname", name3);
+	}
+
+}
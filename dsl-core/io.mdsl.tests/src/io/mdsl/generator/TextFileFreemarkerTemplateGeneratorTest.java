@@ -1,6 +1,8 @@
 package io.mdsl.generator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
@@ -12,6 +14,10 @@ import org.eclipse.xtext.generator.GeneratorContext;
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
 import org.junit.jupiter.api.Test;
 
+import io.mdsl.exception.MDSLException;
+import io.mdsl.generator.model.EndpointContract;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
 import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
 
 public class TextFileFreemarkerTemplateGeneratorTest extends AbstractMDSLInputIntegrationTest {
@@ -54,6 +60,87 @@ public class TextFileFreemarkerTemplateGeneratorTest extends AbstractMDSLInputIn
 				FileUtils.readFileToString(new File(getGenerationDirectory(), "output.txt"), "UTF-8"));
 	}
 	
+	@Test
+	public void canGenerateFromPrebuiltGeneratorModel() throws IOException {
+		// given
+		Resource inputModel = getTestResource("simple-generation-input-1.mdsl");
+		MDSLGeneratorModel genModel = new MDSL2GeneratorModelConverter(getTestSpecification(inputModel)).convert();
+		genModel.addEndpoint(new EndpointContract("AddedEndpoint"));
+		TextFileGenerator generator = new TextFileGenerator();
+		generator.setFreemarkerTemplateFile(getTestInputFile("simple-test-with-genmodel-template.ftl"));
+		generator.setTargetFileName("output.txt");
+		generator.setGeneratorModel(genModel);
+
+		// when
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertEquals(
+				"TestAPI specified in simple-generation-input-1.mdsl" + System.lineSeparator() + System.lineSeparator()
+						+ "endpoints:" + System.lineSeparator() + "TestEndpoint" + System.lineSeparator() + "AddedEndpoint" + System.lineSeparator(),
+				FileUtils.readFileToString(new File(getGenerationDirectory(), "output.txt"), "UTF-8"));
+	}
+	
+	@Test
+	public void canGenerateOneFilePerEndpointAsDeclaredInManifest() throws IOException {
+		// given
+		Resource inputModel = getTestResource("fan-out-input.mdsl");
+		TextFileGenerator generator = new TextFileGenerator();
+		generator.setFreemarkerTemplateFile(getTestInputFile("endpoint-summary.md.ftl"));
+
+		// when
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		generator.doGenerate(inputModel, javaIoFileSystemAccess, new GeneratorContext());
+
+		// then
+		assertEquals("# CustomerEndpoint (FanOutAPI)" + System.lineSeparator() + "- readCustomer" + System.lineSeparator() + "- updateCustomer" + System.lineSeparator(),
+				getGeneratedFileContent("CustomerEndpoint-summary.md"));
+		assertEquals("# OrderEndpoint (FanOutAPI)" + System.lineSeparator() + "- createOrder" + System.lineSeparator(),
+				getGeneratedFileContent("OrderEndpoint-summary.md"));
+		assertTrue(new File(getGenerationDirectory(), "ReportEndpoint-summary.md").exists());
+	}
+
+	@Test
+	public void canGenerateOneFilePerDataTypeFromGeneratorModel() throws IOException {
+		// given
+		MDSLGeneratorModel genModel = new MDSL2GeneratorModelConverter(getTestSpecification(getTestResource("fan-out-input.mdsl"))).convert();
+		TextFileGenerator generator = new TextFileGenerator();
+		generator.setFreemarkerTemplateFile(getTestInputFile("data-type-summary.txt.ftl"));
+		generator.setFanOut(new TextFileFanOut(TextFileFanOut.Target.DATA_TYPES, "types/${name}.txt"));
+
+		// when
+		generator.generateFromGeneratorModel(genModel, "fan-out-input.mdsl", getGenerationDirectory());
+
+		// then
+		assertEquals("Customer: id, name" + System.lineSeparator(), getGeneratedFileContent("types/Customer.txt"));
+		assertEquals("Order: orderId, customer, amount" + System.lineSeparator(), getGeneratedFileContent("types/Order.txt"));
+	}
+
+	@Test
+	public void canRenderFanOutOnSeveralThreads() throws IOException {
+		// given
+		MDSLGeneratorModel genModel = new MDSL2GeneratorModelConverter(getTestSpecification(getTestResource("fan-out-input.mdsl"))).convertLazily();
+		TextFileGenerator generator = new TextFileGenerator();
+		generator.setFreemarkerTemplateFile(getTestInputFile("data-type-summary.txt.ftl"));
+		generator.setFanOut(new TextFileFanOut(TextFileFanOut.Target.DATA_TYPES, "types/${name}.txt"));
+		generator.setFanOutThreads(4);
+
+		// when
+		generator.generateFromGeneratorModel(genModel, "fan-out-input.mdsl", getGenerationDirectory());
+
+		// then
+		assertEquals("Customer: id, name" + System.lineSeparator(), getGeneratedFileContent("types/Customer.txt"));
+		assertEquals("Order: orderId, customer, amount" + System.lineSeparator(), getGeneratedFileContent("types/Order.txt"));
+	}
+
+	@Test
+	public void rejectsFanOutFileNamePatternWithoutName() {
+		assertThrows(MDSLException.class, () -> new TextFileFanOut(TextFileFanOut.Target.ENDPOINTS, "report.md"));
+	}
+	
 	private File getTestFile(String testMDSLName) {
 		return new File(Paths.get("").toAbsolutePath().toString(), testDirectory() + testMDSLName);
 	}
@@ -81,6 +168,27 @@ public class TextFileFreemarkerTemplateGeneratorTest extends AbstractMDSLInputIn
 		assertEquals(getExpectedTestResult(baseFilename + ".yaml"), getGeneratedFileContent(baseFilename + ".yaml"));
 	}
 	
+	@Test
+	public void canGenerateALPSYAMLFromImportedGeneratorModel() throws IOException {
+		String baseFilename = "alps-generator-demo";
+
+		// given
+		JavaIoFileSystemAccess javaIoFileSystemAccess = getFileSystemAccess();
+		javaIoFileSystemAccess.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		new GenModelCBORExporter().doGenerate(getTestResource(baseFilename + ".mdsl"), javaIoFileSystemAccess, new GeneratorContext());
+		MDSLGeneratorModel genModel = new GenModelImporter()
+				.importFrom(new File(getGenerationDirectory(), baseFilename + "_GeneratorModel.cbor"));
+		TextFileGenerator generator = new TextFileGenerator();
+		generator.setFreemarkerTemplateFile(getTestInputFile("mdsl-to-alps-template.yaml.ftl"));
+		generator.setTargetFileName(baseFilename + ".yaml");
+
+		// when
+		generator.generateFromGeneratorModel(genModel, baseFilename + ".mdsl", getGenerationDirectory());
+
+		// then
+		assertEquals(getExpectedTestResult(baseFilename + ".yaml"), getGeneratedFileContent(baseFilename + ".yaml"));
+	}
+
 	@Override
 	protected String testDirectory() {
 		return "/test-data/freemarker-generation/";
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.XtextResource;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mdsl.MDSLResource;
+import io.mdsl.apiDescription.ApiDescriptionFactory;
+import io.mdsl.apiDescription.DataContract;
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.generator.model.DataType;
+import io.mdsl.generator.model.EndpointContract;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.converter.IncrementalGeneratorModelConverter;
+import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class IncrementalGeneratorModelConverterTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void canPatchChangedDataTypeInPlace() throws IOException {
+		// given
+		ServiceSpecification mdsl = new MDSLResource(getTestResource("incremental-conversion-model.mdsl")).getServiceSpecification();
+		IncrementalGeneratorModelConverter converter = new IncrementalGeneratorModelConverter(mdsl);
+		MDSLGeneratorModel genModel = converter.convert();
+		DataType testInput = findDataType(genModel, "TestInput");
+
+		// when
+		mdsl.getTypes().get(0).getStructure().getApl().getFirst().getRat().setName("renamedAttribute");
+		MDSLGeneratorModel updatedGenModel = converter.update();
+
+		// then
+		assertSame(genModel, updatedGenModel);
+		assertSame(testInput, findDataType(updatedGenModel, "TestInput"));
+		assertEquals("renamedAttribute", testInput.getFields().get(0).getName());
+		assertFalse(converter.hasPendingChanges());
+		converter.dispose();
+	}
+
+	@Test
+	public void reconvertsElementsReferencingChangedDataType() throws IOException {
+		// given
+		ServiceSpecification mdsl = new MDSLResource(getTestResource("incremental-conversion-model.mdsl")).getServiceSpecification();
+		IncrementalGeneratorModelConverter converter = new IncrementalGeneratorModelConverter(mdsl);
+		MDSLGeneratorModel genModel = converter.convert();
+		EndpointContract endpoint = genModel.getEndpoints().get(0);
+
+		// when
+		mdsl.getTypes().get(0).getStructure().getApl().getFirst().getRat().setName("renamedAttribute");
+		MDSLGeneratorModel updatedGenModel = converter.update();
+
+		// then
+		assertSame(endpoint, updatedGenModel.getEndpoints().get(0));
+		assertSame(endpoint, updatedGenModel.getProviders().get(0).offeredEndpoints().get(0));
+		ObjectMapper mapper = new ObjectMapper();
+		MDSLGeneratorModel fullyConvertedGenModel = new MDSL2GeneratorModelConverter(mdsl).convert();
+		assertEquals(mapper.writeValueAsString(fullyConvertedGenModel.getEndpoints()), mapper.writeValueAsString(updatedGenModel.getEndpoints()));
+		assertEquals(fullyConvertedGenModel.getDataTypes().size(), updatedGenModel.getDataTypes().size());
+		assertEquals("renamedAttribute", ((DataType) findDataType(updatedGenModel, "TestOutput").getFields().get(0).getType()).getFields().get(0).getName());
+		converter.dispose();
+	}
+
+	@Test
+	public void convertsFullyOnStructuralChange() throws IOException {
+		// given
+		ServiceSpecification mdsl = new MDSLResource(getTestResource("incremental-conversion-model.mdsl")).getServiceSpecification();
+		IncrementalGeneratorModelConverter converter = new IncrementalGeneratorModelConverter(mdsl);
+		MDSLGeneratorModel genModel = converter.convert();
+		DataContract newDataContract = ApiDescriptionFactory.eINSTANCE.createDataContract();
+		newDataContract.setName("NewType");
+		newDataContract.setStructure(ApiDescriptionFactory.eINSTANCE.createElementStructure());
+		newDataContract.getStructure().setNp(ApiDescriptionFactory.eINSTANCE.createSingleParameterNode());
+		newDataContract.getStructure().getNp().setGenP(ApiDescriptionFactory.eINSTANCE.createGenericParameter());
+
+		// when
+		mdsl.getTypes().add(newDataContract);
+		assertTrue(converter.hasPendingChanges());
+		MDSLGeneratorModel updatedGenModel = converter.update();
+
+		// then
+		assertNotSame(genModel, updatedGenModel);
+		assertEquals("NewType", findDataType(updatedGenModel, "NewType").getName());
+		converter.dispose();
+	}
+
+	@Test
+	public void followsReparsedResource() throws IOException {
+		// given
+		Resource resource = getTestResource("incremental-conversion-model.mdsl");
+		IncrementalGeneratorModelConverter converter = new IncrementalGeneratorModelConverter(resource);
+		converter.convert();
+		String text = ((XtextResource) resource).getParseResult().getRootNode().getText();
+
+		// when
+		((XtextResource) resource).reparse(text.replace("data type TestInput", "data type ReparsedInput").replace("payload TestInput", "payload ReparsedInput")
+				.replace("\"output\":TestInput", "\"output\":ReparsedInput").replace("\"input\":TestInput", "\"input\":ReparsedInput"));
+		assertTrue(converter.hasPendingChanges());
+		MDSLGeneratorModel reparsedGenModel = converter.update();
+		ServiceSpecification reparsedMdsl = new MDSLResource(resource).getServiceSpecification();
+		reparsedMdsl.getTypes().get(0).getStructure().getApl().getFirst().getRat().setName("renamedAttribute");
+		MDSLGeneratorModel updatedGenModel = converter.update();
+
+		// then
+		assertEquals("ReparsedInput", findDataType(reparsedGenModel, "ReparsedInput").getName());
+		assertSame(reparsedGenModel, updatedGenModel);
+		assertEquals("renamedAttribute", findDataType(updatedGenModel, "ReparsedInput").getFields().get(0).getName());
+		converter.dispose();
+	}
+
+	private DataType findDataType(MDSLGeneratorModel genModel, String name) {
+		return genModel.getDataTypes().stream().filter(d -> d.getName().equals(name)).findFirst().get();
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/generator-model/";
+	}
+
+}
@@ -20,9 +20,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.mdsl.MDSLResource;
 import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.generator.model.Client;
@@ -294,6 +297,55 @@ public class MDSL2GeneratorModelConverterTest extends AbstractMDSLInputIntegrati
 		assertEquals("testOperationMethod", javaBinding.getJavaMethodName4Operation("TestOperation"));
 	}
 
+	@Test
+	public void canConvertInParallelMode() throws IOException {
+		// given
+		ServiceSpecification mdsl = new MDSLResource(getTestResource("provider-implementation-model.mdsl")).getServiceSpecification();
+		MDSLGeneratorModel sequentialGenModel = new MDSL2GeneratorModelConverter(mdsl).convert();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		MDSL2GeneratorModelConverter converter = new MDSL2GeneratorModelConverter(mdsl, pool);
+
+		// when
+		MDSLGeneratorModel genModel = converter.convert();
+
+		// then
+		assertEquals(1, genModel.getProviderImplementations().size());
+		assertEquals("TestProvider", genModel.getProviderImplementations().get(0).getProviderName());
+		ObjectMapper mapper = new ObjectMapper();
+		assertEquals(mapper.writeValueAsString(sequentialGenModel), mapper.writeValueAsString(genModel));
+		pool.shutdown();
+	}
+
+	@Test
+	public void convertsSectionsOnFirstAccess() throws IOException {
+		// given
+		ServiceSpecification mdsl = new MDSLResource(getTestResource("provider-implementation-model.mdsl")).getServiceSpecification();
+		MDSL2GeneratorModelConverter converter = new MDSL2GeneratorModelConverter(mdsl);
+
+		// when
+		MDSLGeneratorModel genModel = converter.convertLazily();
+		assertEquals(1, genModel.getProviders().size());
+		mdsl.getRealizations().clear();
+
+		// then
+		assertEquals(1, genModel.getProviders().size());
+		assertEquals(0, genModel.getProviderImplementations().size());
+	}
+
+	@Test
+	public void canConvertAllSectionsEagerly() throws IOException {
+		// given
+		ServiceSpecification mdsl = new MDSLResource(getTestResource("provider-implementation-model.mdsl")).getServiceSpecification();
+		MDSL2GeneratorModelConverter converter = new MDSL2GeneratorModelConverter(mdsl);
+
+		// when
+		MDSLGeneratorModel genModel = converter.convert();
+		mdsl.getRealizations().clear();
+
+		// then
+		assertEquals(1, genModel.getProviderImplementations().size());
+	}
+
 	@Override
 	protected String testDirectory() {
 		return "/test-data/generator-model/";
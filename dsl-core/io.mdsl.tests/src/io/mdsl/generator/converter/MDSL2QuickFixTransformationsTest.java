@@ -16,6 +16,8 @@
 package io.mdsl.generator.converter;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -44,6 +46,7 @@ import io.mdsl.apiDescription.ParameterTree;
 import io.mdsl.apiDescription.Provider;
 import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.apiDescription.TreeNode;
+import io.mdsl.exception.MDSLException;
 import io.mdsl.generator.model.MDSLGeneratorModel;
 import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
 import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
@@ -782,6 +785,28 @@ public class MDSL2QuickFixTransformationsTest extends AbstractMDSLInputIntegrati
 		// TODO check that all three resource bindings have unique verbs (count POSTs etc.)  
 	}
 	
+	@Test
+	public void canMakeHTTPOperationBindingAsynchronous() throws IOException {
+		// given
+		ServiceSpecification apiDescription = new MDSLResource(getTestResource("endpoint-with-bindings.mdsl")).getServiceSpecification();
+		Provider provider1 = (Provider) apiDescription.getProviders().get(0);
+		EndpointInstance epi1 = provider1.getEpl().get(0).getEndpoints().get(0);
+		EList<HTTPOperationBinding> hobs = epi1.getPb().get(0).getProtBinding().getHttp().getEb().get(0).getOpsB();
+		HTTPOperationBinding updateBinding = hobs.get(3);
+		HTTPOperationBinding getBinding = hobs.get(2);
+		assertEquals("updateResourceState", updateBinding.getBoundOperation());
+		assertEquals("getResourceState", getBinding.getBoundOperation());
+		HTTPBindingTransformations hbts = new HTTPBindingTransformations();
+
+		// when
+		hbts.makeOperationBindingAsynchronous(updateBinding);
+
+		// then
+		assertTrue(updateBinding.isAsynchronous());
+		assertThrows(MDSLException.class, () -> hbts.makeOperationBindingAsynchronous(getBinding));
+		assertFalse(getBinding.isAsynchronous());
+	}
+
 	// TODO (M) test more data type QFs, e.g. APL -> PT, support PF -> PT QF
 
 	@Test
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import freemarker.template.Template;
+import io.mdsl.generator.JavaGenerator;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class FreemarkerEngineWrapperTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void sharesParsedBundledTemplates() throws IOException {
+		// given
+		FreemarkerEngineWrapper wrapper1 = new FreemarkerEngineWrapper(JavaGenerator.class, "java/DataType.java.ftl");
+		FreemarkerEngineWrapper wrapper2 = new FreemarkerEngineWrapper(JavaGenerator.class, "java/DataType.java.ftl");
+
+		// when
+		Template template1 = wrapper1.getTemplate();
+		Template template2 = wrapper2.getTemplate();
+
+		// then
+		assertSame(template1, template2);
+	}
+
+	@Test
+	public void reloadsModifiedUserTemplate() throws IOException {
+		// given
+		File templateFile = new File(getGenerationDirectory(), "cached-template.ftl");
+		FileUtils.writeStringToFile(templateFile, "first ${genModel.apiName}", "UTF-8");
+		templateFile.setLastModified(System.currentTimeMillis() - 10000);
+		MDSLGeneratorModel genModel = new MDSLGeneratorModel("TestAPI");
+		Template firstTemplate = new FreemarkerEngineWrapper(templateFile).getTemplate();
+		assertSame(firstTemplate, new FreemarkerEngineWrapper(templateFile).getTemplate());
+
+		// when
+		FileUtils.writeStringToFile(templateFile, "second ${genModel.apiName}", "UTF-8");
+		templateFile.setLastModified(System.currentTimeMillis());
+		FreemarkerEngineWrapper wrapper = new FreemarkerEngineWrapper(templateFile);
+
+		// then
+		assertNotSame(firstTemplate, wrapper.getTemplate());
+		assertEquals("second TestAPI", wrapper.generate(genModel));
+	}
+
+	@Test
+	public void dropsConfigurationsOfLeastRecentlyUsedDirectories() throws IOException {
+		// given
+		File[] templateFiles = new File[20];
+		for (int i = 0; i < templateFiles.length; i++) {
+			templateFiles[i] = new File(getGenerationDirectory(), "template-directory-" + i + "/template.ftl");
+			FileUtils.writeStringToFile(templateFiles[i], "${genModel.apiName}", "UTF-8");
+		}
+		Template firstTemplate = new FreemarkerEngineWrapper(templateFiles[0]).getTemplate();
+		Template secondTemplate = new FreemarkerEngineWrapper(templateFiles[1]).getTemplate();
+
+		// when
+		for (int i = 2; i < templateFiles.length; i++) {
+			new FreemarkerEngineWrapper(templateFiles[0]).getTemplate();
+			new FreemarkerEngineWrapper(templateFiles[i]).getTemplate();
+		}
+
+		// then
+		assertSame(firstTemplate, new FreemarkerEngineWrapper(templateFiles[0]).getTemplate());
+		assertNotSame(secondTemplate, new FreemarkerEngineWrapper(templateFiles[1]).getTemplate());
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/freemarker-generation/";
+	}
+
+}
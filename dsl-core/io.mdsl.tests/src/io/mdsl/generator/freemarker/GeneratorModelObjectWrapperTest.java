@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import freemarker.ext.beans.StringModel;
+import freemarker.ext.util.WrapperTemplateModel;
+import freemarker.template.Configuration;
+import freemarker.template.ObjectWrapper;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateMethodModelEx;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateScalarModel;
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.generator.model.DataType;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.Provider;
+import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class GeneratorModelObjectWrapperTest extends AbstractMDSLInputIntegrationTest {
+
+	private static final String TEMPLATE = "${genModel.apiName} (${genModel.numberOfDataTypes} types)\n"
+			+ "<#list genModel.dataTypes as type>${type.name} atomic=${type.atomic?c} ${type.sampleJSON(1)}\n"
+			+ "<#list type.fields as field> - ${field.name}: ${field.typeAsString} list=${field.list?c}\n</#list></#list>"
+			+ "<#list genModel.endpoints as endpoint>${endpoint.name}\n"
+			+ "<#list endpoint.operations as operation> - ${operation.name}(${operation.request.name})\n</#list></#list>";
+
+	@Test
+	public void rendersLikeDefaultObjectWrapper() throws IOException, TemplateException {
+		// given
+		ServiceSpecification spec = getTestSpecification(getTestResource("fan-out-input.mdsl"));
+		MDSLGeneratorModel genModel = new MDSL2GeneratorModelConverter(spec).convert();
+
+		// when
+		String defaultOutput = render(Configuration.getDefaultObjectWrapper(Configuration.VERSION_2_3_30), genModel);
+		String output = render(new GeneratorModelObjectWrapper(), genModel);
+
+		// then
+		assertEquals(defaultOutput, output);
+		assertTrue(output.contains(" - customer: Customer list=false"));
+	}
+
+	@Test
+	public void readsPropertiesAndDelegatesMethods() throws TemplateModelException {
+		// given
+		GeneratorModelObjectWrapper wrapper = new GeneratorModelObjectWrapper();
+		DataType dataType = new DataType("Customer");
+
+		// when
+		TemplateHashModel model = (TemplateHashModel) wrapper.wrap(dataType);
+
+		// then
+		assertEquals("Customer", ((TemplateScalarModel) model.get("name")).getAsString());
+		assertTrue(model.get("sampleJSON") instanceof TemplateMethodModelEx);
+		assertSame(dataType, ((WrapperTemplateModel) model).getWrappedObject());
+	}
+
+	@Test
+	public void leavesOtherObjectsToDefaultObjectWrapper() throws TemplateModelException {
+		// given
+		GeneratorModelObjectWrapper wrapper = new GeneratorModelObjectWrapper();
+		Provider provider = new Provider("CustomerProvider");
+
+		// when
+		Object model = wrapper.wrap(provider);
+
+		// then
+		assertEquals(StringModel.class, model.getClass());
+		assertEquals("CustomerProvider", ((TemplateScalarModel) ((TemplateHashModel) model).get("name")).getAsString());
+	}
+
+	@Test
+	public void isUsedByEngineWrapper() throws IOException {
+		// given
+		FreemarkerEngineWrapper engineWrapper = new FreemarkerEngineWrapper(getTestInputFile("simple-test-template.ftl"));
+
+		// when
+		ObjectWrapper objectWrapper = engineWrapper.getTemplate().getObjectWrapper();
+
+		// then
+		assertTrue(objectWrapper instanceof GeneratorModelObjectWrapper);
+	}
+
+	private String render(ObjectWrapper objectWrapper, MDSLGeneratorModel genModel) throws IOException, TemplateException {
+		Configuration configuration = new Configuration(Configuration.VERSION_2_3_30);
+		configuration.setObjectWrapper(objectWrapper);
+		StringWriter writer = new StringWriter();
+		new Template("test", new StringReader(TEMPLATE), configuration).process(Collections.singletonMap("genModel", genModel), writer);
+		return writer.toString();
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/freemarker-generation/";
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+
+import org.eclipse.xtext.generator.GeneratorContext;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.junit.jupiter.api.Test;
+
+import io.mdsl.exception.MDSLException;
+import io.mdsl.exception.TemplateRenderBudgetExceededException;
+import io.mdsl.generator.TextFileGenerator;
+import io.mdsl.generator.model.DataType;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class TemplateRenderBudgetTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void abortsRenderExceedingOutputLimit() throws IOException {
+		// given
+		FreemarkerEngineWrapper wrapper = new FreemarkerEngineWrapper(getTestInputFile("runaway-output.txt.ftl"));
+		wrapper.setRenderBudget(new TemplateRenderBudget(TemplateRenderBudget.UNLIMITED, 10000));
+
+		// when
+		TemplateRenderBudgetExceededException exception = assertThrows(TemplateRenderBudgetExceededException.class,
+				() -> wrapper.generate(createModel()));
+
+		// then
+		assertEquals("runaway-output.txt.ftl", exception.getTemplateName());
+		assertTrue(exception.getMessage().contains("the output limit of 10000 bytes"));
+		assertTrue(exception.getTemplateLocation().contains("line 2"));
+	}
+
+	@Test
+	public void abortsRenderExceedingTimeLimit() throws IOException {
+		// given
+		FreemarkerEngineWrapper wrapper = new FreemarkerEngineWrapper(getTestInputFile("runaway-loop.txt.ftl"));
+		wrapper.setRenderBudget(new TemplateRenderBudget(200, TemplateRenderBudget.UNLIMITED));
+
+		// when
+		TemplateRenderBudgetExceededException exception = assertTimeoutPreemptively(Duration.ofSeconds(30),
+				() -> assertThrows(TemplateRenderBudgetExceededException.class, () -> wrapper.generate(createModel())));
+
+		// then
+		assertTrue(exception.getMessage().contains("the render time limit of 200 ms"));
+		assertTrue(exception.getTemplateLocation().contains("line 3"));
+		assertFalse(Thread.currentThread().isInterrupted());
+	}
+
+	@Test
+	public void abortsSilentLoopExceedingTimeLimit() throws IOException {
+		// given
+		FreemarkerEngineWrapper wrapper = new FreemarkerEngineWrapper(getTestInputFile("runaway-iteration.txt.ftl"));
+		wrapper.setRenderBudget(new TemplateRenderBudget(200, TemplateRenderBudget.UNLIMITED));
+		MDSLGeneratorModel genModel = new MDSLGeneratorModel("RunawayAPI");
+		for (int i = 0; i < 2000; i++)
+			genModel.addDataType(new DataType("Type" + i));
+
+		// when
+		TemplateRenderBudgetExceededException exception = assertTimeoutPreemptively(Duration.ofSeconds(30),
+				() -> assertThrows(TemplateRenderBudgetExceededException.class, () -> wrapper.generate(genModel)));
+
+		// then
+		assertTrue(exception.getMessage().contains("the render time limit of 200 ms"));
+		assertTrue(exception.getTemplateLocation().contains("line 3"));
+	}
+
+	@Test
+	public void rendersWithinBudget() throws IOException {
+		// given
+		FreemarkerEngineWrapper wrapper = new FreemarkerEngineWrapper(getTestInputFile("simple-test-with-genmodel-template.ftl"));
+		wrapper.registerCustomData("fileName", "budget.mdsl");
+		wrapper.setRenderBudget(new TemplateRenderBudget(60000, 1000000));
+		FreemarkerEngineWrapper unlimitedWrapper = new FreemarkerEngineWrapper(getTestInputFile("simple-test-with-genmodel-template.ftl"));
+		unlimitedWrapper.registerCustomData("fileName", "budget.mdsl");
+
+		// when
+		String output = wrapper.generate(createModel());
+
+		// then
+		assertEquals(unlimitedWrapper.generate(createModel()), output);
+	}
+
+	@Test
+	public void removesAbortedFile() throws IOException {
+		// given
+		TextFileGenerator generator = new TextFileGenerator();
+		generator.setFreemarkerTemplateFile(getTestInputFile("runaway-output.txt.ftl"));
+		generator.setTargetFileName("runaway-output.txt");
+		generator.setRenderBudget(new TemplateRenderBudget(TemplateRenderBudget.UNLIMITED, 100000));
+
+		// when
+		assertThrows(TemplateRenderBudgetExceededException.class,
+				() -> generator.generateFromGeneratorModel(createModel(), "runaway.mdsl", getGenerationDirectory()));
+
+		// then
+		assertFalse(new File(getGenerationDirectory(), "runaway-output.txt").exists());
+	}
+
+	@Test
+	public void keepsPreviousFileIfRenderIsAborted() throws IOException {
+		// given
+		JavaIoFileSystemAccess fsa = getFileSystemAccess();
+		fsa.setOutputPath(getGenerationDirectory().getAbsolutePath());
+		TextFileGenerator generator = new TextFileGenerator();
+		generator.setFreemarkerTemplateFile(getTestInputFile("simple-test-template.ftl"));
+		generator.setTargetFileName("output.txt");
+		generator.doGenerate(getTestResource("fan-out-input.mdsl"), fsa, new GeneratorContext());
+		String previousContent = getGeneratedFileContent("output.txt");
+
+		// when
+		generator.setFreemarkerTemplateFile(getTestInputFile("runaway-output.txt.ftl"));
+		generator.setRenderBudget(new TemplateRenderBudget(TemplateRenderBudget.UNLIMITED, 100000));
+		assertThrows(TemplateRenderBudgetExceededException.class,
+				() -> generator.doGenerate(getTestResource("fan-out-input.mdsl"), fsa, new GeneratorContext()));
+
+		// then
+		assertEquals(previousContent, getGeneratedFileContent("output.txt"));
+	}
+
+	@Test
+	public void rejectsNegativeLimits() {
+		assertThrows(MDSLException.class, () -> new TemplateRenderBudget(-1, TemplateRenderBudget.UNLIMITED));
+	}
+
+	private MDSLGeneratorModel createModel() {
+		MDSLGeneratorModel genModel = new MDSLGeneratorModel("RunawayAPI");
+		genModel.addDataType(new DataType("Customer"));
+		genModel.addDataType(new DataType("Order"));
+		return genModel;
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/freemarker-generation/";
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.xtext.generator.GeneratorContext;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.junit.jupiter.api.Test;
+
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.generator.GraphQLGenerator;
+import io.mdsl.generator.java.CapitalizeMethod;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class TemplateRenderProfileTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void profilesMacrosListsAndMethods() throws IOException {
+		// given
+		ServiceSpecification spec = getTestSpecification(getTestResource("fan-out-input.mdsl"));
+		MDSLGeneratorModel genModel = new MDSL2GeneratorModelConverter(spec).convert();
+		TemplateRenderProfile profile = new TemplateRenderProfile();
+		FreemarkerEngineWrapper profiledWrapper = createWrapper();
+		profiledWrapper.setRenderProfile(profile);
+
+		// when
+		String profiledOutput = profiledWrapper.generate(spec, genModel);
+
+		// then
+		assertEquals(createWrapper().generate(spec, genModel), profiledOutput);
+		Map<String, TemplateRenderProfile.Entry> entries = profile.getEntries().stream()
+				.collect(Collectors.toMap(TemplateRenderProfile.Entry::getElement, Function.identity()));
+		assertEquals(2, entries.get("profiled-template.md.ftl:1 macro fieldList").getCalls());
+		assertEquals(2, entries.get("profiled-template.md.ftl:2 #list dataType.fields as field").getCalls());
+		assertEquals(1, entries.get("profiled-template.md.ftl:7 #list genModel.dataTypes?filter(d -> d.fields?size > 1) as dataType").getCalls());
+		assertEquals(7, entries.get("method capitalize").getCalls());
+		assertTrue(profile.getReport().contains("profiled-template.md.ftl:1 macro fieldList"));
+	}
+
+	@Test
+	public void profiledGraphQLGenerationYieldsSameOutput() throws IOException {
+		// given
+		File plainOutput = new File(getGenerationDirectory(), "plain");
+		File profiledOutput = new File(getGenerationDirectory(), "profiled");
+		TemplateRenderProfile profile = new TemplateRenderProfile();
+		GraphQLGenerator profiledGenerator = new GraphQLGenerator();
+		profiledGenerator.setRenderProfile(profile);
+
+		// when
+		generate(new GraphQLGenerator(), plainOutput);
+		generate(profiledGenerator, profiledOutput);
+
+		// then
+		assertEquals(readAll(plainOutput), readAll(profiledOutput));
+		assertTrue(profile.getEntries().stream().anyMatch(e -> e.getElement().equals("method mapType") && e.getCalls() > 0));
+	}
+
+	@Test
+	public void resetRemovesMeasurements() throws IOException {
+		// given
+		TemplateRenderProfile profile = new TemplateRenderProfile();
+		FreemarkerEngineWrapper wrapper = createWrapper();
+		wrapper.setRenderProfile(profile);
+		ServiceSpecification spec = getTestSpecification(getTestResource("fan-out-input.mdsl"));
+		wrapper.generate(spec);
+
+		// when
+		profile.reset();
+
+		// then
+		assertTrue(profile.getEntries().isEmpty());
+	}
+
+	@Test
+	public void instrumentationKeepsCommentsAndStringsIntact() {
+		// given
+		String template = "<#-- <#list ignored as i></#list> -->\n<#list items?filter(i -> i.size > 1) as i>${i}</#list>";
+
+		// when
+		String instrumented = ProfilingTemplateLoader.instrument("t.ftl", template);
+
+		// then
+		assertEquals("<#-- <#list ignored as i></#list> -->\n"
+				+ "<@mdslProfile_ id=r\"t.ftl:2 #list items?filter(i -> i.size > 1) as i\"><#list items?filter(i -> i.size > 1) as i>${i}</#list></@mdslProfile_>",
+				instrumented);
+	}
+
+	@Test
+	public void instrumentationKeepsNoparseSectionsIntact() {
+		// given
+		String template = "<#noparse>\n<#list ignored as i></#list>\n</#noparse>\n<#macro m><#list items as i>${i}</#list></#macro>";
+
+		// when
+		String instrumented = ProfilingTemplateLoader.instrument("t.ftl", template);
+
+		// then
+		assertEquals("<#noparse>\n<#list ignored as i></#list>\n</#noparse>\n"
+				+ "<#macro m><@mdslProfile_ id=r\"t.ftl:4 macro m\"><@mdslProfile_ id=r\"t.ftl:4 #list items as i\"><#list items as i>${i}</#list></@mdslProfile_></@mdslProfile_></#macro>",
+				instrumented);
+	}
+
+	private FreemarkerEngineWrapper createWrapper() throws IOException {
+		FreemarkerEngineWrapper wrapper = new FreemarkerEngineWrapper(getTestInputFile("profiled-template.md.ftl"));
+		wrapper.registerCustomData("capitalize", new CapitalizeMethod());
+		return wrapper;
+	}
+
+	private void generate(GraphQLGenerator generator, File outputDirectory) throws IOException {
+		JavaIoFileSystemAccess fsa = getFileSystemAccess();
+		fsa.setOutputPath(outputDirectory.getAbsolutePath());
+		generator.doGenerate(getTestResource("fan-out-input.mdsl"), fsa, new GeneratorContext());
+	}
+
+	private Map<String, String> readAll(File directory) throws IOException {
+		return FileUtils.listFiles(directory, null, true).stream().collect(Collectors.toMap(
+				f -> directory.toPath().relativize(f.toPath()).toString(), f -> readFile(f)));
+	}
+
+	private String readFile(File file) {
+		try {
+			return FileUtils.readFileToString(file, "UTF-8");
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/freemarker-generation/";
+	}
+
+}
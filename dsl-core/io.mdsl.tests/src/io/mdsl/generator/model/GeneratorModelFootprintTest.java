@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.model;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.jupiter.api.Test;
+
+import io.mdsl.APIDescriptionStandaloneSetup;
+import io.mdsl.MDSLResource;
+import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+/**
+ * Measures the retained size of generator models built from synthetic MDSL
+ * specifications. The size is estimated by walking the object graph (64-bit JVM
+ * with compressed references), so that the result does not depend on the
+ * garbage collector.
+ */
+public class GeneratorModelFootprintTest extends AbstractMDSLInputIntegrationTest {
+
+	private static final int OBJECT_HEADER_SIZE = 12;
+	private static final int ARRAY_HEADER_SIZE = 16;
+	private static final int REFERENCE_SIZE = 4;
+	private static final int ALIGNMENT = 8;
+
+	private static final int MAX_BYTES_PER_FIELD = 48;
+	private static final int MAX_BYTES_PER_ENDPOINT = 800;
+
+	@Test
+	public void fieldsHaveSmallFootprint() throws IOException {
+		// given
+		MDSLGeneratorModel smallModel = convert(createSyntheticSpecification(20, 10, 1));
+		MDSLGeneratorModel largeModel = convert(createSyntheticSpecification(20, 20, 1));
+
+		// when
+		long bytesPerField = (retainedSize(largeModel) - retainedSize(smallModel)) / (20 * 10);
+
+		// then
+		assertTrue(bytesPerField <= MAX_BYTES_PER_FIELD, "Retained bytes per field: " + bytesPerField);
+	}
+
+	@Test
+	public void endpointsHaveSmallFootprint() throws IOException {
+		// given
+		MDSLGeneratorModel smallModel = convert(createSyntheticSpecification(5, 5, 20));
+		MDSLGeneratorModel largeModel = convert(createSyntheticSpecification(5, 5, 40));
+
+		// when
+		long bytesPerEndpoint = (retainedSize(largeModel) - retainedSize(smallModel)) / 20;
+
+		// then
+		assertTrue(bytesPerEndpoint <= MAX_BYTES_PER_ENDPOINT, "Retained bytes per endpoint: " + bytesPerEndpoint);
+	}
+
+	private String createSyntheticSpecification(int numberOfTypes, int fieldsPerType, int numberOfEndpoints) {
+		StringBuilder mdsl = new StringBuilder("API description SyntheticAPI\n\n");
+		for (int t = 0; t < numberOfTypes; t++) {
+			mdsl.append("data type Type").append(t).append(" {");
+			for (int f = 0; f < fieldsPerType; f++) {
+				if (f > 0)
+					mdsl.append(", ");
+				mdsl.append("\"field").append(f).append("\":D<").append(f % 2 == 0 ? "string" : "int").append(">");
+			}
+			mdsl.append("}\n");
+		}
+		for (int e = 0; e < numberOfEndpoints; e++) {
+			mdsl.append("\nendpoint type Endpoint").append(e).append(" exposes\n");
+			mdsl.append("  operation read expecting payload Type").append(e % numberOfTypes)
+					.append(" delivering payload Type").append((e + 1) % numberOfTypes).append("\n");
+			mdsl.append("  operation write expecting payload {\"id\":ID<int>, \"value\":D<string>} delivering payload D<bool>\n");
+		}
+		return mdsl.toString();
+	}
+
+	private MDSLGeneratorModel convert(String mdsl) throws IOException {
+		File mdslFile = new File(getGenerationDirectory(), "synthetic-" + mdsl.hashCode() + ".mdsl");
+		FileUtils.writeStringToFile(mdslFile, mdsl, "UTF-8");
+		new APIDescriptionStandaloneSetup().createInjectorAndDoEMFRegistration();
+		MDSLResource resource = new MDSLResource(
+				new ResourceSetImpl().getResource(URI.createFileURI(mdslFile.getAbsolutePath()), true));
+		return new MDSL2GeneratorModelConverter(resource.getServiceSpecification()).convert();
+	}
+
+	private long retainedSize(Object root) {
+		Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<Object> toVisit = new ArrayDeque<>();
+		toVisit.push(root);
+		long size = 0;
+		while (!toVisit.isEmpty()) {
+			Object object = toVisit.pop();
+			if (!visited.add(object))
+				continue;
+			Class<?> clazz = object.getClass();
+			if (clazz.isArray()) {
+				int length = Array.getLength(object);
+				Class<?> componentType = clazz.getComponentType();
+				size += align(ARRAY_HEADER_SIZE + (long) length * sizeOf(componentType));
+				if (!componentType.isPrimitive()) {
+					for (int i = 0; i < length; i++)
+						push(toVisit, Array.get(object, i));
+				}
+				continue;
+			}
+			long objectSize = OBJECT_HEADER_SIZE;
+			for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers()))
+						continue;
+					objectSize += sizeOf(field.getType());
+					if (!field.getType().isPrimitive())
+						push(toVisit, readField(field, object));
+				}
+			}
+			size += align(objectSize);
+		}
+		return size;
+	}
+
+	private void push(Deque<Object> toVisit, Object object) {
+		// enum constants and classes are shared by all models
+		if (object != null && !(object instanceof Enum) && !(object instanceof Class))
+			toVisit.push(object);
+	}
+
+	private Object readField(Field field, Object object) {
+		try {
+			field.setAccessible(true);
+			return field.get(object);
+		} catch (RuntimeException | IllegalAccessException e) {
+			return null; // JDK internals that cannot be accessed are counted shallowly
+		}
+	}
+
+	private int sizeOf(Class<?> type) {
+		if (type == long.class || type == double.class)
+			return 8;
+		if (type == int.class || type == float.class)
+			return 4;
+		if (type == short.class || type == char.class)
+			return 2;
+		if (type == byte.class || type == boolean.class)
+			return 1;
+		return REFERENCE_SIZE;
+	}
+
+	private long align(long size) {
+		return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/generator-model/";
+	}
+
+}
@@ -16,9 +16,14 @@
 package io.mdsl.generator.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import io.mdsl.generator.model.MDSLGeneratorModel.Section;
+
 public class MDSLGeneratorModelTest {
 
 	@Test
@@ -105,6 +110,48 @@ public class MDSLGeneratorModelTest {
 		assertEquals("TestImpl", mdslGenModel.getProviderImplementations().get(0).getName());
 	}
 
+	@Test
+	public void runsSharedSectionLoaderOnce() {
+		// given
+		MDSLGeneratorModel mdslGenModel = new MDSLGeneratorModel("TestAPI");
+		AtomicInteger runs = new AtomicInteger();
+		Runnable loader = () -> {
+			runs.incrementAndGet();
+			mdslGenModel.addDataType(new DataType("TestType"));
+			mdslGenModel.addEndpoint(new EndpointContract("TestEndpoint"));
+			mdslGenModel.getDataTypes(); // a loader may access its own sections
+		};
+		mdslGenModel.setSectionLoader(Section.DATA_TYPES, loader);
+		mdslGenModel.setSectionLoader(Section.ENDPOINTS, loader);
+
+		// when
+		mdslGenModel.getEndpoints();
+		mdslGenModel.getDataTypes();
+
+		// then
+		assertEquals(1, runs.get());
+		assertEquals(1, mdslGenModel.getDataTypes().size());
+	}
+
+	@Test
+	public void rethrowsFailureOfSectionLoaderOnEveryAccess() {
+		// given
+		MDSLGeneratorModel mdslGenModel = new MDSLGeneratorModel("TestAPI");
+		AtomicInteger runs = new AtomicInteger();
+		mdslGenModel.setSectionLoader(Section.PROVIDERS, () -> {
+			runs.incrementAndGet();
+			mdslGenModel.addProvider(new Provider("TestProvider"));
+			throw new IllegalStateException("conversion failed");
+		});
+
+		// when
+		assertThrows(IllegalStateException.class, () -> mdslGenModel.getProviders());
+
+		// then
+		assertThrows(IllegalStateException.class, () -> mdslGenModel.getProviders());
+		assertEquals(1, runs.get());
+	}
+
 	/*
 	@Test
 	public void canAddScenarioStoryModel() {
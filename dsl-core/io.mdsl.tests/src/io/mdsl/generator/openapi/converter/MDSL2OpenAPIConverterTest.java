@@ -0,0 +1,103 @@
+package io.mdsl.generator.openapi.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.exception.MDSLException;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.tags.Tag;
+
+public class MDSL2OpenAPIConverterTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void parallelPathConversionCreatesSameOutput() throws IOException {
+		// given
+		ServiceSpecification mdsl = getTestSpecification(getTestResource("http-binding-restbucks-ml3.mdsl"));
+
+		// when
+		String sequentialOutput = convert(mdsl, false);
+		String parallelOutput = convert(mdsl, true);
+
+		// then
+		assertEquals(sequentialOutput, parallelOutput);
+	}
+
+	@Test
+	public void parallelPathConversionMergesPathItemsInOrder() throws IOException {
+		// given
+		ServiceSpecification mdsl = getTestSpecification(getTestResource("http-binding-multiple-endpoints-and-providers2.mdsl"));
+
+		// when
+		String sequentialOutput = convert(mdsl, false);
+		String parallelOutput = convert(mdsl, true);
+
+		// then
+		assertEquals(sequentialOutput, parallelOutput);
+	}
+
+	@Test
+	public void parallelPathConversionNumbersAnonymousParametersAcrossPathItems() throws IOException {
+		// given
+		ServiceSpecification mdsl = getTestSpecification(getTestResource("http-binding-verb-heuristics.mdsl"));
+
+		// when
+		String sequentialOutput = convert(mdsl, false);
+		String parallelOutput = convert(mdsl, true);
+
+		// then
+		assertEquals(sequentialOutput, parallelOutput);
+		assertTrue(parallelOutput.contains("name: Parameter2"));
+	}
+
+	@Test
+	public void parallelPathConversionReportsMappingConflict() throws IOException {
+		// given
+		MDSL2OpenAPIConverter sequentialConverter = new MDSL2OpenAPIConverter(getTestSpecification(getTestResource("endpoint-test-duplicate-operations-error.mdsl")));
+		sequentialConverter.setParallelPathConversion(false);
+		MDSL2OpenAPIConverter parallelConverter = new MDSL2OpenAPIConverter(getTestSpecification(getTestResource("endpoint-test-duplicate-operations-error.mdsl")));
+		parallelConverter.setParallelPathConversion(true);
+
+		// when
+		MDSLException sequentialException = assertThrows(MDSLException.class, () -> sequentialConverter.convert());
+		MDSLException parallelException = assertThrows(MDSLException.class, () -> parallelConverter.convert());
+
+		// then
+		assertEquals(sequentialException.getMessage(), parallelException.getMessage());
+	}
+
+	@Test
+	public void createsTagsForResourceBindingsOfGateways() throws IOException {
+		// given
+		MDSL2OpenAPIConverter converter = new MDSL2OpenAPIConverter(getTestSpecification(getTestResource("http-binding-gateway.mdsl")));
+
+		// when
+		OpenAPI oas = converter.convert();
+
+		// then
+		assertEquals(Arrays.asList("OrderProvider-Orders", "OrderGateway-GatewayOrders"), oas.getTags().stream().map(Tag::getName).collect(Collectors.toList()));
+	}
+
+	private String convert(ServiceSpecification mdsl, boolean parallel) {
+		MDSL2OpenAPIConverter converter = new MDSL2OpenAPIConverter(mdsl);
+		converter.setParallelPathConversion(parallel);
+		OpenAPI oas = converter.convert();
+		oas.getInfo().setExtensions(null); // timestamp
+		return Yaml.pretty(oas);
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/openapi-generation/";
+	}
+
+}
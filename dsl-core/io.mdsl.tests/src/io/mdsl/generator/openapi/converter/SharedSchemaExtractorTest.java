@@ -0,0 +1,96 @@
+package io.mdsl.generator.openapi.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+public class SharedSchemaExtractorTest {
+
+	@Test
+	public void movesRepeatedStructureToComponents() {
+		// given
+		OpenAPI oas = createModel(createCustomerSchema(), createCustomerSchema());
+
+		// when
+		new SharedSchemaExtractor(oas).extract();
+
+		// then
+		assertEquals("#/components/schemas/GetCustomerResponse", getResponseSchema(oas, "getCustomer").get$ref());
+		assertEquals("#/components/schemas/GetCustomerResponse", getResponseSchema(oas, "findCustomer").get$ref());
+		assertEquals(1, oas.getComponents().getSchemas().size());
+		// the nested address is used twice in the input, but only once in the output
+		Schema<?> customer = oas.getComponents().getSchemas().get("GetCustomerResponse");
+		assertNull(customer.getProperties().get("address").get$ref());
+	}
+
+	@Test
+	public void referencesEqualComponentSchema() {
+		// given
+		OpenAPI oas = createModel(createCustomerSchema(), new StringSchema());
+		oas.setComponents(new Components().addSchemas("Customer", createCustomerSchema()));
+
+		// when
+		new SharedSchemaExtractor(oas).extract();
+
+		// then
+		assertEquals("#/components/schemas/Customer", getResponseSchema(oas, "getCustomer").get$ref());
+		assertEquals(1, oas.getComponents().getSchemas().size());
+	}
+
+	@Test
+	public void keepsStructuresUsedOnceInline() {
+		// given
+		OpenAPI oas = createModel(createCustomerSchema(), createCustomerSchema().description("another customer"));
+
+		// when
+		new SharedSchemaExtractor(oas).extract();
+
+		// then
+		assertNull(getResponseSchema(oas, "getCustomer").get$ref());
+		assertNull(getResponseSchema(oas, "findCustomer").get$ref());
+		// but the address is shared by the two customer structures
+		assertEquals(Set.of("address"), oas.getComponents().getSchemas().keySet());
+		Schema<?> customer = getResponseSchema(oas, "findCustomer");
+		assertEquals("#/components/schemas/address", customer.getProperties().get("address").get$ref());
+	}
+
+	private Schema<?> createCustomerSchema() {
+		return new ObjectSchema().addProperties("name", new StringSchema()).addProperties("address",
+				new ObjectSchema().addProperties("street", new StringSchema()).addProperties("city", new StringSchema()));
+	}
+
+	private OpenAPI createModel(Schema<?> customerSchema, Schema<?> otherSchema) {
+		return new OpenAPI().paths(new Paths().addPathItem("/customers", new PathItem().get(createOperation("getCustomer", customerSchema)))
+				.addPathItem("/customers/search", new PathItem().get(createOperation("findCustomer", otherSchema))));
+	}
+
+	private Operation createOperation(String operationId, Schema<?> responseSchema) {
+		return new Operation().operationId(operationId).responses(new ApiResponses().addApiResponse("200",
+				new ApiResponse().description("customer").content(new Content().addMediaType("application/json", new MediaType().schema(responseSchema)))));
+	}
+
+	private Schema<?> getResponseSchema(OpenAPI oas, String operationId) {
+		for (PathItem pathItem : oas.getPaths().values()) {
+			if (pathItem.getGet().getOperationId().equals(operationId))
+				return pathItem.getGet().getResponses().get("200").getContent().get("application/json").getSchema();
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,136 @@
+package io.mdsl.generator.openapi.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+
+public class OpenAPIModelValidatorTest {
+
+	@Test
+	public void acceptsValidModel() {
+		// given
+		OpenAPI oas = createValidModel();
+
+		// when
+		Set<String> messages = new OpenAPIModelValidator(oas).validate();
+
+		// then
+		assertTrue(messages.isEmpty(), messages.toString());
+		assertTrue(parse(oas).isEmpty());
+	}
+
+	@Test
+	public void reportsMissingAttributesLikeParser() {
+		// given
+		OpenAPI oas = createValidModel();
+		oas.getInfo().setTitle(null);
+		oas.getPaths().get("/customers/{id}").getGet().setResponses(null);
+
+		// when
+		Set<String> messages = new OpenAPIModelValidator(oas).validate();
+
+		// then
+		assertEquals(Set.of("attribute info.title is missing", "attribute paths.'/customers/{id}'(get).responses is missing"), messages);
+		assertEquals(parse(oas), messages);
+	}
+
+	@Test
+	public void reportsUndeclaredPathParameter() {
+		// given
+		OpenAPI oas = createValidModel();
+		oas.getPaths().get("/customers/{id}").getGet().setParameters(null);
+
+		// when
+		Set<String> messages = new OpenAPIModelValidator(oas).validate();
+
+		// then
+		assertEquals(Set.of("attribute paths.'/customers/{id}'(get) Declared path parameter id needs to be defined as a path parameter in path or operation level"),
+				messages);
+	}
+
+	@Test
+	public void reportsRepeatedOperationId() {
+		// given
+		OpenAPI oas = createValidModel();
+		Operation deleteCustomer = createOperation("getCustomer");
+		deleteCustomer.addParametersItem(new Parameter().name("id").in("path").required(true).schema(new StringSchema()));
+		oas.getPaths().get("/customers/{id}").setDelete(deleteCustomer);
+
+		// when
+		Set<String> messages = new OpenAPIModelValidator(oas).validate();
+
+		// then
+		assertEquals(Set.of("attribute paths.'/customers/{id}'(delete).operationId is repeated"), messages);
+	}
+
+	@Test
+	public void reportsMissingSchemaReference() {
+		// given
+		OpenAPI oas = createValidModel();
+		oas.getComponents().getSchemas().remove("Address");
+
+		// when
+		Set<String> messages = new OpenAPIModelValidator(oas).validate();
+
+		// then
+		assertEquals(Set.of("attribute components.schemas.Customer.properties.addresses.items.$ref refers to the missing component #/components/schemas/Address"),
+				messages);
+	}
+
+	@Test
+	public void reportsArrayWithoutItems() {
+		// given
+		OpenAPI oas = createValidModel();
+		oas.getComponents().getSchemas().get("Customer").addProperties("tags", new Schema<>().type("array"));
+
+		// when
+		Set<String> messages = new OpenAPIModelValidator(oas).validate();
+
+		// then
+		assertEquals(Set.of("attribute components.schemas.Customer.properties.tags.items is missing"), messages);
+	}
+
+	private OpenAPI createValidModel() {
+		Schema<?> address = new ObjectSchema().addProperties("street", new StringSchema());
+		Schema<?> customer = new ObjectSchema().addProperties("name", new StringSchema()).addProperties("addresses",
+				new ArraySchema().items(new Schema<>().$ref("#/components/schemas/Address")));
+
+		Operation getCustomer = createOperation("getCustomer");
+		getCustomer.addParametersItem(new Parameter().name("id").in("path").required(true).schema(new StringSchema()));
+
+		return new OpenAPI().info(new Info().title("CustomerAPI").version("1.0"))
+				.paths(new Paths().addPathItem("/customers/{id}", new PathItem().get(getCustomer)))
+				.components(new Components().addSchemas("Customer", customer).addSchemas("Address", address));
+	}
+
+	private Operation createOperation(String operationId) {
+		return new Operation().operationId(operationId).responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("customer")
+				.content(new Content().addMediaType("application/json", new MediaType().schema(new Schema<>().$ref("#/components/schemas/Customer"))))));
+	}
+
+	private Set<String> parse(OpenAPI oas) {
+		return Set.copyOf(new OpenAPIV3Parser().readContents(Yaml.pretty(oas)).getMessages());
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.mdsl.MDSLResource;
+import io.mdsl.apiDescription.EndpointContract;
+import io.mdsl.apiDescription.HTTPParameter;
+import io.mdsl.apiDescription.HTTPResourceBinding;
+import io.mdsl.apiDescription.HTTPVerb;
+import io.mdsl.apiDescription.Operation;
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.generator.openapi.converter.HTTPBindingConverterHelpers;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class HTTPResourceBindingIndexTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void indexesOperationParameterAndLinkTypeBindings() throws IOException {
+		// given
+		HTTPResourceBinding binding = getTestBinding();
+
+		// when
+		HTTPResourceBindingIndex index = HTTPResourceBindingIndex.of(binding);
+
+		// then
+		assertEquals(HTTPVerb.POST, index.getOperationBinding("createCustomer").getMethod());
+		assertNull(index.getOperationBinding("updateCustomer"));
+		assertEquals(HTTPParameter.PATH, index.getParameterMapping("readCustomer", "id"));
+		assertEquals(HTTPParameter.QUERY, index.getParameterMapping("readCustomer", "fields"));
+		assertNull(index.getParameterMapping("readCustomer", "unknown"));
+		assertEquals(HTTPParameter.PATH, index.getParameterMapping("deleteCustomer", "anyElement"));
+		assertEquals("CustomerLink", index.getLinkTypeBinding("CustomerLink").getLt().getName());
+		assertNull(index.getLinkTypeBinding("CustomerJSON"));
+	}
+
+	@Test
+	public void resolvesMediaTypes() throws IOException {
+		// given
+		HTTPResourceBinding binding = getTestBinding();
+
+		// when
+		HTTPResourceBindingIndex index = HTTPResourceBindingIndex.of(binding);
+
+		// then
+		assertEquals(Arrays.asList("application/vnd.customer+json", "application/json"), index.getRequestMediaTypes("createCustomer"));
+		assertEquals(Collections.singletonList("text/plain"), index.getResponseMediaTypes("createCustomer"));
+		assertNull(index.getRequestMediaTypes("readCustomer"));
+		assertEquals(Collections.singletonList("application/vnd.customer+json"), index.getResponseMediaTypes("readCustomer"));
+	}
+
+	@Test
+	public void helpersKeepDefaultMediaType() throws IOException {
+		// given
+		HTTPResourceBinding binding = getTestBinding();
+		Operation readCustomer = ((EndpointContract) ((ServiceSpecification) binding.eResource().getContents().get(0)).getContracts().get(0)).getOps().get(1);
+
+		// when
+		List<String> requestMediaTypes = HTTPBindingConverterHelpers.findMediaTypeForRequest(readCustomer, binding);
+		List<String> responseMediaTypes = HTTPBindingConverterHelpers.findMediaTypeForResponse(readCustomer, binding);
+
+		// then
+		assertEquals(Collections.singletonList("application/json"), requestMediaTypes);
+		assertEquals(Collections.singletonList("application/vnd.customer+json"), responseMediaTypes);
+	}
+
+	@Test
+	public void isSharedAndRebuiltAfterChange() throws IOException {
+		// given
+		HTTPResourceBinding binding = getTestBinding();
+		HTTPResourceBindingIndex index = HTTPResourceBindingIndex.of(binding);
+
+		// when
+		HTTPResourceBindingIndex sharedIndex = HTTPResourceBindingIndex.of(binding);
+		binding.getOpsB().get(1).getParameterBindings().get(1).setParameterMapping(HTTPParameter.HEADER);
+		HTTPResourceBindingIndex rebuiltIndex = HTTPResourceBindingIndex.of(binding);
+
+		// then
+		assertSame(index, sharedIndex);
+		assertNotSame(index, rebuiltIndex);
+		assertEquals(HTTPParameter.HEADER, rebuiltIndex.getParameterMapping("readCustomer", "fields"));
+	}
+
+	@Test
+	public void isRebuiltAfterMediaTypeChange() throws IOException {
+		// given
+		HTTPResourceBinding binding = getTestBinding();
+		HTTPResourceBindingIndex index = HTTPResourceBindingIndex.of(binding);
+
+		// when
+		binding.getOpsB().get(0).getOutContentTypes().getSmt().get(0).setIanaName("text/csv");
+		HTTPResourceBindingIndex rebuiltIndex = HTTPResourceBindingIndex.of(binding);
+
+		// then
+		assertNotSame(index, rebuiltIndex);
+		assertEquals(Collections.singletonList("text/csv"), rebuiltIndex.getResponseMediaTypes("createCustomer"));
+	}
+
+	private HTTPResourceBinding getTestBinding() throws IOException {
+		ServiceSpecification mdsl = new MDSLResource(getTestResource("http-resource-binding-index-model.mdsl")).getServiceSpecification();
+		return ProtocolBindingIndex.of(mdsl).getHTTPResourceBindings().get(0);
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/generator-model/";
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.mdsl.MDSLResource;
+import io.mdsl.apiDescription.EndpointInstance;
+import io.mdsl.apiDescription.EndpointList;
+import io.mdsl.apiDescription.Provider;
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.dsl.ServiceSpecificationAdapter;
+import io.mdsl.generator.model.JavaBinding;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
+import io.mdsl.tests.AbstractMDSLInputIntegrationTest;
+
+public class ProtocolBindingIndexTest extends AbstractMDSLInputIntegrationTest {
+
+	@Test
+	public void indexesProvidersEndpointInstancesAndBindingsByContract() throws IOException {
+		// given
+		ServiceSpecification mdsl = getTestSpecification();
+
+		// when
+		ProtocolBindingIndex index = ProtocolBindingIndex.of(mdsl);
+
+		// then
+		assertEquals(Arrays.asList("CustomerProvider", "OrderProvider"), index.getProviders("OrderEndpoint").stream().map(Provider::getName).collect(Collectors.toList()));
+		assertEquals(3, index.getEndpointInstances("OrderEndpoint").size());
+		assertEquals(Collections.singletonList("http://localhost:8081"), index.getHTTPEndpointInstances("OrderEndpoint").stream().map(EndpointInstance::getLocation).collect(Collectors.toList()));
+		List<EndpointList> endpointLists = index.getEndpointLists("OrderEndpoint");
+		assertEquals(1, index.getJavaBindings(endpointLists.get(0)).size());
+		assertEquals(1, index.getGRPCBindings(endpointLists.get(1)).size());
+		assertEquals(1, index.getHTTPBindings(endpointLists.get(1)).size());
+		assertTrue(index.getEndpointLists("UnboundEndpoint").isEmpty());
+		assertEquals(Arrays.asList("CustomerResource", "OrderResource"), index.getHTTPResourceBindings().stream().map(b -> b.getName()).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void isSharedAndRebuiltAfterChange() throws IOException {
+		// given
+		ServiceSpecification mdsl = getTestSpecification();
+		ProtocolBindingIndex index = ProtocolBindingIndex.of(mdsl);
+
+		// when
+		ProtocolBindingIndex sharedIndex = new MDSLSpecificationWrapper(new ServiceSpecificationAdapter(mdsl)).getProtocolBindingIndex();
+		((Provider) mdsl.getProviders().get(1)).getEpl().get(0).getEndpoints().remove(1);
+		ProtocolBindingIndex rebuiltIndex = ProtocolBindingIndex.of(mdsl);
+
+		// then
+		assertSame(index, sharedIndex);
+		assertNotSame(index, rebuiltIndex);
+		assertTrue(rebuiltIndex.getHTTPEndpointInstances("OrderEndpoint").isEmpty());
+	}
+
+	@Test
+	public void generatorModelUsesFirstOfferedBinding() throws IOException {
+		// given
+		ServiceSpecification mdsl = getTestSpecification();
+
+		// when
+		MDSLGeneratorModel genModel = new MDSL2GeneratorModelConverter(mdsl).convert();
+
+		// then
+		assertTrue(genModel.getEndpoints().stream().filter(e -> e.getName().equals("OrderEndpoint")).findFirst().get()
+				.getProtocolBinding() instanceof JavaBinding);
+		assertEquals("http://localhost:8080", ((io.mdsl.generator.model.HTTPBinding) genModel.getEndpoints().stream()
+				.filter(e -> e.getName().equals("CustomerEndpoint")).findFirst().get().getProtocolBinding()).getUriPath());
+	}
+
+	private ServiceSpecification getTestSpecification() throws IOException {
+		return new MDSLResource(getTestResource("protocol-binding-index-model.mdsl")).getServiceSpecification();
+	}
+
+	@Override
+	protected String testDirectory() {
+		return "/test-data/generator-model/";
+	}
+
+}
@@ -0,0 +1 @@
+${element.name}: <#list element.fields as field>${field.name}<#sep>, </#list>
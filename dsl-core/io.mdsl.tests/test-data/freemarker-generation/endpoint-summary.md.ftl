@@ -0,0 +1,4 @@
+# ${elementName} (${apiName})
+<#list element.operations as operation>
+- ${operation.name}
+</#list>
@@ -0,0 +1,10 @@
+<#macro fieldList dataType>
+<#list dataType.fields as field>
+ - ${capitalize(field.name)}
+</#list>
+</#macro>
+# ${genModel.apiName}
+<#list genModel.dataTypes?filter(d -> d.fields?size > 1) as dataType>
+## ${capitalize(dataType.name)}
+<@fieldList dataType=dataType/>
+</#list>
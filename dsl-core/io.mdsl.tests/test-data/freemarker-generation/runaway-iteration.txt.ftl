@@ -0,0 +1,9 @@
+<#list genModel.dataTypes as first>
+<#list genModel.dataTypes as second>
+<#list genModel.dataTypes as third>
+<#if first.name == second.name && second.name == third.name && first.name == "Unknown">
+${first.name}
+</#if>
+</#list>
+</#list>
+</#list>
@@ -0,0 +1,5 @@
+<#assign count = 0>
+<#list 1..1000000000 as i>
+<#assign count = count + 1>
+</#list>
+${count}
@@ -0,0 +1,4 @@
+<#list 1..1000000 as i>
+<#list genModel.dataTypes as type>${type.name} ${i}
+</#list>
+</#list>
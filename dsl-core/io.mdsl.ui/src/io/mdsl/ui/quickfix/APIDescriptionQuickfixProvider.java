@@ -169,6 +169,11 @@ public class APIDescriptionQuickfixProvider extends DefaultQuickfixProvider {
 		acceptor.accept(issue, "Bind message elements to HTTP parameters individually", "PATH, QUERY, BODY, etc.", null, new AddHttpParameterBindingsForElements()); 
 	}
 	
+	@Fix(HTTPBindingValidator.ASYNCHRONOUS_BINDING_POSSIBLE)
+	public void makeHTTPOperationBindingAsynchronous(final Issue issue, IssueResolutionAcceptor acceptor) {
+		acceptor.accept(issue, "Bind operation asynchronously", "202 Accepted with Location of a status resource to poll for the reply.", null, new MakeHttpOperationBindingAsynchronous()); 
+	}
+	
 	@Fix(HTTPBindingValidator.URI_TEMPLATE_FOR_PATH_PARAM_MISSING)
 	public void addParameterToResourePath(final Issue issue, IssueResolutionAcceptor acceptor) {
 		acceptor.accept(issue, "Extend resource URI with template for PATH parameter", "See RFC nnn for {uri} syntax", null, new AddURITemplateToExistingHttpResource("{id}", issue.getMessage())); 
@@ -0,0 +1,27 @@
+package io.mdsl.ui.quickfix;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.ui.editor.model.edit.IModificationContext;
+
+import io.mdsl.apiDescription.HTTPOperationBinding;
+import io.mdsl.transformations.HTTPBindingTransformations;
+import io.mdsl.transformations.TransformationHelpers;
+
+class MakeHttpOperationBindingAsynchronous extends QuickfixSemanticModification {
+
+	public MakeHttpOperationBindingAsynchronous() {
+	}
+
+	@Override
+	public void performQuickfix(EObject element, IModificationContext context) {
+
+		if (!(element instanceof HTTPOperationBinding)) {
+			TransformationHelpers.reportError("MakeHttpOperationBindingAsynchronous expects an HTTP Operation Binding.");
+			return;
+		}
+
+		HTTPOperationBinding opb = (HTTPOperationBinding) element;
+		HTTPBindingTransformations hbts = new HTTPBindingTransformations();
+		hbts.makeOperationBindingAsynchronous(opb);
+	}
+}
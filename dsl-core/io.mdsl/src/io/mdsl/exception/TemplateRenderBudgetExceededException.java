@@ -0,0 +1,31 @@
+package io.mdsl.exception;
+
+/**
+ * Thrown if rendering a Freemarker template takes longer or produces more
+ * output than its render budget allows.
+ */
+public class TemplateRenderBudgetExceededException extends MDSLException {
+
+	private static final long serialVersionUID = 1L;
+	private String templateName;
+	private String templateLocation;
+
+	public TemplateRenderBudgetExceededException(String templateName, String limit, String templateLocation) {
+		super("The template '" + templateName + "' has been aborted because it exceeded " + limit + "."
+				+ (templateLocation.isEmpty() ? "" : System.lineSeparator() + templateLocation));
+		this.templateName = templateName;
+		this.templateLocation = templateLocation;
+	}
+
+	public String getTemplateName() {
+		return templateName;
+	}
+
+	/**
+	 * @return the FTL stack trace at the time the template was aborted (empty if
+	 *         it could not be determined)
+	 */
+	public String getTemplateLocation() {
+		return templateLocation;
+	}
+}
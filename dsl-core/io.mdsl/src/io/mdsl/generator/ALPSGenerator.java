@@ -10,6 +10,7 @@ import org.eclipse.xtext.generator.IFileSystemAccess2;
 
 import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.generator.freemarker.FreemarkerEngineWrapper;
+import io.mdsl.generator.model.MDSLGeneratorModel;
 
 /**
 * TODO
@@ -41,8 +42,8 @@ public class ALPSGenerator extends AbstractMDSLGenerator {
 		for (Map.Entry<String, Object> customDataEntry : customDataMap.entrySet()) {
 			freemarkerWrapper.registerCustomData(customDataEntry.getKey(), customDataEntry.getValue());
 		}
-		String filledOutTemplate = freemarkerWrapper.generate(mdslSpecification);
+		MDSLGeneratorModel genModel = convertToGeneratorModel(mdslSpecification);
 
-		fsa.generateFile(outputFilePrefix + "-alps.yaml", filledOutTemplate);
+		writeFile(fsa, outputFilePrefix + "-alps.yaml", writer -> freemarkerWrapper.generate(mdslSpecification, genModel, writer));
 	}
 }
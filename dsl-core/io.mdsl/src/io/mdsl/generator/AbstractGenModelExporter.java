@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import java.io.IOException;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.generator.IFileSystemAccess2;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.utils.MDSLLogger;
+
+/**
+ * Base class for the generator model exporters. Serializes the generator model
+ * with Jackson's streaming generator directly into the output file (no
+ * intermediate string representation of the whole model).
+ */
+public abstract class AbstractGenModelExporter extends AbstractMDSLGenerator {
+
+	private static final String FILE_NAME_SUFFIX = "_GeneratorModel.";
+
+	@Override
+	protected void generateFromServiceSpecification(ServiceSpecification mdslSpecification, IFileSystemAccess2 fsa,
+			URI inputFileURI) {
+		MDSLGeneratorModel genModel = convertToGeneratorModel(mdslSpecification);
+		String fileName = inputFileURI.trimFileExtension().lastSegment() + FILE_NAME_SUFFIX + getFileExtension();
+		try (GeneratedFileOutputStream out = GeneratedFileOutputStream.open(fsa, fileName)) {
+			// the file is published on commit only, so the mapper must not close the stream
+			createObjectMapper().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, genModel);
+			out.commit();
+		} catch (IOException e) {
+			MDSLLogger.reportError("Could not serialize generator model as " + getFormatName() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates the mapper that serializes the model in the target format.
+	 *
+	 * @return the object mapper for the target format
+	 */
+	protected abstract ObjectMapper createObjectMapper();
+
+	/**
+	 * @return the extension of the generated file (without dot)
+	 */
+	protected abstract String getFileExtension();
+
+	/**
+	 * @return the name of the format (used in error messages)
+	 */
+	protected abstract String getFormatName();
+
+}
@@ -1,5 +1,10 @@
 package io.mdsl.generator;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.generator.AbstractGenerator;
@@ -8,6 +13,9 @@ import org.eclipse.xtext.generator.IGeneratorContext;
 
 import io.mdsl.MDSLResource;
 import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.exception.MDSLException;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
 
 /**
  * Abstract generator class for all generators with an MDSL model
@@ -15,6 +23,8 @@ import io.mdsl.apiDescription.ServiceSpecification;
  */
 public abstract class AbstractMDSLGenerator extends AbstractGenerator {
 
+	private ForkJoinPool conversionPool;
+
 	@Override
 	public void doGenerate(Resource resource, IFileSystemAccess2 fsa, IGeneratorContext context) {
 		this.generateFromServiceSpecification(new MDSLResource(resource).getServiceSpecification(), fsa,
@@ -32,4 +42,59 @@ public abstract class AbstractMDSLGenerator extends AbstractGenerator {
 	protected abstract void generateFromServiceSpecification(ServiceSpecification mdslSpecification,
 			IFileSystemAccess2 fsa, URI inputFileURI);
 
+	/**
+	 * Converts the MDSL model into the generator model on demand (see
+	 * {@link MDSL2GeneratorModelConverter#convertLazily()}), so that a generator
+	 * only pays for the sections of the model it uses (for instance, the
+	 * orchestration flows are not converted unless a template accesses them).
+	 * 
+	 * @param mdslSpecification the MDSL input model
+	 * @return the generator model, filled on demand
+	 */
+	protected MDSLGeneratorModel convertToGeneratorModel(ServiceSpecification mdslSpecification) {
+		if (conversionPool != null)
+			return new MDSL2GeneratorModelConverter(mdslSpecification, conversionPool).convertLazily();
+		return new MDSL2GeneratorModelConverter(mdslSpecification).convertLazily();
+	}
+
+	/**
+	 * Converts the MDSL model into the generator model in parallel mode (see
+	 * {@link MDSL2GeneratorModelConverter}); the OpenAPI generator converts its
+	 * paths in parallel instead. The generated output does not depend on the
+	 * mode.
+	 * 
+	 * @param conversionPool the fork-join pool that runs the conversions, null to
+	 *                       convert sequentially (default)
+	 */
+	public void setConversionPool(ForkJoinPool conversionPool) {
+		this.conversionPool = conversionPool;
+	}
+
+	/**
+	 * @return the fork-join pool for parallel conversions, null if the model is
+	 *         converted sequentially
+	 */
+	protected ForkJoinPool getConversionPool() {
+		return conversionPool;
+	}
+
+	/**
+	 * Writes a generated text file while its content is produced (for example,
+	 * by a Freemarker template), without building the whole content as a String
+	 * first. The file is replaced only if the content has been produced
+	 * completely.
+	 * 
+	 * @param fsa      the file system access to write the file with
+	 * @param fileName the name of the file, relative to the output folder
+	 * @param content  writes the content of the file into the given writer
+	 */
+	protected void writeFile(IFileSystemAccess2 fsa, String fileName, Consumer<Writer> content) {
+		try (GeneratedFileWriter writer = GeneratedFileWriter.open(fsa, fileName)) {
+			content.accept(writer);
+			writer.commit();
+		} catch (IOException e) {
+			throw new MDSLException("Could not write the file '" + fileName + "'.", e);
+		}
+	}
+
 }
@@ -1,11 +1,32 @@
 package io.mdsl.generator;
 
+import java.util.regex.Pattern;
+
 /**
  * Generates field names by using a counter.
  */
 public class AnonymousFieldNameGenerator {
 
-	private int counter = 1;
+	private static final String ANONYMOUS_NAME_PREFIX = "anonymous";
+	private static final Pattern LEADING_DIGIT = Pattern.compile("^[0-9]");
+	private static final Pattern SPECIAL_CHARACTERS = Pattern.compile("[^A-Za-z0-9_]");
+
+	private SymbolTable symbolTable;
+
+	public AnonymousFieldNameGenerator() {
+		this(new SymbolTable());
+	}
+
+	/**
+	 * Creates a generator that numbers anonymous fields using the given symbol
+	 * table, so that several converters working on the same output share one
+	 * counter.
+	 *
+	 * @param symbolTable the symbol table that keeps the naming state
+	 */
+	public AnonymousFieldNameGenerator(SymbolTable symbolTable) {
+		this.symbolTable = symbolTable;
+	}
 
 	private boolean isStringDefined(String name) {
 		return name != null && !"".equals(name);
@@ -16,19 +37,17 @@ public class AnonymousFieldNameGenerator {
 
 		// in case there is a name, just take it (formatted and without special characters)
 		if (isStringDefined(name))
-			return format(baseName);
+			return symbolTable.intern(format(baseName));
 
 		// in case there is no name, generate a unique "anonymous" name
-		String genName = "anonymous" + counter;
-		counter++;
-		return genName;
+		return symbolTable.intern(ANONYMOUS_NAME_PREFIX + symbolTable.nextInSequence(ANONYMOUS_NAME_PREFIX));
 	}
 
 	private String format(String baseName) {
 		String name = baseName;
-		if (name.substring(0, 1).matches("^[0-9]"))
+		if (LEADING_DIGIT.matcher(name.substring(0, 1)).matches())
 			name = "_" + name;
-		return name.replaceAll("[^A-Za-z0-9_]", "");
+		return SPECIAL_CHARACTERS.matcher(name).replaceAll("");
 	}
 
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Exports the generator model as CBOR (RFC 7049) file, a compact binary
+ * encoding of the JSON data model.
+ */
+public class GenModelCBORExporter extends AbstractGenModelExporter {
+
+	@Override
+	protected ObjectMapper createObjectMapper() {
+		return new ObjectMapper(new CBORFactory());
+	}
+
+	@Override
+	protected String getFileExtension() {
+		return "cbor";
+	}
+
+	@Override
+	protected String getFormatName() {
+		return "CBOR";
+	}
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import io.mdsl.exception.MDSLException;
+import io.mdsl.generator.model.BasicType;
+import io.mdsl.generator.model.Client;
+import io.mdsl.generator.model.DataType;
+import io.mdsl.generator.model.DataTypeField;
+import io.mdsl.generator.model.EndpointContract;
+import io.mdsl.generator.model.HTTPBinding;
+import io.mdsl.generator.model.HTTPOperationBinding;
+import io.mdsl.generator.model.HTTPResource;
+import io.mdsl.generator.model.ImplementationTechnology;
+import io.mdsl.generator.model.JavaBinding;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.MDSLType;
+import io.mdsl.generator.model.Operation;
+import io.mdsl.generator.model.OperationParameter;
+import io.mdsl.generator.model.ProtocolBinding;
+import io.mdsl.generator.model.Provider;
+import io.mdsl.generator.model.ProviderImplementation;
+import io.mdsl.generator.model.StateTransition;
+import io.mdsl.generator.model.UndefinedProtocol;
+import io.mdsl.generator.model.composition.Command;
+import io.mdsl.generator.model.composition.CompositeCommand;
+import io.mdsl.generator.model.composition.CompositeEvent;
+import io.mdsl.generator.model.composition.Event;
+import io.mdsl.generator.model.composition.Flow;
+import io.mdsl.generator.model.composition.JoinEvent;
+
+/**
+ * Rebuilds a generator model from a file written by one of the generator model
+ * exporters (JSON, YAML or CBOR). The imported model can be used for
+ * generation (Freemarker templates) without parsing the MDSL file again.
+ *
+ * The exports contain referenced objects (data types, endpoints, providers,
+ * commands and events) by value or by name; the importer links them by name, so
+ * that the imported model contains one instance per named element. Some
+ * details are not part of the export and therefore not restored: field default
+ * values, Java operation name mappings and cuts.
+ */
+public class GenModelImporter {
+
+	/**
+	 * The serialization formats written by the generator model exporters.
+	 */
+	public enum Format {
+		JSON, YAML, CBOR;
+
+		/**
+		 * Returns the format of an exported file, derived from its file extension.
+		 *
+		 * @param fileName the name of the exported file
+		 * @return the format of the file
+		 */
+		public static Format byFileName(String fileName) {
+			String lowerCaseName = fileName.toLowerCase();
+			if (lowerCaseName.endsWith(".json"))
+				return JSON;
+			if (lowerCaseName.endsWith(".yaml") || lowerCaseName.endsWith(".yml"))
+				return YAML;
+			if (lowerCaseName.endsWith(".cbor"))
+				return CBOR;
+			throw new MDSLException("Unknown generator model format: " + fileName
+					+ " (supported file extensions are .json, .yaml, .yml and .cbor)");
+		}
+
+		private ObjectMapper createObjectMapper() {
+			switch (this) {
+			case YAML:
+				return new ObjectMapper(new YAMLFactory());
+			case CBOR:
+				return new ObjectMapper(new CBORFactory());
+			default:
+				return new ObjectMapper();
+			}
+		}
+	}
+
+	private Map<String, DataType> dataTypes;
+	private Map<String, EndpointContract> endpoints;
+	private Map<String, Provider> providers;
+
+	/**
+	 * Imports a generator model from an exported file. The format is derived from
+	 * the file extension.
+	 *
+	 * @param exportedModel the file written by a generator model exporter
+	 * @return the imported generator model
+	 */
+	public MDSLGeneratorModel importFrom(File exportedModel) {
+		Format format = Format.byFileName(exportedModel.getName());
+		try {
+			return importFrom(format.createObjectMapper().readTree(exportedModel));
+		} catch (IOException e) {
+			throw new MDSLException("Could not read generator model from " + exportedModel.getAbsolutePath() + ": "
+					+ e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Imports a generator model from a stream.
+	 *
+	 * @param exportedModel the content written by a generator model exporter
+	 * @param format        the serialization format of the content
+	 * @return the imported generator model
+	 */
+	public MDSLGeneratorModel importFrom(InputStream exportedModel, Format format) {
+		try {
+			return importFrom(format.createObjectMapper().readTree(exportedModel));
+		} catch (IOException e) {
+			throw new MDSLException("Could not read generator model: " + e.getMessage(), e);
+		}
+	}
+
+	private MDSLGeneratorModel importFrom(JsonNode root) {
+		if (root == null || !root.isObject())
+			throw new MDSLException("The input does not contain a generator model.");
+		this.dataTypes = new HashMap<>();
+		this.endpoints = new HashMap<>();
+		this.providers = new HashMap<>();
+
+		MDSLGeneratorModel genModel = new MDSLGeneratorModel(text(root, "apiName"));
+		importDataTypes(genModel, root.path("dataTypes"));
+		for (JsonNode endpointNode : root.path("endpoints")) {
+			EndpointContract endpoint = importEndpoint(endpointNode);
+			endpoints.put(endpoint.getName(), endpoint);
+			genModel.addEndpoint(endpoint);
+		}
+		for (JsonNode providerNode : root.path("providers")) {
+			Provider provider = new Provider(text(providerNode, "name"));
+			for (JsonNode endpointName : providerNode.path("offeredEndpoints"))
+				provider.addEndpoint(getEndpoint(endpointName.asText()));
+			providers.put(provider.getName(), provider);
+			genModel.addProvider(provider);
+		}
+		for (JsonNode clientNode : root.path("clients")) {
+			Client client = new Client(text(clientNode, "name"));
+			for (JsonNode endpointNode : clientNode.path("consumedEndpoints"))
+				client.addEndpoint(getEndpoint(text(endpointNode, "name")));
+			genModel.addClient(client);
+		}
+		for (JsonNode implementationNode : root.path("providerImplementations"))
+			genModel.addProviderImplementation(importProviderImplementation(implementationNode));
+		for (JsonNode flowNode : root.path("orchestrationFlows"))
+			genModel.addOrchestration(importFlow(flowNode));
+		genModel.trimToSize();
+		return genModel;
+	}
+
+	private void importDataTypes(MDSLGeneratorModel genModel, JsonNode dataTypeNodes) {
+		// create all named types first, so that fields can reference types declared later
+		List<DataType> declaredTypes = new ArrayList<>();
+		for (JsonNode dataTypeNode : dataTypeNodes) {
+			DataType dataType = new DataType(text(dataTypeNode, "name"));
+			dataTypes.putIfAbsent(dataType.getName(), dataType);
+			declaredTypes.add(dataType);
+		}
+		int index = 0;
+		for (JsonNode dataTypeNode : dataTypeNodes) {
+			DataType dataType = declaredTypes.get(index++);
+			fillDataType(dataType, dataTypeNode);
+			genModel.addDataType(dataType);
+		}
+	}
+
+	private void fillDataType(DataType dataType, JsonNode dataTypeNode) {
+		if (dataTypeNode.hasNonNull("version"))
+			dataType.setVersion(dataTypeNode.get("version").asText());
+		dataType.setDefaultValue(text(dataTypeNode, "defaultValue"));
+		for (JsonNode fieldNode : dataTypeNode.path("fields")) {
+			DataTypeField field = new DataTypeField(text(fieldNode, "name"));
+			field.setType(importType(fieldNode.get("type")));
+			field.isList(fieldNode.path("list").asBoolean(false));
+			field.isNullable(fieldNode.path("nullable").asBoolean(false));
+			dataType.addField(field);
+		}
+	}
+
+	private MDSLType importType(JsonNode typeNode) {
+		if (typeNode == null || typeNode.isNull())
+			return null;
+		if (typeNode.isTextual())
+			return BasicType.valueOf(typeNode.asText());
+		String name = text(typeNode, "name");
+		if (dataTypes.containsKey(name))
+			return dataTypes.get(name);
+		// types that are not part of the data types list (operation payloads) are exported inline
+		DataType dataType = new DataType(name);
+		fillDataType(dataType, typeNode);
+		return dataType;
+	}
+
+	private EndpointContract importEndpoint(JsonNode endpointNode) {
+		EndpointContract endpoint = new EndpointContract(text(endpointNode, "name"));
+		for (JsonNode operationNode : endpointNode.path("operations")) {
+			Operation operation = new Operation(text(operationNode, "name"));
+			operation.setResponse(importType(operationNode.get("response")));
+			for (JsonNode parameterNode : operationNode.path("parameters"))
+				operation.addParameter(
+						new OperationParameter(text(parameterNode, "name"), importType(parameterNode.get("type"))));
+			if (operationNode.hasNonNull("responsibility"))
+				operation.setResponsibility(operationNode.get("responsibility").asText());
+			endpoint.addOperation(operation);
+		}
+		endpoint.setProtocolBinding(importProtocolBinding(endpointNode.path("protocolBinding")));
+		for (JsonNode stateNode : endpointNode.path("states"))
+			endpoint.addState(stateNode.asText());
+		for (JsonNode transitionNode : endpointNode.path("transitions")) {
+			StateTransition transition = new StateTransition();
+			transition.setName(text(transitionNode, "name"));
+			transition.setFrom(text(transitionNode, "from"));
+			transition.setTo(text(transitionNode, "to"));
+			endpoint.addStateTransition(transition);
+		}
+		return endpoint;
+	}
+
+	private ProtocolBinding importProtocolBinding(JsonNode bindingNode) {
+		String protocolName = text(bindingNode, "protocolName");
+		if ("HTTP".equals(protocolName)) {
+			HTTPBinding httpBinding = new HTTPBinding(text(bindingNode, "uriPath"));
+			for (JsonNode resourceNode : bindingNode.path("resources")) {
+				HTTPResource resource = new HTTPResource(text(resourceNode, "name"), text(resourceNode, "uriPath"));
+				for (Entry<String, JsonNode> operationBinding : iterable(resourceNode.path("operationBindings"))) {
+					JsonNode operationBindingNode = operationBinding.getValue();
+					Map<String, String> parameterBindings = new LinkedHashMap<>();
+					for (Entry<String, JsonNode> parameterBinding : iterable(operationBindingNode.path("parameterBindings")))
+						parameterBindings.put(parameterBinding.getKey(), parameterBinding.getValue().asText());
+					resource.mapOperationAndParameters(operationBinding.getKey(), new HTTPOperationBinding(
+							text(operationBindingNode, "name"), text(operationBindingNode, "verb"), parameterBindings));
+				}
+				httpBinding.addResource(resource);
+			}
+			return httpBinding;
+		}
+		if ("Java".equals(protocolName)) {
+			JavaBinding javaBinding = new JavaBinding();
+			javaBinding.setPackage(text(bindingNode, "package"));
+			return javaBinding;
+		}
+		return new UndefinedProtocol();
+	}
+
+	private ProviderImplementation importProviderImplementation(JsonNode implementationNode) {
+		ProviderImplementation implementation = new ProviderImplementation(text(implementationNode, "name"),
+				getProvider(implementationNode.path("provider")),
+				ImplementationTechnology.getTechnology(text(implementationNode, "implTechnology")));
+		implementation.setClass(text(implementationNode, "clazz"));
+		implementation.setSuperClass(text(implementationNode, "superClass"));
+		implementation.setDownstreamBinding(getProvider(implementationNode.path("downstreamBinding")));
+		return implementation;
+	}
+
+	private Flow importFlow(JsonNode flowNode) {
+		Flow flow = new Flow(text(flowNode, "name"));
+		Map<String, Command> commands = new LinkedHashMap<>();
+		Map<String, Event> events = new LinkedHashMap<>();
+
+		// commands and simple events first, composed ones reference them by name
+		for (JsonNode commandNode : flowNode.path("commands")) {
+			String name = text(commandNode, "name");
+			if (commandNode.path("composite").asBoolean(false))
+				commands.put(name, new CompositeCommand(name, new ArrayList<>(), text(commandNode, "type")));
+			else
+				commands.put(name, new Command(name));
+		}
+		JsonNode eventNodes = flowNode.path("events");
+		for (Entry<String, JsonNode> eventEntry : iterable(eventNodes)) {
+			JsonNode eventNode = eventEntry.getValue();
+			if (!isComposedEvent(eventNode))
+				events.put(eventEntry.getKey(), new Event(text(eventNode, "name")));
+		}
+		for (Entry<String, JsonNode> eventEntry : iterable(eventNodes)) {
+			JsonNode eventNode = eventEntry.getValue();
+			if (isComposedEvent(eventNode))
+				events.put(eventEntry.getKey(), importComposedEvent(eventNode, events));
+		}
+
+		// link commands and events
+		for (JsonNode commandNode : flowNode.path("commands")) {
+			Command command = commands.get(text(commandNode, "name"));
+			if (command instanceof CompositeCommand) {
+				for (JsonNode composedCommand : commandNode.path("composedEvents"))
+					((CompositeCommand) command).addCommand(getCommand(composedCommand.asText(), commands));
+			}
+			List<Event> emittedEvents = new ArrayList<>();
+			for (JsonNode eventName : commandNode.path("emittedEvents"))
+				emittedEvents.add(getEvent(eventName.asText(), events));
+			command.addEmittedEvents(emittedEvents, Flow.NO_OPERATOR);
+		}
+		for (Entry<String, JsonNode> eventEntry : iterable(eventNodes)) {
+			List<Command> triggeredCommands = new ArrayList<>();
+			for (JsonNode commandName : eventEntry.getValue().path("triggeredCommands"))
+				triggeredCommands.add(getCommand(commandName.asText(), commands));
+			events.get(eventEntry.getKey()).addTriggeredCommands(triggeredCommands, Flow.NO_OPERATOR);
+		}
+
+		// only the listed elements belong to the flow (in the exported order)
+		for (JsonNode commandNode : flowNode.path("commands"))
+			flow.addCommand(commands.get(text(commandNode, "name")));
+		for (Entry<String, JsonNode> eventEntry : iterable(eventNodes))
+			flow.addEvent(events.get(eventEntry.getKey()));
+		return flow;
+	}
+
+	private boolean isComposedEvent(JsonNode eventNode) {
+		return eventNode.path("composite").asBoolean(false) || eventNode.path("join").asBoolean(false);
+	}
+
+	private Event importComposedEvent(JsonNode eventNode, Map<String, Event> events) {
+		List<Event> composedEvents = new ArrayList<>();
+		for (JsonNode eventName : eventNode.path("composedEvents"))
+			composedEvents.add(getEvent(eventName.asText(), events));
+		String name = text(eventNode, "name");
+		if (eventNode.path("join").asBoolean(false)) {
+			// the join condition is exported as count: all joined events (AND) or any of them
+			boolean joinsAll = eventNode.path("conditionCount").asInt(composedEvents.size()) == composedEvents.size();
+			return new JoinEvent(name, composedEvents, joinsAll ? Flow.AND_OPERATOR : Flow.OR_OPERATOR);
+		}
+		return new CompositeEvent(name, composedEvents, text(eventNode, "type"));
+	}
+
+	private Command getCommand(String name, Map<String, Command> commands) {
+		return commands.computeIfAbsent(name, Command::new);
+	}
+
+	private Event getEvent(String name, Map<String, Event> events) {
+		return events.computeIfAbsent(name, Event::new);
+	}
+
+	private EndpointContract getEndpoint(String name) {
+		EndpointContract endpoint = endpoints.get(name);
+		if (endpoint == null)
+			throw new MDSLException("The generator model references an unknown endpoint: " + name);
+		return endpoint;
+	}
+
+	private Provider getProvider(JsonNode providerNode) {
+		if (providerNode.isMissingNode() || providerNode.isNull())
+			return null;
+		String name = text(providerNode, "name");
+		if (providers.containsKey(name))
+			return providers.get(name);
+		// provider that is not part of the providers list (exported by value only)
+		Provider provider = new Provider(name);
+		for (JsonNode endpointName : providerNode.path("offeredEndpoints"))
+			provider.addEndpoint(getEndpoint(endpointName.asText()));
+		return provider;
+	}
+
+	private String text(JsonNode node, String fieldName) {
+		JsonNode value = node.get(fieldName);
+		if (value == null || value.isNull())
+			return null;
+		return value.asText();
+	}
+
+	private Iterable<Entry<String, JsonNode>> iterable(JsonNode objectNode) {
+		return objectNode::fields;
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.generator.AbstractFileSystemAccess;
+import org.eclipse.xtext.generator.IFileSystemAccess;
+import org.eclipse.xtext.generator.IFileSystemAccess2;
+import org.eclipse.xtext.generator.InMemoryFileSystemAccess;
+import org.eclipse.xtext.generator.OutputConfiguration;
+
+/**
+ * Output stream that writes a generated file via the Xtext file system access.
+ *
+ * If the file system access maps the file to a local file (CLI, tests), the
+ * stream writes into a temporary file next to it, so that the generated content
+ * is never held in memory as a whole. The file is located in the output
+ * directory of the default output configuration, and an existing file is kept
+ * if the configuration does not override existing resources (as the file
+ * system access would do). Otherwise (for example, in the Eclipse workspace)
+ * the content is buffered.
+ *
+ * The file is published when the stream is closed after {@link #commit()}: the
+ * temporary file replaces the file, or the buffer is handed over to the file
+ * system access. A stream that is closed without a commit (because the content
+ * could not be produced completely) discards its content and leaves an existing
+ * file untouched.
+ */
+public class GeneratedFileOutputStream extends FilterOutputStream {
+
+	private IFileSystemAccess2 fsa;
+	private String fileName;
+	private File file;
+	private File tempFile;
+	private Buffer buffer;
+	private boolean text;
+	private boolean keepExistingFile = false;
+	private boolean committed = false;
+	private boolean closed = false;
+
+	private GeneratedFileOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	/**
+	 * Opens a stream for the given file.
+	 *
+	 * @param fsa      the file system access that shall own the file
+	 * @param fileName the name of the file, relative to the output folder
+	 * @return the stream to write the file content into (must be committed and
+	 *         closed)
+	 * @throws IOException if the file cannot be created
+	 */
+	public static GeneratedFileOutputStream open(IFileSystemAccess2 fsa, String fileName) throws IOException {
+		return open(fsa, fileName, false);
+	}
+
+	/**
+	 * Opens a stream for a file outside of any file system access.
+	 *
+	 * @param file the file
+	 * @return the stream to write the file content into (must be committed and
+	 *         closed)
+	 * @throws IOException if the file cannot be created
+	 */
+	public static GeneratedFileOutputStream open(File file) throws IOException {
+		return openLocalFile(file.getAbsoluteFile());
+	}
+
+	/**
+	 * Opens a stream for a text file (see {@link GeneratedFileWriter}); buffered
+	 * content is handed over to an in-memory file system access as text (UTF-8).
+	 */
+	static GeneratedFileOutputStream open(IFileSystemAccess2 fsa, String fileName, boolean text) throws IOException {
+		File localFile = getLocalFile(fsa, fileName);
+		if (localFile != null && localFile.exists() && !overridesExistingFiles(fsa)) {
+			GeneratedFileOutputStream stream = new GeneratedFileOutputStream(new OutputStream() {
+				@Override
+				public void write(int b) {
+					// the content is discarded, the existing file is kept
+				}
+			});
+			stream.file = localFile;
+			stream.keepExistingFile = true;
+			return stream;
+		}
+		if (localFile != null)
+			return openLocalFile(localFile);
+		Buffer buffer = new Buffer();
+		GeneratedFileOutputStream stream = new GeneratedFileOutputStream(buffer);
+		stream.fsa = fsa;
+		stream.fileName = fileName;
+		stream.buffer = buffer;
+		stream.text = text;
+		return stream;
+	}
+
+	private static GeneratedFileOutputStream openLocalFile(File file) throws IOException {
+		File parent = file.getParentFile();
+		if (parent != null)
+			Files.createDirectories(parent.toPath()); // also if another stream creates it concurrently
+		File tempFile = File.createTempFile("." + file.getName() + ".", ".tmp", parent);
+		GeneratedFileOutputStream stream;
+		try {
+			stream = new GeneratedFileOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		} catch (IOException e) {
+			Files.deleteIfExists(tempFile.toPath());
+			throw e;
+		}
+		stream.file = file;
+		stream.tempFile = tempFile;
+		return stream;
+	}
+
+	private static File getLocalFile(IFileSystemAccess2 fsa, String fileName) {
+		URI uri;
+		try {
+			uri = fsa.getURI(fileName);
+		} catch (UnsupportedOperationException | IllegalArgumentException e) {
+			return null;
+		}
+		if (uri == null || !uri.isFile())
+			return null;
+		return new File(uri.toFileString());
+	}
+
+	private static boolean overridesExistingFiles(IFileSystemAccess2 fsa) {
+		if (!(fsa instanceof AbstractFileSystemAccess))
+			return true;
+		OutputConfiguration configuration = ((AbstractFileSystemAccess) fsa).getOutputConfigurations().get(IFileSystemAccess.DEFAULT_OUTPUT);
+		return configuration == null || configuration.isOverrideExistingResources();
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		// FilterOutputStream would write byte by byte otherwise
+		out.write(b, off, len);
+	}
+
+	/**
+	 * Marks the content as complete, so that the file is published when the
+	 * stream is closed.
+	 *
+	 * @throws IOException if the content cannot be flushed
+	 */
+	public void commit() throws IOException {
+		if (closed)
+			throw new IOException("The stream for " + getName() + " has already been closed.");
+		flush();
+		committed = true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		try {
+			super.close();
+		} catch (IOException e) {
+			discard();
+			throw e;
+		}
+		if (!committed || keepExistingFile)
+			discard();
+		else if (tempFile != null)
+			moveTempFile();
+		else
+			publishBuffer();
+	}
+
+	private void publishBuffer() {
+		// streams of a fan-out may be closed concurrently; file system accesses are not thread-safe
+		synchronized (fsa) {
+			// the in-memory file system access keeps text files as text
+			if (text && fsa instanceof InMemoryFileSystemAccess)
+				fsa.generateFile(fileName, new String(buffer.getBytes(), 0, buffer.size(), StandardCharsets.UTF_8));
+			else
+				fsa.generateFile(fileName, buffer.toInputStream());
+		}
+	}
+
+	private void moveTempFile() throws IOException {
+		try {
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			discard();
+			throw e;
+		}
+	}
+
+	private void discard() throws IOException {
+		if (tempFile != null)
+			Files.deleteIfExists(tempFile.toPath());
+		buffer = null;
+	}
+
+	private String getName() {
+		return file != null ? file.getPath() : fileName;
+	}
+
+	/**
+	 * Hands the buffered content over without copying it.
+	 */
+	private static class Buffer extends ByteArrayOutputStream {
+
+		private byte[] getBytes() {
+			return buf;
+		}
+
+		private InputStream toInputStream() {
+			return new ByteArrayInputStream(buf, 0, count);
+		}
+	}
+}
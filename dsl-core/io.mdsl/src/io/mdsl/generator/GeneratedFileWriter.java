@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import java.io.File;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.xtext.generator.IFileSystemAccess2;
+
+/**
+ * Writer for generated text files, the character counterpart of
+ * {@link GeneratedFileOutputStream}: the text is encoded (UTF-8) into such a
+ * stream, so that large outputs are not held in memory as a whole if the file is
+ * a local file. Otherwise (for example, in the Eclipse workspace) the encoded
+ * text is handed over to the file system access as a stream; an in-memory file
+ * system access receives it as text.
+ *
+ * As for the stream, the file is published only if the writer is closed after
+ * {@link #commit()}; an aborted generation leaves an existing file untouched.
+ */
+public class GeneratedFileWriter extends FilterWriter {
+
+	private GeneratedFileOutputStream stream;
+
+	private GeneratedFileWriter(GeneratedFileOutputStream stream) {
+		super(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+		this.stream = stream;
+	}
+
+	/**
+	 * Opens a writer for the given file.
+	 *
+	 * @param fsa      the file system access that shall own the file
+	 * @param fileName the name of the file, relative to the output folder
+	 * @return the writer to write the file content into (must be committed and
+	 *         closed)
+	 * @throws IOException if the file cannot be created
+	 */
+	public static GeneratedFileWriter open(IFileSystemAccess2 fsa, String fileName) throws IOException {
+		return new GeneratedFileWriter(GeneratedFileOutputStream.open(fsa, fileName, true));
+	}
+
+	/**
+	 * Opens a writer for a file outside of any file system access.
+	 *
+	 * @param file the file
+	 * @return the writer to write the file content into (must be committed and
+	 *         closed)
+	 * @throws IOException if the file cannot be created
+	 */
+	public static GeneratedFileWriter open(File file) throws IOException {
+		return new GeneratedFileWriter(GeneratedFileOutputStream.open(file));
+	}
+
+	/**
+	 * Marks the text as complete, so that the file is published when the writer
+	 * is closed.
+	 *
+	 * @throws IOException if the text cannot be flushed
+	 */
+	public void commit() throws IOException {
+		flush();
+		stream.commit();
+	}
+}
@@ -7,19 +7,34 @@ import io.mdsl.apiDescription.EndpointContract;
 import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.dsl.ServiceSpecificationAdapter;
 import io.mdsl.generator.freemarker.FreemarkerEngineWrapper;
+import io.mdsl.generator.freemarker.TemplateRenderProfile;
 import io.mdsl.generator.graphql.GraphQLOperationInputTypeNameResolver;
 import io.mdsl.generator.graphql.GraphQLSimpleTypeMappingMethod;
+import io.mdsl.generator.model.MDSLGeneratorModel;
 
 /**
  * Generates GraphQL with Freemarker template
  */
 public class GraphQLGenerator extends AbstractMDSLGenerator {
 
+	private TemplateRenderProfile renderProfile;
+
+	/**
+	 * Records the render times of the GraphQL template into the given profile.
+	 * (optional)
+	 */
+	public void setRenderProfile(TemplateRenderProfile renderProfile) {
+		this.renderProfile = renderProfile;
+	}
+
 	@Override
 	protected void generateFromServiceSpecification(ServiceSpecification mdslSpecification, IFileSystemAccess2 fsa, URI inputFileURI) {
+		MDSLGeneratorModel genModel = convertToGeneratorModel(mdslSpecification);
+
 		// generate graphql file per endpoint
 		for (EndpointContract endpoint : new ServiceSpecificationAdapter(mdslSpecification).getEndpointContracts()) {
 			FreemarkerEngineWrapper fmew = new FreemarkerEngineWrapper(GraphQLGenerator.class, "MDSL2GraphQL.ftl");
+			fmew.setRenderProfile(renderProfile);
 
 			// pass endpoint name for which graphql shall be generated
 			fmew.registerCustomData("graphQLEndpointName", endpoint.getName());
@@ -28,7 +43,7 @@ public class GraphQLGenerator extends AbstractMDSLGenerator {
 			fmew.registerCustomData("mapType", new GraphQLSimpleTypeMappingMethod());
 			fmew.registerCustomData("resolveOperationInputName", new GraphQLOperationInputTypeNameResolver());
 
-			fsa.generateFile(inputFileURI.trimFileExtension().lastSegment() + "_" + endpoint.getName() + ".graphql", fmew.generate(mdslSpecification));
+			writeFile(fsa, inputFileURI.trimFileExtension().lastSegment() + "_" + endpoint.getName() + ".graphql", writer -> fmew.generate(mdslSpecification, genModel, writer));
 		}
 	}
 }
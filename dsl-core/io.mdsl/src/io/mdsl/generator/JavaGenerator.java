@@ -8,6 +8,7 @@ import org.eclipse.xtext.generator.IFileSystemAccess2;
 import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.dsl.ServiceSpecificationAdapter;
 import io.mdsl.generator.freemarker.FreemarkerEngineWrapper;
+import io.mdsl.generator.freemarker.TemplateRenderProfile;
 import io.mdsl.generator.java.CapitalizeMethod;
 import io.mdsl.generator.java.JavaOperationNameResolver;
 import io.mdsl.generator.java.JavaPackageResolver;
@@ -17,7 +18,6 @@ import io.mdsl.generator.java.JavaTypeMappingMethod;
 import io.mdsl.generator.model.DataType;
 import io.mdsl.generator.model.EndpointContract;
 import io.mdsl.generator.model.MDSLGeneratorModel;
-import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
 
 /**
  * Generates Java code with Freemarker template
@@ -27,11 +27,21 @@ public class JavaGenerator extends AbstractMDSLGenerator {
 	private ServiceSpecificationAdapter mdsl;
 	private MDSLGeneratorModel model;
 	private IFileSystemAccess2 fsa;
+	private TemplateRenderProfile renderProfile;
+
+	/**
+	 * Configures a profile into which the time spent in the macros, #list loops
+	 * and custom methods of the templates is recorded during generation.
+	 * (optional)
+	 */
+	public void setRenderProfile(TemplateRenderProfile renderProfile) {
+		this.renderProfile = renderProfile;
+	}
 
 	@Override
 	protected void generateFromServiceSpecification(ServiceSpecification mdslSpecification, IFileSystemAccess2 fsa, URI inputFileURI) {
 		this.mdsl = new ServiceSpecificationAdapter(mdslSpecification);
-		this.model = new MDSL2GeneratorModelConverter(mdsl).convert();
+		this.model = convertToGeneratorModel(mdsl);
 		this.fsa = fsa;
 
 		generateJavaCode4Endpoint();
@@ -42,7 +52,7 @@ public class JavaGenerator extends AbstractMDSLGenerator {
 			FreemarkerEngineWrapper dataTypeEngine = getEngine("DataType.java.ftl");
 			dataTypeEngine.registerCustomData("dataTypeName", contract.getName());
 			dataTypeEngine.registerCustomData("endpointName", endpoint.getName());
-			generateFile(endpoint, "/types/" + capitalize(contract.getName()) + ".java", dataTypeEngine.generate(mdsl));
+			generateFile(endpoint, "/types/" + capitalize(contract.getName()) + ".java", dataTypeEngine);
 		}
 	}
 
@@ -52,24 +62,25 @@ public class JavaGenerator extends AbstractMDSLGenerator {
 
 			FreemarkerEngineWrapper interfaceEngine = getEngine("EndpointInterface.java.ftl");
 			interfaceEngine.registerCustomData("endpointName", endpoint.getName());
-			generateFile(endpoint, "/services/" + capitalize(endpoint.getName()) + ".java", interfaceEngine.generate(mdsl));
+			generateFile(endpoint, "/services/" + capitalize(endpoint.getName()) + ".java", interfaceEngine);
 
 			FreemarkerEngineWrapper implEngine = getEngine("EndpointImplementation.java.ftl");
 			implEngine.registerCustomData("endpointName", endpoint.getName());
-			generateFile(endpoint, "/services/impl/" + capitalize(endpoint.getName()) + "Impl.java", implEngine.generate(mdsl));
+			generateFile(endpoint, "/services/impl/" + capitalize(endpoint.getName()) + "Impl.java", implEngine);
 
 			FreemarkerEngineWrapper testEngine = getEngine("EndpointTest.java.ftl");
 			testEngine.registerCustomData("endpointName", endpoint.getName());
-			generateFile(endpoint, "/services/test/" + capitalize(endpoint.getName()) + "Test.java", testEngine.generate(mdsl));
+			generateFile(endpoint, "/services/test/" + capitalize(endpoint.getName()) + "Test.java", testEngine);
 		}
 	}
 
-	private void generateFile(EndpointContract endpoint, String filename, String content) {
-		fsa.generateFile(new JavaPackageResolver().getJavaPackage(model, endpoint).replace(".", "/") + filename, content);
+	private void generateFile(EndpointContract endpoint, String filename, FreemarkerEngineWrapper engine) {
+		writeFile(fsa, new JavaPackageResolver().getJavaPackage(model, endpoint).replace(".", "/") + filename, writer -> engine.generate(mdsl, model, writer));
 	}
 
 	private FreemarkerEngineWrapper getEngine(String templateName) {
 		FreemarkerEngineWrapper engine = new FreemarkerEngineWrapper(JavaGenerator.class, "java/" + templateName);
+		engine.setRenderProfile(renderProfile);
 		registerCommonCustomData(engine);
 		return engine;
 	}
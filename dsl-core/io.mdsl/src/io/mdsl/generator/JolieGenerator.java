@@ -14,6 +14,7 @@ import io.mdsl.generator.freemarker.FreemarkerEngineWrapper;
 import io.mdsl.generator.jolie.converter.MDSL2JolieConverter;
 import io.mdsl.generator.jolie.converter.OperationModel;
 import io.mdsl.generator.jolie.converter.TypeModel;
+import io.mdsl.generator.model.MDSLGeneratorModel;
 
 /**
  * Generates Jolie interface and port (https://www.jolie-lang.org/) with an MDSL
@@ -40,8 +41,8 @@ public class JolieGenerator extends AbstractMDSLGenerator {
 		
 		FreemarkerEngineWrapper fmew = new FreemarkerEngineWrapper(JolieGenerator.class, "MDSL2JolieTemplate.ol.ftl");
 		fmew.registerCustomData("jolieModel", sh);
-		String filledOutTemplate = fmew.generate(mdslSpecification);
+		MDSLGeneratorModel genModel = convertToGeneratorModel(mdslSpecification);
 
-		fsa.generateFile(outputFilePrefix + ".ol", filledOutTemplate);
+		writeFile(fsa, outputFilePrefix + ".ol", writer -> fmew.generate(mdslSpecification, genModel, writer));
 	}
 }
@@ -1,17 +1,32 @@
 package io.mdsl.generator;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.generator.IFileSystemAccess;
 import org.eclipse.xtext.generator.IFileSystemAccess2;
+import org.eclipse.xtext.generator.InMemoryFileSystemAccess;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.collect.Sets;
 
 import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.exception.MDSLException;
 import io.mdsl.generator.openapi.converter.MDSL2OpenAPIConverter;
+import io.mdsl.generator.openapi.serializer.SplitOpenAPIWriter;
+import io.mdsl.generator.openapi.validation.OpenAPIModelValidator;
+import io.swagger.v3.core.util.Json;
 import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 
 /**
@@ -23,25 +38,196 @@ import io.swagger.v3.parser.core.models.SwaggerParseResult;
 public class OpenAPIGenerator extends AbstractMDSLGenerator {
 
 	private Set<String> validationMessages;
+	private boolean roundTripValidation;
+	private boolean extractSharedSchemas;
+	private boolean splitOutput;
+	private boolean jsonOutput;
+	private boolean minifyJson;
+	private Integer maxItems;
+	private CompletableFuture<Set<String>> roundTripValidationMessages = CompletableFuture.completedFuture(Sets.newHashSet());
 
 	@Override
 	protected void generateFromServiceSpecification(ServiceSpecification mdslSpecification, IFileSystemAccess2 fsa,
 			URI inputFileURI) {
-		String fileName = inputFileURI.trimFileExtension().lastSegment() + ".yaml";
+		String baseName = inputFileURI.trimFileExtension().lastSegment();
 		validationMessages = Sets.newHashSet();
 
 		// convert MDSL to OpenAPI model:
-		OpenAPI oas = new MDSL2OpenAPIConverter(mdslSpecification).convert();
+		MDSL2OpenAPIConverter converter = new MDSL2OpenAPIConverter(mdslSpecification);
+		converter.setExtractSharedSchemas(extractSharedSchemas);
+		converter.setMaxItems(maxItems);
+		converter.setParallelPathConversion(getConversionPool() != null);
+		OpenAPI oas = converter.convert();
+
+		// validate the generated model:
+		validationMessages.addAll(new OpenAPIModelValidator(oas).validate());
+
+		if (splitOutput) {
+			// serialize model as several YAML files (each one written when ready):
+			SplitOpenAPIWriter splitWriter = new SplitOpenAPIWriter(oas, baseName);
+			splitWriter.write((splitFileName, content) -> generateFileIfChanged(fsa, splitFileName, content));
+			splitWriter.deleteStaleDocuments(listFiles(fsa, baseName), fsa::deleteFile);
+
+			// optionally, parse the written files again (off-thread):
+			URI rootFileURI = fsa.getURI(splitWriter.getRootDocumentName());
+			if (roundTripValidation && rootFileURI.isFile())
+				roundTripValidationMessages = CompletableFuture.supplyAsync(() -> parseAndValidateLocation(rootFileURI.toFileString()));
+			else if (roundTripValidation)
+				roundTripValidationMessages = CompletableFuture.supplyAsync(() -> parseAndValidate(Yaml.pretty(oas)));
+			else
+				roundTripValidationMessages = CompletableFuture.completedFuture(Sets.newHashSet());
+			return;
+		}
+
+		if (jsonOutput) {
+			// stream model into JSON file:
+			String jsonFileName = baseName + ".json";
+			generateJsonFile(fsa, jsonFileName, oas);
+
+			// optionally, parse the written JSON again (off-thread):
+			URI jsonFileURI = fsa.getURI(jsonFileName);
+			if (roundTripValidation && jsonFileURI.isFile())
+				roundTripValidationMessages = CompletableFuture.supplyAsync(() -> parseAndValidateLocation(jsonFileURI.toFileString()));
+			else if (roundTripValidation)
+				roundTripValidationMessages = CompletableFuture.supplyAsync(() -> parseAndValidate(Json.pretty(oas)));
+			else
+				roundTripValidationMessages = CompletableFuture.completedFuture(Sets.newHashSet());
+			return;
+		}
 
 		// serialize model as YAML file:
 		String yaml = Yaml.pretty(oas);
 
-		// validate the generated model:
+		// generate output file
+		fsa.generateFile(baseName + ".yaml", yaml);
+
+		// optionally, parse the written YAML again (off-thread):
+		if (roundTripValidation)
+			roundTripValidationMessages = CompletableFuture.supplyAsync(() -> parseAndValidate(yaml));
+		else
+			roundTripValidationMessages = CompletableFuture.completedFuture(Sets.newHashSet());
+	}
+
+	/**
+	 * Serializes the model with a streaming JSON generator directly into the
+	 * output file, so that the document is never held in memory as a whole (if
+	 * the file is a local file). The file is replaced only if the serialization
+	 * succeeds.
+	 */
+	private void generateJsonFile(IFileSystemAccess2 fsa, String fileName, OpenAPI oas) {
+		ObjectWriter writer = minifyJson ? Json.mapper().writer() : Json.mapper().writer(new DefaultPrettyPrinter());
+		try (GeneratedFileOutputStream output = GeneratedFileOutputStream.open(fsa, fileName)) {
+			writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(output, oas);
+			output.commit();
+		} catch (IOException e) {
+			throw new MDSLException("Could not write OpenAPI specification to " + fileName, e);
+		}
+	}
+
+	/**
+	 * Leaves files whose content has not changed untouched, so that tools that
+	 * watch the output only reload what changed.
+	 */
+	private static void generateFileIfChanged(IFileSystemAccess2 fsa, String fileName, String content) {
+		if (fsa.isFile(fileName) && content.contentEquals(fsa.readTextFile(fileName)))
+			return;
+		fsa.generateFile(fileName, content);
+	}
+
+	/**
+	 * Lists the files in a directory of the output (local file system or
+	 * in-memory output only), with names relative to the output directory.
+	 */
+	private static List<String> listFiles(IFileSystemAccess2 fsa, String directoryName) {
+		List<String> fileNames = new ArrayList<>();
+		if (fsa instanceof InMemoryFileSystemAccess) {
+			String prefix = IFileSystemAccess.DEFAULT_OUTPUT + directoryName + "/";
+			for (String key : ((InMemoryFileSystemAccess) fsa).getAllFiles().keySet()) {
+				if (key.startsWith(prefix))
+					fileNames.add(key.substring(IFileSystemAccess.DEFAULT_OUTPUT.length()));
+			}
+			return fileNames;
+		}
+		URI directoryURI;
+		try {
+			directoryURI = fsa.getURI(directoryName);
+		} catch (UnsupportedOperationException | IllegalArgumentException e) {
+			return fileNames;
+		}
+		if (directoryURI == null || !directoryURI.isFile())
+			return fileNames;
+		File[] files = new File(directoryURI.toFileString()).listFiles(File::isFile);
+		if (files != null) {
+			for (File file : files)
+				fileNames.add(directoryName + "/" + file.getName());
+		}
+		return fileNames;
+	}
+
+	private static Set<String> parseAndValidate(String yaml) {
 		SwaggerParseResult parseResult = new OpenAPIV3Parser().readContents(yaml);
-		validationMessages.addAll(parseResult.getMessages());
+		return Sets.newHashSet(parseResult.getMessages());
+	}
 
-		// generate output file
-		fsa.generateFile(fileName, yaml);
+	private static Set<String> parseAndValidateLocation(String location) {
+		ParseOptions options = new ParseOptions();
+		options.setResolve(true);
+		SwaggerParseResult parseResult = new OpenAPIV3Parser().readLocation(location, null, options);
+		return Sets.newHashSet(parseResult.getMessages());
+	}
+
+	/**
+	 * Moves schemas that occur more than once into "components/schemas" and
+	 * references them via $ref, which makes the generated file smaller.
+	 * (optional)
+	 */
+	public void setExtractSharedSchemas(boolean extractSharedSchemas) {
+		this.extractSharedSchemas = extractSharedSchemas;
+	}
+
+	/**
+	 * Bounds all arrays to the given number of items (maxItems), so that no
+	 * response can grow without limit. (optional)
+	 */
+	public void setMaxItems(Integer maxItems) {
+		this.maxItems = maxItems;
+	}
+
+	/**
+	 * Writes the specification as several files: a root file, one file with the
+	 * paths per tag (resource) and a shared components file, linked by relative
+	 * references (see {@link SplitOpenAPIWriter}). Files whose content has not
+	 * changed are not written again. (optional)
+	 */
+	public void setSplitOutput(boolean splitOutput) {
+		this.splitOutput = splitOutput;
+	}
+
+	/**
+	 * Writes the specification as JSON ({name}.json) instead of YAML. The JSON
+	 * is streamed into the file. Not used for the split output, which is always
+	 * YAML. (optional)
+	 */
+	public void setJsonOutput(boolean jsonOutput) {
+		this.jsonOutput = jsonOutput;
+	}
+
+	/**
+	 * Writes the JSON without indentation and line breaks (only used with
+	 * {@link #setJsonOutput(boolean)}). (optional)
+	 */
+	public void setMinifyJson(boolean minifyJson) {
+		this.minifyJson = minifyJson;
+	}
+
+	/**
+	 * Enables the round-trip validation: after the file has been written, it is
+	 * parsed again with the OpenAPI parser in the background (see
+	 * {@link #getRoundTripValidationMessages()}). The in-model validation is done
+	 * in any case. (optional)
+	 */
+	public void setRoundTripValidation(boolean roundTripValidation) {
+		this.roundTripValidation = roundTripValidation;
 	}
 
 	/**
@@ -52,4 +238,13 @@ public class OpenAPIGenerator extends AbstractMDSLGenerator {
 		return validationMessages;
 	}
 
+	/**
+	 * Allows clients to get the messages of the OpenAPI parser for the generated
+	 * file once the round-trip validation has finished. Completed with an empty
+	 * set if the round-trip validation is not enabled.
+	 */
+	public CompletableFuture<Set<String>> getRoundTripValidationMessages() {
+		return roundTripValidationMessages;
+	}
+
 }
@@ -31,12 +31,9 @@ public class SketchMinerGenerator extends AbstractMDSLGenerator {
 		IFileSystemAccess2 fsa, URI inputFileURI) {
 		
 		String fileName = inputFileURI.trimFileExtension().lastSegment();
-		StringBuffer bpmnStories = new StringBuffer();
 		
 		for(Orchestration flow : mdslSpecification.getOrchestrations()) {
-			bpmnStories.delete(0, bpmnStories.length()); // no clear or emptyBuffer methods
-			bpmnStories.append(new SketchMinerModelCreator().createText(flow));
-			fsa.generateFile(fileName + "_" + flow.getName() + "." + SKETCH_MINER_FILE_EXT, bpmnStories);
+			writeFile(fsa, fileName + "_" + flow.getName() + "." + SKETCH_MINER_FILE_EXT, writer -> new SketchMinerModelCreator().createText(flow, writer));
 		}
 	}
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Keeps track of the names that are already taken in a generated artifact and
+ * derives unique names from it ("Name", "Name_2", "Name_3", ...).
+ *
+ * Reservations and lookups take constant time. The table remembers the last
+ * suffix used per base name, so repeated requests for the same base name do not
+ * rescan the names that are already taken. All names handed out are interned
+ * (within the table), so that equal names share one string instance.
+ */
+public class SymbolTable {
+
+	private static final String SUFFIX_SEPARATOR = "_";
+	private static final int FIRST_SUFFIX = 2;
+
+	private Set<String> reservedNames;
+	private Map<String, Integer> suffixCounters;
+	private Map<String, Integer> sequenceCounters;
+	private Interner<String> names;
+
+	public SymbolTable() {
+		this.reservedNames = Sets.newHashSet();
+		this.suffixCounters = Maps.newHashMap();
+		this.sequenceCounters = Maps.newHashMap();
+		this.names = Interners.newStrongInterner();
+	}
+
+	/**
+	 * Marks a name as taken.
+	 *
+	 * @param name the name that shall be reserved
+	 * @return true if the name was not taken before, false otherwise
+	 */
+	public boolean reserve(String name) {
+		return reservedNames.add(intern(name));
+	}
+
+	/**
+	 * Makes a name available again.
+	 *
+	 * @param name the name that is no longer used
+	 */
+	public void release(String name) {
+		if (!reservedNames.remove(name))
+			return;
+		// let the suffix counter of the base name restart at the released suffix
+		int separatorIndex = name.lastIndexOf(SUFFIX_SEPARATOR);
+		if (separatorIndex <= 0)
+			return;
+		String suffix = name.substring(separatorIndex + 1);
+		if (suffix.isEmpty() || !suffix.chars().allMatch(Character::isDigit) || suffix.length() > 9)
+			return;
+		String baseName = name.substring(0, separatorIndex);
+		int releasedCounter = Integer.parseInt(suffix);
+		Integer counter = suffixCounters.get(baseName);
+		if (counter != null && releasedCounter < counter)
+			suffixCounters.put(baseName, Math.max(releasedCounter, FIRST_SUFFIX));
+	}
+
+	/**
+	 * Checks whether a name is already taken.
+	 *
+	 * @param name the name to check
+	 * @return true if the name has been reserved before
+	 */
+	public boolean isReserved(String name) {
+		return reservedNames.contains(name);
+	}
+
+	/**
+	 * Returns the given base name if it is still available or, if not, the base
+	 * name with the next free numeric suffix ("Name_2", "Name_3", ...). The
+	 * returned name is reserved.
+	 *
+	 * @param baseName the preferred name
+	 * @return a name that has not been handed out or reserved before
+	 */
+	public String getUniqueName(String baseName) {
+		String name = intern(baseName);
+		if (reserve(name))
+			return name;
+
+		int counter = suffixCounters.getOrDefault(name, FIRST_SUFFIX);
+		String candidate = baseName + SUFFIX_SEPARATOR + counter;
+		while (isReserved(candidate)) {
+			counter++;
+			candidate = baseName + SUFFIX_SEPARATOR + counter;
+		}
+		suffixCounters.put(name, counter + 1);
+		reserve(candidate);
+		return intern(candidate);
+	}
+
+	/**
+	 * Returns the next value of a named sequence (1, 2, 3, ...). Sequences are used
+	 * to number generated names such as "anonymous1", "anonymous2" and so on.
+	 *
+	 * @param sequenceName the name of the sequence (typically the name prefix)
+	 * @return the next number of the sequence
+	 */
+	public int nextInSequence(String sequenceName) {
+		int next = sequenceCounters.getOrDefault(sequenceName, 0) + 1;
+		sequenceCounters.put(sequenceName, next);
+		return next;
+	}
+
+	/**
+	 * Returns the canonical instance of a name. Does not reserve the name.
+	 *
+	 * @param name the name
+	 * @return the canonical (shared) string instance for the name
+	 */
+	public String intern(String name) {
+		if (name == null)
+			return null;
+		return names.intern(name);
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.mdsl.exception.MDSLException;
+import io.mdsl.generator.model.Client;
+import io.mdsl.generator.model.DataType;
+import io.mdsl.generator.model.EndpointContract;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.Provider;
+import io.mdsl.generator.model.composition.Flow;
+
+/**
+ * Fan-out configuration for the {@link TextFileGenerator}: the template is
+ * rendered once per element of the generator model (for instance, once per
+ * endpoint) into a file whose name is derived from the element name.
+ *
+ * The configuration can be declared in a manifest next to the template
+ * ("&lt;template file name&gt;.fanout.properties"), for example:
+ *
+ * <pre>
+ * iterate = endpoints
+ * fileName = ${name}.md
+ * </pre>
+ *
+ * In the template, the current element is available as "element" and its name
+ * as "elementName".
+ */
+public class TextFileFanOut {
+
+	public static final String MANIFEST_SUFFIX = ".fanout.properties";
+	public static final String NAME_PLACEHOLDER = "${name}";
+
+	private static final String ITERATE_PROPERTY = "iterate";
+	private static final String FILE_NAME_PROPERTY = "fileName";
+
+	/**
+	 * The generator model elements a template can iterate over.
+	 */
+	public enum Target {
+		ENDPOINTS("endpoints", MDSLGeneratorModel::getEndpoints, e -> ((EndpointContract) e).getName()),
+		DATA_TYPES("dataTypes", MDSLGeneratorModel::getDataTypes, e -> ((DataType) e).getName()),
+		ORCHESTRATION_FLOWS("flows", MDSLGeneratorModel::getOrchestrationFlows, e -> ((Flow) e).getName()),
+		PROVIDERS("providers", MDSLGeneratorModel::getProviders, e -> ((Provider) e).getName()),
+		CLIENTS("clients", MDSLGeneratorModel::getClients, e -> ((Client) e).getName());
+
+		private String name;
+		private Function<MDSLGeneratorModel, List<?>> elements;
+		private Function<Object, String> elementName;
+
+		private Target(String name, Function<MDSLGeneratorModel, List<?>> elements, Function<Object, String> elementName) {
+			this.name = name;
+			this.elements = elements;
+			this.elementName = elementName;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public static Target byName(String name) {
+			for (Target target : values()) {
+				if (target.name.equals(name))
+					return target;
+			}
+			throw new MDSLException("Unknown fan-out target '" + name + "'. Supported targets: "
+					+ Arrays.stream(values()).map(Target::getName).collect(Collectors.joining(", ")));
+		}
+	}
+
+	private Target target;
+	private String fileNamePattern;
+
+	/**
+	 * Creates a fan-out configuration.
+	 *
+	 * @param target          the elements the template shall be rendered for
+	 * @param fileNamePattern the name of the generated files; "${name}" is
+	 *                        replaced by the element name
+	 */
+	public TextFileFanOut(Target target, String fileNamePattern) {
+		if (fileNamePattern == null || !fileNamePattern.contains(NAME_PLACEHOLDER))
+			throw new MDSLException("The fan-out file name pattern must contain " + NAME_PLACEHOLDER + ".");
+		this.target = target;
+		this.fileNamePattern = fileNamePattern;
+	}
+
+	/**
+	 * Reads the fan-out manifest of a template, if there is one.
+	 *
+	 * @param templateFile the Freemarker template
+	 * @return the fan-out configuration or null if the template has no manifest
+	 */
+	public static TextFileFanOut readManifest(File templateFile) {
+		File manifest = new File(templateFile.getAbsoluteFile().getParentFile(), templateFile.getName() + MANIFEST_SUFFIX);
+		if (!manifest.exists())
+			return null;
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(manifest.toPath(), StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		} catch (IOException e) {
+			throw new MDSLException("Could not read the fan-out manifest '" + manifest.getAbsolutePath() + "'.", e);
+		}
+		String target = properties.getProperty(ITERATE_PROPERTY);
+		if (target == null)
+			throw new MDSLException("The fan-out manifest '" + manifest.getAbsolutePath() + "' does not declare '" + ITERATE_PROPERTY + "'.");
+		return new TextFileFanOut(Target.byName(target.trim()), properties.getProperty(FILE_NAME_PROPERTY));
+	}
+
+	public Target getTarget() {
+		return target;
+	}
+
+	public String getFileNamePattern() {
+		return fileNamePattern;
+	}
+
+	/**
+	 * @param genModel the generator model
+	 * @return the elements the template shall be rendered for
+	 */
+	public List<?> getElements(MDSLGeneratorModel genModel) {
+		return target.elements.apply(genModel);
+	}
+
+	/**
+	 * @param element an element returned by {@link #getElements}
+	 * @return the name of the element
+	 */
+	public String getElementName(Object element) {
+		return target.elementName.apply(element);
+	}
+
+	/**
+	 * @param element an element returned by {@link #getElements}
+	 * @return the name of the file generated for the element
+	 */
+	public String getFileName(Object element) {
+		return fileNamePattern.replace(NAME_PLACEHOLDER, getElementName(element));
+	}
+}
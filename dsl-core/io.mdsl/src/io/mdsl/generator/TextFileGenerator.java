@@ -1,17 +1,33 @@
 package io.mdsl.generator;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.generator.IFileSystemAccess2;
 
 import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.exception.MDSLException;
 import io.mdsl.generator.freemarker.FreemarkerEngineWrapper;
+import io.mdsl.generator.freemarker.TemplateRenderBudget;
+import io.mdsl.generator.freemarker.TemplateRenderProfile;
+import io.mdsl.generator.model.MDSLGeneratorModel;
 
 /**
  * Generator to generate arbitrary text files (using a Freemarker template).
@@ -24,6 +40,11 @@ public class TextFileGenerator extends AbstractMDSLGenerator {
 	private File freemarkerTemplateFile;
 	private String targetFileName;
 	private Map<String, Object> customDataMap = new HashMap<>();
+	private MDSLGeneratorModel genModel;
+	private TextFileFanOut fanOut;
+	private TemplateRenderProfile renderProfile;
+	private TemplateRenderBudget renderBudget;
+	private int fanOutThreads = 1;
 
 	/**
 	 * Configures the Freemarker template. Must be called before generation.
@@ -39,6 +60,57 @@ public class TextFileGenerator extends AbstractMDSLGenerator {
 		this.targetFileName = targetFileName;
 	}
 
+	/**
+	 * Configures a generator model that has already been converted from the MDSL
+	 * model, so that several templates can be rendered from one conversion. The
+	 * MDSL model is converted on every generation otherwise. (optional)
+	 */
+	public void setGeneratorModel(MDSLGeneratorModel genModel) {
+		this.genModel = genModel;
+	}
+
+	/**
+	 * Configures the generator to render the template once per element of the
+	 * generator model. If no fan-out is configured, the generator looks for a
+	 * fan-out manifest next to the template (see {@link TextFileFanOut}) and
+	 * generates a single file if there is none. (optional)
+	 */
+	public void setFanOut(TextFileFanOut fanOut) {
+		this.fanOut = fanOut;
+	}
+
+	/**
+	 * Renders the files of a fan-out on the given number of threads of an
+	 * executor that is created for the generation (and shut down afterwards).
+	 * Custom data registered with
+	 * {@link #registerCustomModelProperty(String, Object)}, template methods in
+	 * particular, must be thread-safe then. The files are rendered one after the
+	 * other by default. (optional)
+	 */
+	public void setFanOutThreads(int fanOutThreads) {
+		if (fanOutThreads < 1)
+			throw new MDSLException("The number of fan-out threads must be positive.");
+		this.fanOutThreads = fanOutThreads;
+	}
+
+	/**
+	 * Configures a profile into which the time spent in the macros, #list loops
+	 * and custom methods of the template is recorded during generation (see
+	 * {@link TemplateRenderProfile#getReport()}). (optional)
+	 */
+	public void setRenderProfile(TemplateRenderProfile renderProfile) {
+		this.renderProfile = renderProfile;
+	}
+
+	/**
+	 * Limits the time and the output size of every render of the template (each
+	 * file in fan-out mode). A render that exceeds the budget is aborted with a
+	 * {@link io.mdsl.exception.TemplateRenderBudgetExceededException}. (optional)
+	 */
+	public void setRenderBudget(TemplateRenderBudget renderBudget) {
+		this.renderBudget = renderBudget;
+	}
+
 	/**
 	 * Registers additional data to be used in the Freemarker template. (optional)
 	 */
@@ -48,25 +120,140 @@ public class TextFileGenerator extends AbstractMDSLGenerator {
 
 	@Override
 	protected void generateFromServiceSpecification(ServiceSpecification mdslSpecification, IFileSystemAccess2 fsa, URI inputFileURI) {
-		// check that preconditions are fulfilled:
-		if (freemarkerTemplateFile == null)
-			throw new MDSLException("The freemarker template has not been set!");
-		if (!freemarkerTemplateFile.exists())
-			throw new MDSLException("The file '" + freemarkerTemplateFile.getAbsolutePath().toString() + "' does not exist!");
-		if (targetFileName == null || "".equals(targetFileName))
-			throw new MDSLException("Please provide a name for the file that shall be generated.");
+		TextFileFanOut activeFanOut = getFanOut();
+		checkPreconditions(activeFanOut);
 
 		// register some additional data:
 		registerCustomModelProperty("timeStamp", new SimpleDateFormat("dd.MM.YYYY HH:mm:ss z").format(new Date()));
 		registerCustomModelProperty("fileName", mdslSpecification.eResource().getURI().lastSegment().toString());
 		registerCustomModelProperty("apiName", mdslSpecification.getName());
 
-		// generate the file:
+		// generate the file(s):
+		MDSLGeneratorModel model = genModel != null ? genModel : convertToGeneratorModel(mdslSpecification);
+		if (activeFanOut == null)
+			writeFile(fsa, targetFileName, writer -> createFreemarkerWrapper().generate(mdslSpecification, model, writer));
+		else
+			renderFanOut(activeFanOut, mdslSpecification, model, (fileName, content) -> writeFile(fsa, fileName, content));
+	}
+
+	/**
+	 * Generates the text file from a generator model (for example, a model
+	 * imported with the {@link GenModelImporter}) without an MDSL model; the
+	 * template can access the generator model only.
+	 * 
+	 * @param genModel        the generator model
+	 * @param fileName        the name of the MDSL file the generator model has
+	 *                        been created from (available as "fileName" in the
+	 *                        template)
+	 * @param outputDirectory the directory into which the file(s) shall be
+	 *                        generated
+	 */
+	public void generateFromGeneratorModel(MDSLGeneratorModel genModel, String fileName, File outputDirectory) {
+		TextFileFanOut activeFanOut = getFanOut();
+		checkPreconditions(activeFanOut);
+
+		// register some additional data:
+		registerCustomModelProperty("timeStamp", new SimpleDateFormat("dd.MM.YYYY HH:mm:ss z").format(new Date()));
+		registerCustomModelProperty("fileName", fileName);
+		registerCustomModelProperty("apiName", genModel.getApiName());
+
+		// generate the file(s):
+		if (activeFanOut == null)
+			writeFile(new File(outputDirectory, targetFileName), writer -> createFreemarkerWrapper().generate(genModel, writer));
+		else
+			renderFanOut(activeFanOut, null, genModel, (name, content) -> writeFile(new File(outputDirectory, name), content));
+	}
+
+	private void writeFile(File targetFile, Consumer<Writer> content) {
+		try (GeneratedFileWriter writer = GeneratedFileWriter.open(targetFile)) {
+			content.accept(writer);
+			writer.commit();
+		} catch (IOException e) {
+			throw new MDSLException("Could not write the file '" + targetFile.getAbsolutePath() + "'.", e);
+		}
+	}
+
+	/**
+	 * Renders the template into one file per element; every file is written as
+	 * soon as it has been rendered. All renders share the generator model and
+	 * the parsed template.
+	 */
+	private void renderFanOut(TextFileFanOut activeFanOut, ServiceSpecification mdslSpecification, MDSLGeneratorModel model, BiConsumer<String, Consumer<Writer>> fileWriter) {
+		List<?> elements = activeFanOut.getElements(model);
+		Set<String> fileNames = new HashSet<>();
+		List<Runnable> renders = new ArrayList<>();
+		for (Object element : elements) {
+			String fileName = activeFanOut.getFileName(element);
+			// checked before the first file is written
+			if (!fileNames.add(fileName))
+				throw new MDSLException("The fan-out file name pattern '" + activeFanOut.getFileNamePattern() + "' yields the file name '" + fileName + "' more than once.");
+			renders.add(() -> fileWriter.accept(fileName, writer -> {
+				FreemarkerEngineWrapper freemarkerWrapper = createFreemarkerWrapper();
+				freemarkerWrapper.registerCustomData("element", element);
+				freemarkerWrapper.registerCustomData("elementName", activeFanOut.getElementName(element));
+				if (mdslSpecification != null)
+					freemarkerWrapper.generate(mdslSpecification, model, writer);
+				else
+					freemarkerWrapper.generate(model, writer);
+			}));
+		}
+
+		if (fanOutThreads == 1 || renders.size() < 2) {
+			renders.forEach(Runnable::run);
+			return;
+		}
+		// the threads only read the models: load everything that is loaded lazily up front
+		model.loadAllSections();
+		if (mdslSpecification != null)
+			EcoreUtil.resolveAll(mdslSpecification);
+		renderConcurrently(renders);
+	}
+
+	private void renderConcurrently(List<Runnable> renders) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(fanOutThreads, renders.size()), runnable -> {
+			Thread thread = new Thread(runnable, "mdsl-fan-out");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Runnable render : renders)
+				futures.add(executor.submit(render));
+			for (Future<?> future : futures)
+				future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new MDSLException("Fan-out generation failed: " + e.getCause().getMessage(), e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MDSLException("Fan-out generation has been interrupted.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private TextFileFanOut getFanOut() {
+		if (freemarkerTemplateFile == null)
+			throw new MDSLException("The freemarker template has not been set!");
+		if (!freemarkerTemplateFile.exists())
+			throw new MDSLException("The file '" + freemarkerTemplateFile.getAbsolutePath().toString() + "' does not exist!");
+		return fanOut != null ? fanOut : TextFileFanOut.readManifest(freemarkerTemplateFile);
+	}
+
+	private void checkPreconditions(TextFileFanOut activeFanOut) {
+		if ((targetFileName == null || "".equals(targetFileName)) && activeFanOut == null)
+			throw new MDSLException("Please provide a name for the file that shall be generated.");
+	}
+
+	private FreemarkerEngineWrapper createFreemarkerWrapper() {
 		FreemarkerEngineWrapper freemarkerWrapper = new FreemarkerEngineWrapper(this.freemarkerTemplateFile);
+		freemarkerWrapper.setRenderProfile(renderProfile);
+		freemarkerWrapper.setRenderBudget(renderBudget);
 		for (Map.Entry<String, Object> customDataEntry : customDataMap.entrySet()) {
 			freemarkerWrapper.registerCustomData(customDataEntry.getKey(), customDataEntry.getValue());
 		}
-		fsa.generateFile(targetFileName, freemarkerWrapper.generate(mdslSpecification));
+		return freemarkerWrapper;
 	}
 
 }
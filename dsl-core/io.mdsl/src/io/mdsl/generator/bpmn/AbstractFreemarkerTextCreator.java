@@ -17,6 +17,7 @@ package io.mdsl.generator.bpmn;
 
 import java.io.File;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -48,9 +49,20 @@ public abstract class AbstractFreemarkerTextCreator<T> {
 	}
 
 	public String createText(T modelObject) {
+		StringWriter writer = new StringWriter();
+		createText(modelObject, writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Writes the text into the given writer while the template is processed.
+	 * 
+	 * @param modelObject the model object to create the text for
+	 * @param writer      the writer the text is written to (not closed)
+	 */
+	public void createText(T modelObject, Writer writer) {
 		Map<String, Object> root = new HashMap<>();
 		registerModelObjects(root, modelObject);
-		StringWriter writer = new StringWriter();
 
 		try {
 			freemarkerTemplate.process(root, writer);
@@ -58,7 +70,6 @@ public abstract class AbstractFreemarkerTextCreator<T> {
 			e.printStackTrace();
 			throw new MDSLException("Error in processing freemarker template.", e);
 		}
-		return writer.toString();
 	}
 
 	protected abstract void registerModelObjects(Map<String, Object> root, T modelObject);
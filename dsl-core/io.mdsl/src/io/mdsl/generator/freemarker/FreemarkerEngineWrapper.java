@@ -3,22 +3,47 @@ package io.mdsl.generator.freemarker;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateExceptionHandler;
+import freemarker.template.TemplateMethodModelEx;
+import freemarker.template.TemplateModelException;
 import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.exception.MDSLException;
+import io.mdsl.exception.TemplateRenderBudgetExceededException;
+import io.mdsl.generator.model.MDSLGeneratorModel;
 import io.mdsl.generator.model.converter.MDSL2GeneratorModelConverter;
 
 public class FreemarkerEngineWrapper {
 
+	/*
+	 * Configurations are shared by all wrappers using the same template loader
+	 * (workspace/CLI template directory or plugin class), so that every template
+	 * is parsed only once per process. Freemarker caches the parsed templates per
+	 * configuration and name.
+	 */
+	private static final ConfigurationCache CONFIGURATIONS = new ConfigurationCache(false);
+
+	/*
+	 * Configurations used for profiling load instrumented copies of the same
+	 * templates (see ProfilingTemplateLoader); they are kept apart so that the
+	 * regular generation never renders the instrumented templates.
+	 */
+	private static final ConfigurationCache PROFILING_CONFIGURATIONS = new ConfigurationCache(true);
+
 	private File templateFile;
 	private Class<?> templateLoadingClass;
 	private String templateName;
 	private Map<String, Object> inputData;
+	private TemplateRenderProfile renderProfile;
+	private TemplateRenderBudget renderBudget;
 
 	private FreemarkerEngineWrapper() {
 		this.inputData = new HashMap<>();
@@ -54,18 +79,73 @@ public class FreemarkerEngineWrapper {
 	 * @return returns the generated text as String
 	 */
 	public String generate(ServiceSpecification mdslSpecification) {
+		return generate(mdslSpecification, new MDSL2GeneratorModelConverter(mdslSpecification).convertLazily());
+	}
+
+	/**
+	 * Generates the textual output using the Freemarker template engine and a
+	 * generator model that has already been converted from the MDSL model, so that
+	 * several templates can be rendered from one conversion.
+	 * 
+	 * @param mdslSpecification the MDSL model to be used for generation
+	 * @param genModel          the generator model converted from the MDSL model
+	 * @return returns the generated text as String
+	 */
+	public String generate(ServiceSpecification mdslSpecification, MDSLGeneratorModel genModel) {
+		inputData.put("serviceSpecification", mdslSpecification);
+		return generate(genModel);
+	}
+
+	/**
+	 * Generates the textual output from a generator model only (for example, a
+	 * model imported from an export). Templates that access the MDSL model
+	 * ("serviceSpecification") directly cannot be used in this case.
+	 * 
+	 * @param genModel the generator model to be used for generation
+	 * @return returns the generated text as String
+	 */
+	public String generate(MDSLGeneratorModel genModel) {
+		StringWriter writer = new StringWriter();
+		generate(genModel, writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Generates the textual output using the Freemarker template engine and
+	 * writes it into the given writer while the template is processed, so that
+	 * the output is never held in memory as a whole (see
+	 * {@link io.mdsl.generator.GeneratedFileWriter}).
+	 * 
+	 * @param mdslSpecification the MDSL model to be used for generation
+	 * @param genModel          the generator model converted from the MDSL model
+	 * @param writer            the writer the output is written to (not closed)
+	 */
+	public void generate(ServiceSpecification mdslSpecification, MDSLGeneratorModel genModel, Writer writer) {
+		inputData.put("serviceSpecification", mdslSpecification);
+		generate(genModel, writer);
+	}
+
+	/**
+	 * Generates the textual output from a generator model only and writes it into
+	 * the given writer while the template is processed.
+	 * 
+	 * @param genModel the generator model to be used for generation
+	 * @param writer   the writer the output is written to (not closed)
+	 */
+	public void generate(MDSLGeneratorModel genModel, Writer writer) {
 		try {
-			// configure Freemarker
-			Configuration configuration = configureFreemarker();
-			Template template = configuration.getTemplate(templateName);
+			Template template = getTemplate();
 
 			// register data
-			inputData.put("serviceSpecification", mdslSpecification);
-			inputData.put("genModel", new MDSL2GeneratorModelConverter(mdslSpecification).convert());
+			inputData.put("genModel", genModel);
 
-			StringWriter writer = new StringWriter();
-			template.process(this.inputData, writer);
-			return writer.toString();
+			Map<String, Object> dataModel = renderProfile != null ? getProfiledInputData() : this.inputData;
+			if (renderBudget != null)
+				new TemplateRenderGuard(renderBudget, templateName).process(template, dataModel, writer);
+			else
+				template.process(dataModel, writer);
+		} catch (TemplateRenderBudgetExceededException e) {
+			throw e;
 		} catch (Exception e) {
 			throw new MDSLException("Freemarker generation exception occured: " + e.getMessage(), e);
 		}
@@ -83,16 +163,148 @@ public class FreemarkerEngineWrapper {
 		this.inputData.put(propertyName, object);
 	}
 
-	private Configuration configureFreemarker() throws IOException {
+	/**
+	 * Enables profiling: the time spent in macros, #list loops and custom methods
+	 * (registered with {@link #registerCustomData(String, Object)}) is recorded in
+	 * the given profile while generating. Profiling slows the generation down and
+	 * is disabled by default.
+	 * 
+	 * @param renderProfile the profile to record into, or null to disable
+	 *                      profiling
+	 */
+	public void setRenderProfile(TemplateRenderProfile renderProfile) {
+		this.renderProfile = renderProfile;
+	}
+
+	/**
+	 * Limits the time and the output size of every render of this wrapper. A
+	 * render that exceeds the budget is aborted with a
+	 * {@link TemplateRenderBudgetExceededException}.
+	 * 
+	 * @param renderBudget the budget, or null for unlimited renders
+	 */
+	public void setRenderBudget(TemplateRenderBudget renderBudget) {
+		this.renderBudget = renderBudget;
+	}
+
+	/**
+	 * Returns the parsed template from the shared template cache. Templates from
+	 * a directory are re-read if the file has been modified since it was parsed.
+	 * 
+	 * @return the parsed template
+	 * @throws IOException if the template cannot be read or parsed
+	 */
+	Template getTemplate() throws IOException {
+		ConfigurationCache configurations = renderProfile != null ? PROFILING_CONFIGURATIONS : CONFIGURATIONS;
+		Configuration configuration;
+		if (this.templateFile != null)
+			configuration = configurations.get(this.templateFile.getAbsoluteFile().getParentFile());
+		else
+			configuration = configurations.get(this.templateLoadingClass);
+		return configuration.getTemplate(templateName);
+	}
+
+	private Map<String, Object> getProfiledInputData() {
+		Map<String, Object> profiledInputData = new HashMap<>();
+		for (Map.Entry<String, Object> entry : inputData.entrySet()) {
+			Object value = entry.getValue();
+			if (value instanceof TemplateMethodModelEx)
+				value = new ProfiledMethod("method " + entry.getKey(), (TemplateMethodModelEx) value, renderProfile);
+			profiledInputData.put(entry.getKey(), value);
+		}
+		profiledInputData.put(ProfilingTemplateLoader.DIRECTIVE_NAME, new ProfilingTemplateLoader.ProfilingDirective(renderProfile));
+		return profiledInputData;
+	}
+
+	private static Configuration configureFreemarker(File templateDirectory, Class<?> templateLoadingClass) {
 		Configuration configuration = new Configuration(Configuration.VERSION_2_3_30);
-		if (this.templateFile != null) { // template from workspace is used (user selection)
-			configuration.setDirectoryForTemplateLoading(templateFile.getParentFile());
+		if (templateDirectory != null) { // template from workspace is used (user selection)
+			try {
+				configuration.setDirectoryForTemplateLoading(templateDirectory);
+			} catch (IOException e) {
+				throw new MDSLException("Cannot load templates from " + templateDirectory.getPath() + ": " + e.getMessage(), e);
+			}
+			// user may edit the template between two generator runs; check modification time on every access
+			configuration.setTemplateUpdateDelayMilliseconds(0);
 		} else { // template given by MDSL plugin is used (load via classloader)
 			configuration.setClassForTemplateLoading(templateLoadingClass, "");
+			// bundled templates do not change at runtime
+			configuration.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
 		}
 		configuration.setDefaultEncoding("UTF-8");
+		configuration.setObjectWrapper(new GeneratorModelObjectWrapper());
 		configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
 		return configuration;
 	}
 
+	/**
+	 * Configurations per template loader. The configurations of plugin classes
+	 * are attached to the class (and can be unloaded with it); the configurations
+	 * of the least recently used template directories are dropped.
+	 */
+	private static class ConfigurationCache {
+
+		private static final int MAX_DIRECTORIES = 16;
+
+		private boolean profiling;
+		private ClassValue<Configuration> classConfigurations;
+		private Map<File, Configuration> directoryConfigurations;
+
+		private ConfigurationCache(boolean profiling) {
+			this.profiling = profiling;
+			this.classConfigurations = new ClassValue<Configuration>() {
+				@Override
+				protected Configuration computeValue(Class<?> templateLoadingClass) {
+					return createConfiguration(null, templateLoadingClass);
+				}
+			};
+			this.directoryConfigurations = Collections.synchronizedMap(new LinkedHashMap<File, Configuration>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<File, Configuration> eldest) {
+					return size() > MAX_DIRECTORIES;
+				}
+			});
+		}
+
+		private Configuration get(Class<?> templateLoadingClass) {
+			return classConfigurations.get(templateLoadingClass);
+		}
+
+		private Configuration get(File templateDirectory) {
+			return directoryConfigurations.computeIfAbsent(templateDirectory, directory -> createConfiguration(directory, null));
+		}
+
+		private Configuration createConfiguration(File templateDirectory, Class<?> templateLoadingClass) {
+			Configuration configuration = configureFreemarker(templateDirectory, templateLoadingClass);
+			if (profiling)
+				configuration.setTemplateLoader(new ProfilingTemplateLoader(configuration.getTemplateLoader()));
+			return configuration;
+		}
+	}
+
+	private static class ProfiledMethod implements TemplateMethodModelEx {
+		private String element;
+		private TemplateMethodModelEx method;
+		private TemplateRenderProfile profile;
+
+		private ProfiledMethod(String element, TemplateMethodModelEx method, TemplateRenderProfile profile) {
+			this.element = element;
+			this.method = method;
+			this.profile = profile;
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public Object exec(List arguments) throws TemplateModelException {
+			profile.enter();
+			try {
+				return method.exec(arguments);
+			} finally {
+				profile.exit(element);
+			}
+		}
+	}
+
 }
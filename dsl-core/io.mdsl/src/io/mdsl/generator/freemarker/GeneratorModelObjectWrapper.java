@@ -0,0 +1,228 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import freemarker.ext.beans.StringModel;
+import freemarker.ext.util.WrapperTemplateModel;
+import freemarker.template.AdapterTemplateModel;
+import freemarker.template.Configuration;
+import freemarker.template.DefaultObjectWrapper;
+import freemarker.template.TemplateCollectionModel;
+import freemarker.template.TemplateHashModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelWithAPISupport;
+import freemarker.template.TemplateScalarModel;
+import io.mdsl.generator.model.DataType;
+import io.mdsl.generator.model.DataTypeField;
+import io.mdsl.generator.model.EndpointContract;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.Operation;
+import io.mdsl.generator.model.composition.Command;
+import io.mdsl.generator.model.composition.Event;
+import io.mdsl.generator.model.composition.Flow;
+
+/**
+ * Object wrapper for the Freemarker templates: the properties of the generator
+ * model classes that templates access most ("endpoint.name",
+ * "genModel.dataTypes", "field.type", ...) are read through precomputed
+ * accessors instead of reflection, by lightweight adapters that create the
+ * reflective bean model only if a template needs it (for method calls, for
+ * example).
+ *
+ * All other objects, properties and methods are wrapped exactly as by the
+ * {@link DefaultObjectWrapper}. Custom methods can unwrap the adapters through
+ * {@link WrapperTemplateModel}. In a time-limited render, lists and collections
+ * are decorated to check the {@link TemplateRenderBudget} on iteration.
+ */
+public class GeneratorModelObjectWrapper extends DefaultObjectWrapper {
+
+	private static final ClassValue<Map<String, Function<Object, Object>>> ACCESSORS = new ClassValue<Map<String, Function<Object, Object>>>() {
+		@Override
+		protected Map<String, Function<Object, Object>> computeValue(Class<?> type) {
+			Map<String, Function<Object, Object>> accessors = new HashMap<>();
+			// subclasses (composite commands and events, for example) inherit the accessors
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				Map<String, Function<Object, Object>> declared = declaredAccessors(c);
+				declared.forEach(accessors::putIfAbsent);
+			}
+			// a public method with the name of a property (Event.triggeredCommands(), for example) takes precedence
+			for (Method method : type.getMethods())
+				accessors.remove(method.getName());
+			return accessors;
+		}
+	};
+
+	public GeneratorModelObjectWrapper() {
+		super(Configuration.VERSION_2_3_30);
+	}
+
+	@Override
+	public TemplateModel wrap(Object obj) throws TemplateModelException {
+		// generator model objects are checked first; the default wrapper tests many other types before
+		if (obj != null) {
+			Map<String, Function<Object, Object>> accessors = ACCESSORS.get(obj.getClass());
+			if (!accessors.isEmpty())
+				return new GeneratorModelAdapter(obj, this, accessors);
+		}
+		// lists and collections check the render time on iteration if the render is time-limited
+		return TemplateRenderGuard.checkIterations(super.wrap(obj));
+	}
+
+	private static Map<String, Function<Object, Object>> declaredAccessors(Class<?> type) {
+		Map<String, Function<Object, Object>> accessors = new HashMap<>();
+		if (type == MDSLGeneratorModel.class) {
+			put(accessors, MDSLGeneratorModel.class, "apiName", MDSLGeneratorModel::getApiName);
+			put(accessors, MDSLGeneratorModel.class, "dataTypes", MDSLGeneratorModel::getDataTypes);
+			put(accessors, MDSLGeneratorModel.class, "numberOfDataTypes", MDSLGeneratorModel::getNumberOfDataTypes);
+			put(accessors, MDSLGeneratorModel.class, "endpoints", MDSLGeneratorModel::getEndpoints);
+			put(accessors, MDSLGeneratorModel.class, "providers", MDSLGeneratorModel::getProviders);
+			put(accessors, MDSLGeneratorModel.class, "clients", MDSLGeneratorModel::getClients);
+			put(accessors, MDSLGeneratorModel.class, "providerImplementations", MDSLGeneratorModel::getProviderImplementations);
+			put(accessors, MDSLGeneratorModel.class, "orchestrationFlows", MDSLGeneratorModel::getOrchestrationFlows);
+		} else if (type == DataType.class) {
+			put(accessors, DataType.class, "name", DataType::getName);
+			put(accessors, DataType.class, "fields", DataType::getFields);
+			put(accessors, DataType.class, "atomic", DataType::isAtomic);
+			put(accessors, DataType.class, "version", DataType::getVersion);
+			put(accessors, DataType.class, "defaultValue", DataType::getDefaultValue);
+		} else if (type == DataTypeField.class) {
+			put(accessors, DataTypeField.class, "name", DataTypeField::getName);
+			put(accessors, DataTypeField.class, "type", DataTypeField::getType);
+			put(accessors, DataTypeField.class, "typeAsString", DataTypeField::getTypeAsString);
+			put(accessors, DataTypeField.class, "list", DataTypeField::isList);
+			put(accessors, DataTypeField.class, "nullable", DataTypeField::isNullable);
+		} else if (type == EndpointContract.class) {
+			put(accessors, EndpointContract.class, "name", EndpointContract::getName);
+			put(accessors, EndpointContract.class, "operations", EndpointContract::getOperations);
+			put(accessors, EndpointContract.class, "states", EndpointContract::getStates);
+			put(accessors, EndpointContract.class, "transitions", EndpointContract::getTransitions);
+		} else if (type == Operation.class) {
+			put(accessors, Operation.class, "name", Operation::getName);
+			put(accessors, Operation.class, "request", Operation::getRequest);
+			put(accessors, Operation.class, "response", Operation::getResponse);
+			put(accessors, Operation.class, "parameters", Operation::getParameters);
+			put(accessors, Operation.class, "responsibility", Operation::getResponsibility);
+		} else if (type == Flow.class) {
+			put(accessors, Flow.class, "name", Flow::getName);
+			put(accessors, Flow.class, "commands", Flow::getCommands);
+			put(accessors, Flow.class, "events", Flow::getEvents);
+		} else if (type == Command.class) {
+			put(accessors, Command.class, "type", Command::getType);
+			put(accessors, Command.class, "name", Command::getName);
+			put(accessors, Command.class, "emittedEvents", Command::getEmittedEvents);
+			put(accessors, Command.class, "composite", Command::isComposite);
+			put(accessors, Command.class, "composedEvents", Command::getComposedEvents);
+		} else if (type == Event.class) {
+			put(accessors, Event.class, "type", Event::getType);
+			put(accessors, Event.class, "name", Event::getName);
+			put(accessors, Event.class, "join", Event::isJoin);
+			put(accessors, Event.class, "triggeredCommands", Event::getTriggeredCommands);
+			put(accessors, Event.class, "composite", Event::isComposite);
+			put(accessors, Event.class, "andComposedCommands", Event::getAndComposedCommands);
+			put(accessors, Event.class, "composedEvents", Event::getComposedEvents);
+		}
+		return accessors;
+	}
+
+	private static <T> void put(Map<String, Function<Object, Object>> accessors, Class<T> type, String property, Function<T, Object> getter) {
+		// the getters are invoked virtually, so overriding methods of subclasses are called
+		accessors.put(property, obj -> getter.apply(type.cast(obj)));
+	}
+
+	/**
+	 * Template model of a generator model object; reads the precomputed
+	 * properties directly and leaves everything else (methods, other properties,
+	 * ?api) to the bean model the default object wrapper would have created,
+	 * which is created on first use only.
+	 */
+	private static class GeneratorModelAdapter implements TemplateHashModelEx, TemplateScalarModel, AdapterTemplateModel, WrapperTemplateModel, TemplateModelWithAPISupport {
+
+		private Object object;
+		private GeneratorModelObjectWrapper wrapper;
+		private Map<String, Function<Object, Object>> accessors;
+		private volatile StringModel beanModel;
+
+		private GeneratorModelAdapter(Object object, GeneratorModelObjectWrapper wrapper, Map<String, Function<Object, Object>> accessors) {
+			this.object = object;
+			this.wrapper = wrapper;
+			this.accessors = accessors;
+		}
+
+		@Override
+		public TemplateModel get(String key) throws TemplateModelException {
+			Function<Object, Object> accessor = accessors.get(key);
+			if (accessor == null)
+				return getBeanModel().get(key);
+			return wrapper.wrap(accessor.apply(object));
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return getBeanModel().isEmpty();
+		}
+
+		@Override
+		public int size() {
+			return getBeanModel().size();
+		}
+
+		@Override
+		public TemplateCollectionModel keys() throws TemplateModelException {
+			return getBeanModel().keys();
+		}
+
+		@Override
+		public TemplateCollectionModel values() throws TemplateModelException {
+			return getBeanModel().values();
+		}
+
+		@Override
+		public String getAsString() {
+			return object.toString();
+		}
+
+		@Override
+		public Object getAdaptedObject(@SuppressWarnings("rawtypes") Class hint) {
+			return object;
+		}
+
+		@Override
+		public Object getWrappedObject() {
+			return object;
+		}
+
+		@Override
+		public TemplateModel getAPI() throws TemplateModelException {
+			return getBeanModel().getAPI();
+		}
+
+		private StringModel getBeanModel() {
+			StringModel model = beanModel;
+			if (model == null) {
+				model = new StringModel(object, wrapper);
+				beanModel = model;
+			}
+			return model;
+		}
+	}
+
+}
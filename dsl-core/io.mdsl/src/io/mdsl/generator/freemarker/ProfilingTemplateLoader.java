@@ -0,0 +1,255 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+import freemarker.cache.TemplateLoader;
+import freemarker.core.Environment;
+import freemarker.template.TemplateDirectiveBody;
+import freemarker.template.TemplateDirectiveModel;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateScalarModel;
+
+/**
+ * Template loader used for profiling: wraps every macro body and every #list
+ * loop of the loaded templates (including imported and included ones) into a
+ * call of the profiling directive, which measures the time spent inside. The
+ * elements are identified by template name and line. Comments and #noparse
+ * sections are left as they are.
+ *
+ * The templates are instrumented in their source text, because the parsed
+ * Freemarker template tree cannot be modified through the public API.
+ */
+class ProfilingTemplateLoader implements TemplateLoader {
+
+	static final String DIRECTIVE_NAME = "mdslProfile_";
+
+	private static final String LIST_START = "<#list";
+	private static final String LIST_END = "</#list>";
+	private static final String MACRO_START = "<#macro";
+	private static final String MACRO_END = "</#macro>";
+	private static final String COMMENT_START = "<#--";
+	private static final String COMMENT_END = "-->";
+	private static final String NOPARSE_START = "<#noparse";
+	private static final String NOPARSE_START_CAMEL_CASE = "<#noParse";
+	private static final String NOPARSE_END = "</#noparse>";
+	private static final String NOPARSE_END_CAMEL_CASE = "</#noParse>";
+	private static final String DIRECTIVE_END = "</@" + DIRECTIVE_NAME + ">";
+
+	private TemplateLoader delegate;
+
+	ProfilingTemplateLoader(TemplateLoader delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Object findTemplateSource(String name) throws IOException {
+		Object source = delegate.findTemplateSource(name);
+		return source != null ? new NamedSource(name, source) : null;
+	}
+
+	@Override
+	public long getLastModified(Object templateSource) {
+		return delegate.getLastModified(((NamedSource) templateSource).source);
+	}
+
+	@Override
+	public Reader getReader(Object templateSource, String encoding) throws IOException {
+		NamedSource namedSource = (NamedSource) templateSource;
+		StringWriter content = new StringWriter();
+		try (Reader reader = delegate.getReader(namedSource.source, encoding)) {
+			char[] buffer = new char[8192];
+			for (int read = reader.read(buffer); read >= 0; read = reader.read(buffer))
+				content.write(buffer, 0, read);
+		}
+		return new StringReader(instrument(namedSource.name, content.toString()));
+	}
+
+	@Override
+	public void closeTemplateSource(Object templateSource) throws IOException {
+		delegate.closeTemplateSource(((NamedSource) templateSource).source);
+	}
+
+	/**
+	 * Adds the profiling directive calls to a template (angle bracket syntax).
+	 */
+	static String instrument(String templateName, String source) {
+		StringBuilder result = new StringBuilder(source.length() + 1024);
+		Deque<Boolean> openLists = new ArrayDeque<>();
+		boolean inMacro = false;
+		int line = 1;
+		int i = 0;
+		while (i < source.length()) {
+			if (source.startsWith(COMMENT_START, i)) {
+				int end = source.indexOf(COMMENT_END, i);
+				end = end < 0 ? source.length() : end + COMMENT_END.length();
+				line += countLines(source, i, end);
+				result.append(source, i, end);
+				i = end;
+			} else if (isTagStart(source, i, NOPARSE_START) || isTagStart(source, i, NOPARSE_START_CAMEL_CASE)) {
+				int end = findNoparseEnd(source, i);
+				line += countLines(source, i, end);
+				result.append(source, i, end);
+				i = end;
+			} else if (isTagStart(source, i, LIST_START)) {
+				int end = findTagEnd(source, i);
+				String expression = source.substring(i + LIST_START.length(), end - 1).trim();
+				result.append(openDirective(templateName + ":" + line + " #list " + expression));
+				result.append(source, i, end);
+				openLists.push(Boolean.TRUE);
+				line += countLines(source, i, end);
+				i = end;
+			} else if (source.startsWith(LIST_END, i) && !openLists.isEmpty()) {
+				result.append(LIST_END).append(DIRECTIVE_END);
+				openLists.pop();
+				i += LIST_END.length();
+			} else if (isTagStart(source, i, MACRO_START) && !inMacro) {
+				int end = findTagEnd(source, i);
+				String macroName = source.substring(i + MACRO_START.length(), end - 1).trim().split("[\\s(/]", 2)[0];
+				result.append(source, i, end);
+				result.append(openDirective(templateName + ":" + line + " macro " + macroName));
+				inMacro = true;
+				line += countLines(source, i, end);
+				i = end;
+			} else if (source.startsWith(MACRO_END, i) && inMacro) {
+				result.append(DIRECTIVE_END).append(MACRO_END);
+				inMacro = false;
+				i += MACRO_END.length();
+			} else {
+				char c = source.charAt(i);
+				if (c == '\n')
+					line++;
+				result.append(c);
+				i++;
+			}
+		}
+		return result.toString();
+	}
+
+	private static String openDirective(String element) {
+		// raw string literal: no escapes and no interpolations
+		return "<@" + DIRECTIVE_NAME + " id=r\"" + element.replace('"', '\'').replaceAll("\\s+", " ") + "\">";
+	}
+
+	private static boolean isTagStart(String source, int index, String tagStart) {
+		int next = index + tagStart.length();
+		return source.startsWith(tagStart, index) && next < source.length()
+				&& (Character.isWhitespace(source.charAt(next)) || source.charAt(next) == '>');
+	}
+
+	/**
+	 * Finds the end of an FTL tag; '>' only ends the tag outside of parentheses
+	 * and string literals (for example, in lambda expressions).
+	 */
+	private static int findTagEnd(String source, int start) {
+		int depth = 0;
+		char quote = 0;
+		for (int i = start; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (quote != 0) {
+				if (c == '\\')
+					i++;
+				else if (c == quote)
+					quote = 0;
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '(' || c == '[') {
+				depth++;
+			} else if (c == ')' || c == ']') {
+				depth--;
+			} else if (c == '>' && depth <= 0) {
+				return i + 1;
+			}
+		}
+		return source.length();
+	}
+
+	private static int findNoparseEnd(String source, int start) {
+		int end = source.indexOf(NOPARSE_END, start);
+		int camelCaseEnd = source.indexOf(NOPARSE_END_CAMEL_CASE, start);
+		if (end < 0 || (camelCaseEnd >= 0 && camelCaseEnd < end))
+			end = camelCaseEnd;
+		return end < 0 ? source.length() : end + NOPARSE_END.length();
+	}
+
+	private static int countLines(String source, int start, int end) {
+		int lines = 0;
+		for (int i = start; i < end; i++) {
+			if (source.charAt(i) == '\n')
+				lines++;
+		}
+		return lines;
+	}
+
+	private static class NamedSource {
+		private final String name;
+		private final Object source;
+
+		private NamedSource(String name, Object source) {
+			this.name = name;
+			this.source = source;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof NamedSource && ((NamedSource) obj).source.equals(source);
+		}
+
+		@Override
+		public int hashCode() {
+			return source.hashCode();
+		}
+	}
+
+	/**
+	 * The directive the instrumented templates call; measures the time spent in
+	 * its nested content.
+	 */
+	static class ProfilingDirective implements TemplateDirectiveModel {
+
+		private TemplateRenderProfile profile;
+
+		ProfilingDirective(TemplateRenderProfile profile) {
+			this.profile = profile;
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public void execute(Environment env, Map params, TemplateModel[] loopVars, TemplateDirectiveBody body)
+				throws TemplateException, IOException {
+			Object id = params.get("id");
+			if (!(id instanceof TemplateScalarModel))
+				throw new TemplateModelException("The profiling directive requires an id.");
+			String element = ((TemplateScalarModel) id).getAsString();
+			profile.enter();
+			try {
+				if (body != null)
+					body.render(env.getOut());
+			} finally {
+				profile.exit(element);
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import io.mdsl.exception.MDSLException;
+
+/**
+ * Limits the wall-clock time and the output size of a single template render
+ * (see {@link FreemarkerEngineWrapper#setRenderBudget(TemplateRenderBudget)}).
+ * A render that exceeds a limit is aborted with a
+ * {@link io.mdsl.exception.TemplateRenderBudgetExceededException} that reports
+ * the template location.
+ */
+public class TemplateRenderBudget {
+
+	public static final long UNLIMITED = 0;
+
+	private long maxRenderMillis;
+	private long maxOutputBytes;
+
+	/**
+	 * Creates a render budget.
+	 * 
+	 * @param maxRenderMillis the maximum wall-clock time of one render in
+	 *                        milliseconds, or {@link #UNLIMITED}
+	 * @param maxOutputBytes  the maximum size of the output of one render in bytes
+	 *                        (UTF-8), or {@link #UNLIMITED}
+	 */
+	public TemplateRenderBudget(long maxRenderMillis, long maxOutputBytes) {
+		if (maxRenderMillis < 0 || maxOutputBytes < 0)
+			throw new MDSLException("Render budget limits must not be negative.");
+		this.maxRenderMillis = maxRenderMillis;
+		this.maxOutputBytes = maxOutputBytes;
+	}
+
+	public long getMaxRenderMillis() {
+		return maxRenderMillis;
+	}
+
+	public long getMaxOutputBytes() {
+		return maxOutputBytes;
+	}
+
+}
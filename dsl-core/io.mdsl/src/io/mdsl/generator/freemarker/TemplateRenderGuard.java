@@ -0,0 +1,343 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import freemarker.core.ArithmeticEngine;
+import freemarker.core.Environment;
+import freemarker.ext.util.WrapperTemplateModel;
+import freemarker.template.AdapterTemplateModel;
+import freemarker.template.Template;
+import freemarker.template.TemplateCollectionModel;
+import freemarker.template.TemplateCollectionModelEx;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelIterator;
+import freemarker.template.TemplateModelWithAPISupport;
+import freemarker.template.TemplateSequenceModel;
+import io.mdsl.exception.TemplateRenderBudgetExceededException;
+
+/**
+ * Enforces a {@link TemplateRenderBudget} for one render. The budget is checked
+ * cooperatively on the rendering thread: the output size and the render time
+ * whenever the template writes output, and the render time also whenever the
+ * template computes (arithmetic and numeric comparisons) and whenever it
+ * accesses an element of a list or collection wrapped by the
+ * {@link GeneratorModelObjectWrapper} (every iteration of a #list, for example).
+ */
+class TemplateRenderGuard {
+
+	private static final ThreadLocal<TemplateRenderGuard> TIME_LIMITED_RENDER = new ThreadLocal<>();
+
+	private TemplateRenderBudget budget;
+	private String templateName;
+	private Environment environment;
+	private long deadline;
+	private long outputBytes;
+	private TemplateRenderBudgetExceededException exceeded;
+
+	TemplateRenderGuard(TemplateRenderBudget budget, String templateName) {
+		this.budget = budget;
+		this.templateName = templateName;
+	}
+
+	/**
+	 * Renders the template within the budget.
+	 *
+	 * @throws TemplateRenderBudgetExceededException if the budget is exceeded
+	 */
+	void process(Template template, Object dataModel, Writer writer) throws TemplateException, IOException {
+		this.environment = template.createProcessingEnvironment(dataModel, new LimitingWriter(writer));
+		if (isTimeLimited()) {
+			this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget.getMaxRenderMillis());
+			// set for this render only; the shared configuration and template are not changed
+			environment.setArithmeticEngine(new TimeCheckingArithmeticEngine(environment.getArithmeticEngine()));
+		}
+		TemplateRenderGuard enclosingRender = TIME_LIMITED_RENDER.get();
+		if (isTimeLimited())
+			TIME_LIMITED_RENDER.set(this);
+		try {
+			environment.process();
+		} catch (TemplateException | IOException | RuntimeException e) {
+			// Freemarker reports the abort in its own way
+			if (exceeded != null)
+				throw exceeded;
+			throw e;
+		} finally {
+			if (enclosingRender == null)
+				TIME_LIMITED_RENDER.remove();
+			else
+				TIME_LIMITED_RENDER.set(enclosingRender);
+		}
+	}
+
+	/**
+	 * Makes the iteration of a wrapped list or collection check the render time
+	 * if the current thread renders a time-limited template; returns all other
+	 * models as they are.
+	 */
+	static TemplateModel checkIterations(TemplateModel model) {
+		if (TIME_LIMITED_RENDER.get() == null)
+			return model;
+		if (model instanceof TemplateSequenceModel && model instanceof AdapterTemplateModel && model instanceof WrapperTemplateModel
+				&& model instanceof TemplateModelWithAPISupport && !(model instanceof TemplateCollectionModel))
+			return new TimeCheckingSequence((TemplateSequenceModel) model);
+		if (model instanceof TemplateCollectionModelEx && model instanceof AdapterTemplateModel && model instanceof WrapperTemplateModel
+				&& model instanceof TemplateModelWithAPISupport && !(model instanceof TemplateSequenceModel))
+			return new TimeCheckingCollection((TemplateCollectionModelEx) model);
+		return model;
+	}
+
+	private static void checkTimeOfCurrentRender() throws TemplateModelException {
+		// the model may outlive the render that wrapped it; the render on this thread is checked
+		TemplateRenderGuard guard = TIME_LIMITED_RENDER.get();
+		if (guard != null && guard.isOutOfTime())
+			throw new TemplateModelException(guard.exceeded.getMessage());
+	}
+
+	private boolean isTimeLimited() {
+		return budget.getMaxRenderMillis() != TemplateRenderBudget.UNLIMITED;
+	}
+
+	private boolean isOutOfTime() {
+		if (exceeded == null && isTimeLimited() && System.nanoTime() - deadline > 0)
+			exceeded = new TemplateRenderBudgetExceededException(templateName, "the render time limit of " + budget.getMaxRenderMillis() + " ms",
+					getTemplateLocation());
+		return exceeded != null;
+	}
+
+	private void checkTime() throws TemplateException {
+		if (isOutOfTime())
+			throw new TemplateException(exceeded.getMessage(), environment);
+	}
+
+	private String getTemplateLocation() {
+		StringWriter location = new StringWriter();
+		try {
+			environment.outputInstructionStack(new PrintWriter(location));
+		} catch (RuntimeException e) {
+			return "";
+		}
+		return location.toString().trim();
+	}
+
+	/**
+	 * Checks the render time before every computation of the template.
+	 */
+	private class TimeCheckingArithmeticEngine extends ArithmeticEngine {
+
+		private ArithmeticEngine engine;
+
+		private TimeCheckingArithmeticEngine(ArithmeticEngine engine) {
+			this.engine = engine;
+		}
+
+		@Override
+		public int compareNumbers(Number first, Number second) throws TemplateException {
+			checkTime();
+			return engine.compareNumbers(first, second);
+		}
+
+		@Override
+		public Number add(Number first, Number second) throws TemplateException {
+			checkTime();
+			return engine.add(first, second);
+		}
+
+		@Override
+		public Number subtract(Number first, Number second) throws TemplateException {
+			checkTime();
+			return engine.subtract(first, second);
+		}
+
+		@Override
+		public Number multiply(Number first, Number second) throws TemplateException {
+			checkTime();
+			return engine.multiply(first, second);
+		}
+
+		@Override
+		public Number divide(Number first, Number second) throws TemplateException {
+			checkTime();
+			return engine.divide(first, second);
+		}
+
+		@Override
+		public Number modulus(Number first, Number second) throws TemplateException {
+			checkTime();
+			return engine.modulus(first, second);
+		}
+
+		@Override
+		public Number toNumber(String s) {
+			return engine.toNumber(s);
+		}
+	}
+
+	/**
+	 * Checks the render time before every element access of a wrapped list.
+	 */
+	private static class TimeCheckingSequence implements TemplateSequenceModel, AdapterTemplateModel, WrapperTemplateModel, TemplateModelWithAPISupport {
+
+		private TemplateSequenceModel sequence;
+
+		private TimeCheckingSequence(TemplateSequenceModel sequence) {
+			this.sequence = sequence;
+		}
+
+		@Override
+		public TemplateModel get(int index) throws TemplateModelException {
+			checkTimeOfCurrentRender();
+			return sequence.get(index);
+		}
+
+		@Override
+		public int size() throws TemplateModelException {
+			return sequence.size();
+		}
+
+		@Override
+		public Object getAdaptedObject(@SuppressWarnings("rawtypes") Class hint) {
+			return ((AdapterTemplateModel) sequence).getAdaptedObject(hint);
+		}
+
+		@Override
+		public Object getWrappedObject() {
+			return ((WrapperTemplateModel) sequence).getWrappedObject();
+		}
+
+		@Override
+		public TemplateModel getAPI() throws TemplateModelException {
+			return ((TemplateModelWithAPISupport) sequence).getAPI();
+		}
+	}
+
+	/**
+	 * Checks the render time before every step of an iteration over a wrapped
+	 * collection.
+	 */
+	private static class TimeCheckingCollection implements TemplateCollectionModelEx, AdapterTemplateModel, WrapperTemplateModel, TemplateModelWithAPISupport {
+
+		private TemplateCollectionModelEx collection;
+
+		private TimeCheckingCollection(TemplateCollectionModelEx collection) {
+			this.collection = collection;
+		}
+
+		@Override
+		public TemplateModelIterator iterator() throws TemplateModelException {
+			TemplateModelIterator iterator = collection.iterator();
+			return new TemplateModelIterator() {
+				@Override
+				public TemplateModel next() throws TemplateModelException {
+					checkTimeOfCurrentRender();
+					return iterator.next();
+				}
+
+				@Override
+				public boolean hasNext() throws TemplateModelException {
+					return iterator.hasNext();
+				}
+			};
+		}
+
+		@Override
+		public int size() throws TemplateModelException {
+			return collection.size();
+		}
+
+		@Override
+		public boolean isEmpty() throws TemplateModelException {
+			return collection.isEmpty();
+		}
+
+		@Override
+		public Object getAdaptedObject(@SuppressWarnings("rawtypes") Class hint) {
+			return ((AdapterTemplateModel) collection).getAdaptedObject(hint);
+		}
+
+		@Override
+		public Object getWrappedObject() {
+			return ((WrapperTemplateModel) collection).getWrappedObject();
+		}
+
+		@Override
+		public TemplateModel getAPI() throws TemplateModelException {
+			return ((TemplateModelWithAPISupport) collection).getAPI();
+		}
+	}
+
+	/**
+	 * Counts the UTF-8 bytes written by the template.
+	 */
+	private class LimitingWriter extends FilterWriter {
+
+		private LimitingWriter(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			count(utf8Length((char) c));
+			out.write(c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			long bytes = 0;
+			for (int i = off; i < off + len; i++)
+				bytes += utf8Length(cbuf[i]);
+			count(bytes);
+			out.write(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			long bytes = 0;
+			for (int i = off; i < off + len; i++)
+				bytes += utf8Length(str.charAt(i));
+			count(bytes);
+			out.write(str, off, len);
+		}
+
+		private void count(long bytes) throws IOException {
+			if (isOutOfTime())
+				throw new IOException(exceeded.getMessage(), exceeded);
+			outputBytes += bytes;
+			if (budget.getMaxOutputBytes() != TemplateRenderBudget.UNLIMITED && outputBytes > budget.getMaxOutputBytes()) {
+				exceeded = new TemplateRenderBudgetExceededException(templateName, "the output limit of " + budget.getMaxOutputBytes() + " bytes",
+						getTemplateLocation());
+				throw new IOException(exceeded.getMessage(), exceeded);
+			}
+		}
+
+		private int utf8Length(char c) {
+			if (c < 0x80)
+				return 1;
+			if (c < 0x800 || Character.isSurrogate(c)) // a surrogate pair is encoded in four bytes
+				return 2;
+			return 3;
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.freemarker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the wall time and the number of invocations of macros, #list loops
+ * and custom methods while Freemarker templates are rendered (see
+ * {@link FreemarkerEngineWrapper#setRenderProfile(TemplateRenderProfile)}).
+ *
+ * The total time of an element includes the time of the elements it invokes;
+ * the self time does not. One profile can be shared by several wrappers and
+ * threads.
+ */
+public class TemplateRenderProfile {
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+	void enter() {
+		frames.get().push(new Frame(System.nanoTime()));
+	}
+
+	void exit(String element) {
+		Deque<Frame> stack = frames.get();
+		Frame frame = stack.pop();
+		long totalNanos = System.nanoTime() - frame.start;
+		if (!stack.isEmpty())
+			stack.peek().childNanos += totalNanos;
+		entries.computeIfAbsent(element, Entry::new).record(totalNanos, totalNanos - frame.childNanos);
+	}
+
+	/**
+	 * @return the profiled elements, sorted by self time (descending)
+	 */
+	public List<Entry> getEntries() {
+		List<Entry> result = new ArrayList<>(entries.values());
+		result.sort(Comparator.comparingLong(Entry::getSelfNanos).reversed().thenComparing(Entry::getElement));
+		return result;
+	}
+
+	/**
+	 * @return a report listing all profiled elements, sorted by self time
+	 */
+	public String getReport() {
+		StringBuilder report = new StringBuilder();
+		report.append("Freemarker render profile (milliseconds, sorted by self time):").append(System.lineSeparator());
+		report.append(String.format("%12s %12s %10s  %s", "total", "self", "calls", "element")).append(System.lineSeparator());
+		for (Entry entry : getEntries()) {
+			report.append(String.format("%12.3f %12.3f %10d  %s", entry.getTotalNanos() / 1e6, entry.getSelfNanos() / 1e6,
+					entry.getCalls(), entry.getElement())).append(System.lineSeparator());
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Removes all measurements.
+	 */
+	public void reset() {
+		entries.clear();
+	}
+
+	/**
+	 * Measurements of one macro, loop or method.
+	 */
+	public static class Entry {
+		private final String element;
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder selfNanos = new LongAdder();
+
+		private Entry(String element) {
+			this.element = element;
+		}
+
+		private void record(long total, long self) {
+			calls.increment();
+			totalNanos.add(total);
+			selfNanos.add(self);
+		}
+
+		/**
+		 * @return "macro &lt;name&gt;", "method &lt;name&gt;" or "&lt;template&gt;:&lt;line&gt; #list
+		 *         &lt;expression&gt;"
+		 */
+		public String getElement() {
+			return element;
+		}
+
+		public long getCalls() {
+			return calls.sum();
+		}
+
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+
+		public long getSelfNanos() {
+			return selfNanos.sum();
+		}
+	}
+
+	private static class Frame {
+		private final long start;
+		private long childNanos;
+
+		private Frame(long start) {
+			this.start = start;
+		}
+	}
+}
@@ -17,7 +17,7 @@ package io.mdsl.generator.java;
 
 import java.util.List;
 
-import freemarker.ext.beans.StringModel;
+import freemarker.ext.util.WrapperTemplateModel;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 import io.mdsl.generator.model.EndpointContract;
@@ -30,13 +30,13 @@ public class JavaOperationNameResolver implements TemplateMethodModelEx {
 	public Object exec(List arguments) throws TemplateModelException {
 		if (arguments.size() != 2)
 			throw new TemplateModelException("Wrong amount of arguments for method 'resolveOperationName'.");
-		if (!(((StringModel) arguments.get(0)).getWrappedObject() instanceof EndpointContract))
+		if (!(((WrapperTemplateModel) arguments.get(0)).getWrappedObject() instanceof EndpointContract))
 			throw new TemplateModelException("The first parameter must be the EndpointContract (generator model) object.");
-		if (!(((StringModel) arguments.get(1)).getWrappedObject() instanceof Operation))
+		if (!(((WrapperTemplateModel) arguments.get(1)).getWrappedObject() instanceof Operation))
 			throw new TemplateModelException("The first parameter must be the Operation (generator model) object.");
 
-		EndpointContract endpoint = (EndpointContract) ((StringModel) arguments.get(0)).getWrappedObject();
-		Operation operation = (Operation) ((StringModel) arguments.get(1)).getWrappedObject();
+		EndpointContract endpoint = (EndpointContract) ((WrapperTemplateModel) arguments.get(0)).getWrappedObject();
+		Operation operation = (Operation) ((WrapperTemplateModel) arguments.get(1)).getWrappedObject();
 
 		return endpoint.getProtocolBinding() != null && endpoint.getProtocolBinding() instanceof JavaBinding
 				? ((JavaBinding) endpoint.getProtocolBinding()).getJavaMethodName4Operation(operation.getName())
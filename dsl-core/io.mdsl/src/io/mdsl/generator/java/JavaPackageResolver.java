@@ -17,7 +17,7 @@ package io.mdsl.generator.java;
 
 import java.util.List;
 
-import freemarker.ext.beans.StringModel;
+import freemarker.ext.util.WrapperTemplateModel;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 import io.mdsl.generator.model.EndpointContract;
@@ -30,12 +30,12 @@ public class JavaPackageResolver implements TemplateMethodModelEx {
 	public Object exec(List arguments) throws TemplateModelException {
 		if (arguments.size() != 2)
 			throw new TemplateModelException("Wrong amount of arguments for method 'resolvePackageName'.");
-		if (!(((StringModel) arguments.get(0)).getWrappedObject() instanceof MDSLGeneratorModel))
+		if (!(((WrapperTemplateModel) arguments.get(0)).getWrappedObject() instanceof MDSLGeneratorModel))
 			throw new TemplateModelException("The first parameter must be the MDSLGeneratorModel (generator model) object.");
-		if (!(((StringModel) arguments.get(1)).getWrappedObject() instanceof EndpointContract))
+		if (!(((WrapperTemplateModel) arguments.get(1)).getWrappedObject() instanceof EndpointContract))
 			throw new TemplateModelException("The first parameter must be the EndpointContract (generator model) object.");
 
-		return getJavaPackage((MDSLGeneratorModel) ((StringModel) arguments.get(0)).getWrappedObject(), (EndpointContract) ((StringModel) arguments.get(1)).getWrappedObject());
+		return getJavaPackage((MDSLGeneratorModel) ((WrapperTemplateModel) arguments.get(0)).getWrappedObject(), (EndpointContract) ((WrapperTemplateModel) arguments.get(1)).getWrappedObject());
 	}
 
 	/**
@@ -132,7 +132,7 @@ public class MDSL2JolieConverter {
 		if (treeNode.getPn() != null && treeNode.getPn().getGenP() != null) {
 			// add unspecified message/type/parameter (see protogen)
 			if (treeNode.getPn().getGenP().getName() != null && !"".equals(treeNode.getPn().getGenP().getName()))
-				result.append(new AnonymousFieldNameGenerator().getUniqueName(treeNode.getPn().getGenP().getName()) + ": void ");
+				result.append(fieldNameGenerator.getUniqueName(treeNode.getPn().getGenP().getName()) + ": void ");
 			else
 				result.append("unspecifiedType: void ");
 		} else if (treeNode.getPn() != null) {
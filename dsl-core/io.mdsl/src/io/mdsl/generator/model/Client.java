@@ -34,8 +34,8 @@ public class Client {
 	 * @param name the name of the new client
 	 */
 	public Client(String name) {
-		this.name = name;
-		this.consumedEndpoints = Lists.newLinkedList();
+		this.name = Names.intern(name);
+		this.consumedEndpoints = Lists.newArrayList();
 	}
 
 	/**
@@ -53,7 +53,7 @@ public class Client {
 	 * @return a list with all endpoints consumed by the client
 	 */
 	public List<EndpointContract> getConsumedEndpoints() {
-		return Lists.newLinkedList(consumedEndpoints);
+		return Lists.newArrayList(consumedEndpoints);
 	}
 
 	/**
@@ -15,6 +15,7 @@
  */
 package io.mdsl.generator.model;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -27,7 +28,7 @@ import com.google.common.collect.Lists;
 public class DataType implements MDSLType {
 
 	private String name;
-	private List<DataTypeField> fields;
+	private ArrayList<DataTypeField> fields;
 	// TODO v55 role (basic types) and element stereotype (all types)
 
 	private String version = "N/A";
@@ -39,8 +40,8 @@ public class DataType implements MDSLType {
 	 * @param name the name of the new data type
 	 */
 	public DataType(String name) {
-		this.name = name;
-		this.fields = Lists.newLinkedList();
+		this.name = Names.intern(name);
+		this.fields = Lists.newArrayList();
 	}
 
 	/**
@@ -67,7 +68,28 @@ public class DataType implements MDSLType {
 	 * @return a list with all fields of the represented data type
 	 */
 	public List<DataTypeField> getFields() {
-		return Lists.newLinkedList(fields);
+		return Lists.newArrayList(fields);
+	}
+
+	/**
+	 * Replaces the content (fields, version and default value) of this data type
+	 * with the content of another data type, so that all references to this data
+	 * type see the new content.
+	 * 
+	 * @param other the data type to take the content from
+	 */
+	public void updateFrom(DataType other) {
+		this.fields = Lists.newArrayList(other.fields);
+		this.version = other.version;
+		this.defaultValue = other.defaultValue;
+	}
+
+	/**
+	 * Releases the unused capacity of the lists held by this data type. Can be called
+	 * once the data type is complete; adding elements later is still possible.
+	 */
+	public void trimToSize() {
+		this.fields.trimToSize();
 	}
 
 	@Override
@@ -15,19 +15,25 @@
  */
 package io.mdsl.generator.model;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import io.mdsl.exception.MDSLException;
 
 /**
  * Represents a field/attribute of an MDSL data type.
  *
  */
+// the list and nullable indicators are not backed by fields of their own; keep them at their place in exports
+@JsonPropertyOrder({ "name", "type", "list", "nullable", "typeAsString" })
 public class DataTypeField {
 
 	private static final String ANONYMOUS_KEY = "akey";
 	private String name;
 	private MDSLType type;
-	private boolean list = false;
-	private boolean nullable = false;
+	// list and nullable indicators, packed into one byte
+	private static final byte LIST = 1;
+	private static final byte NULLABLE = 2;
+	private byte flags = 0;
 	
 	private String defaultValue;
 
@@ -37,7 +43,7 @@ public class DataTypeField {
 	 * @param name the name of the data type field
 	 */
 	public DataTypeField(String name) {
-		this.name = name;
+		this.name = Names.intern(name);
 	}
 
 	/**
@@ -73,7 +79,7 @@ public class DataTypeField {
 	 * @return true, if the field is a list, false otherwise
 	 */
 	public boolean isList() {
-		return list;
+		return (flags & LIST) != 0;
 	}
 
 	/**
@@ -83,7 +89,7 @@ public class DataTypeField {
 	 * @return true, if the field can be null, false otherwise
 	 */
 	public boolean isNullable() {
-		return nullable;
+		return (flags & NULLABLE) != 0;
 	}
 
 	/**
@@ -101,7 +107,7 @@ public class DataTypeField {
 	 * @param list true, if the field shall be a list, false otherwise
 	 */
 	public void isList(boolean list) {
-		this.list = list;
+		setFlag(LIST, list);
 	}
 
 	/**
@@ -110,7 +116,14 @@ public class DataTypeField {
 	 * @param nullable true, if the field shall be nullable, false otherwise
 	 */
 	public void isNullable(boolean nullable) {
-		this.nullable = nullable;
+		setFlag(NULLABLE, nullable);
+	}
+
+	private void setFlag(byte flag, boolean value) {
+		if (value)
+			flags |= flag;
+		else
+			flags &= ~flag;
 	}
 
 	public void setDefaultValue(String defaultValue) {
@@ -136,21 +149,21 @@ public class DataTypeField {
 		switch (levelOfDetail) {
 		case 0 : 
 			// how about nullable lists? 
-			if(list) {
+			if(isList()) {
 				return ", \"" + name + "\": []";
 			}
-			if(nullable) {
+			if(isNullable()) {
 				return ", \"" + name + "\": {}";
 			}
 		case 1:
-			if(list) {
+			if(isList()) {
 				return ", \"" + name + "\": ["+ sampleValue +"]";
 			}
 			else {
 				return ", \"" + name + "\":" + sampleValue;
 			}
 		case 2:
-			if(list) {
+			if(isList()) {
 				return ", \"" + name + "\": ["+ sampleValue  
 					+ ", "+ sampleValue + " ]";
 			}
@@ -15,6 +15,7 @@
  */
 package io.mdsl.generator.model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.google.common.collect.Lists;
@@ -25,13 +26,16 @@ import com.google.common.collect.Lists;
  */
 public class EndpointContract {
 
+	// the binding holds no state, so that all endpoints without binding can share one instance
+	private static final ProtocolBinding UNDEFINED_PROTOCOL = new UndefinedProtocol();
+
 	private String name;
-	private List<Operation> operations;
+	private ArrayList<Operation> operations;
 	private ProtocolBinding protocolBinding; // TODO change to array list
 	
 	// could group these two into one class:
-	private List<String> states;	
-	private List<StateTransition> transitions;
+	private ArrayList<String> states;
+	private ArrayList<StateTransition> transitions;
 
 	/**
 	 * Creates a new endpoint contract.
@@ -39,11 +43,11 @@ public class EndpointContract {
 	 * @param name the name of the endpoint
 	 */
 	public EndpointContract(String name) {
-		this.name = name;
-		this.operations = Lists.newLinkedList();
-		this.protocolBinding = new UndefinedProtocol(); 
-		this.states = Lists.newLinkedList();
-		this.transitions = Lists.newLinkedList();
+		this.name = Names.intern(name);
+		this.operations = Lists.newArrayList();
+		this.protocolBinding = UNDEFINED_PROTOCOL;
+		this.states = Lists.newArrayList();
+		this.transitions = Lists.newArrayList();
 	}
 
 	/**
@@ -61,7 +65,7 @@ public class EndpointContract {
 	 * @return a list of operations in the given endpoint
 	 */
 	public List<Operation> getOperations() {
-		return Lists.newLinkedList(operations);
+		return Lists.newArrayList(operations);
 	}
 
 	/**
@@ -99,7 +103,7 @@ public class EndpointContract {
 	 * @return a list of states in the given endpoint
 	 */
 	public List<String> getStates() {
-		return Lists.newLinkedList(states);
+		return Lists.newArrayList(states);
 	}
 
 	/**
@@ -108,7 +112,7 @@ public class EndpointContract {
 	 * @param state the state that shall be added to the endpoint
 	 */
 	public void addState(String state) {
-		this.states.add(state);
+		this.states.add(Names.intern(state));
 	}
 
 	/**
@@ -117,7 +121,7 @@ public class EndpointContract {
 	 * @return a list of transitions in the given endpoint
 	 */
 	public List<StateTransition> getTransitions() {
-		return Lists.newLinkedList(transitions);
+		return Lists.newArrayList(transitions);
 	}
 
 	/**
@@ -129,4 +133,30 @@ public class EndpointContract {
 		this.transitions.add(transition);
 	}
 
+	/**
+	 * Replaces the content (operations, binding, states and transitions) of this
+	 * endpoint with the content of another endpoint, so that providers and clients
+	 * referencing this endpoint see the new content.
+	 * 
+	 * @param other the endpoint to take the content from
+	 */
+	public void updateFrom(EndpointContract other) {
+		this.operations = Lists.newArrayList(other.operations);
+		this.protocolBinding = other.protocolBinding;
+		this.states = Lists.newArrayList(other.states);
+		this.transitions = Lists.newArrayList(other.transitions);
+	}
+
+	/**
+	 * Releases the unused capacity of the lists held by this endpoint and its
+	 * operations. Can be called once the endpoint is complete; adding elements
+	 * later is still possible.
+	 */
+	public void trimToSize() {
+		this.operations.trimToSize();
+		this.states.trimToSize();
+		this.transitions.trimToSize();
+		this.operations.forEach(Operation::trimToSize);
+	}
+
 }
@@ -18,9 +18,16 @@ package io.mdsl.generator.model;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.collect.Lists;
 
+import io.mdsl.exception.MDSLException;
+import io.mdsl.generator.SymbolTable;
 import io.mdsl.generator.model.carving.ClusterCollection;
 import io.mdsl.generator.model.composition.Flow;
 
@@ -28,17 +35,33 @@ import io.mdsl.generator.model.composition.Flow;
  * The root class of the MDSL generator model. This model shall ease the
  * implementation of generators as the AST model generated by Xtext is quite
  * extensive and at some points not easy to process.
+ * 
+ * The top-level sections of the model can be filled on demand: a converter may
+ * register a loader per {@link Section} that runs (once) when the section is
+ * accessed for the first time. Loading is thread-safe: threads that access a
+ * section while it is being loaded wait for its loader (only), and a loader
+ * that fails fails every access of its sections. Work that a loader hands to
+ * other threads must not access the sections of this loader.
  */
 public class MDSLGeneratorModel {
 
+	/**
+	 * The top-level sections of the generator model that can be loaded on demand.
+	 */
+	public enum Section {
+		DATA_TYPES, ENDPOINTS, PROVIDERS, CLIENTS, PROVIDER_IMPLEMENTATIONS, ORCHESTRATION_FLOWS
+	}
+
 	private String apiName;
-	private List<DataType> dataTypes;
-	private List<EndpointContract> endpoints;
-	private List<Provider> providers;
-	private List<Client> clients;
-	private List<ProviderImplementation> providerImplementations;
-	private LinkedList<Flow> orchestrationFlows;
+	private ArrayList<DataType> dataTypes;
+	private ArrayList<EndpointContract> endpoints;
+	private ArrayList<Provider> providers;
+	private ArrayList<Client> clients;
+	private ArrayList<ProviderImplementation> providerImplementations;
+	private ArrayList<Flow> orchestrationFlows;
 	private List<ClusterCollection> cuts; // TODO list of collections (n heuristics)
+	private SymbolTable dataTypeNames;
+	private Map<Section, SectionLoader> sectionLoaders;
 
 	/**
 	 * Creates a new MDSL generator model.
@@ -47,13 +70,96 @@ public class MDSLGeneratorModel {
 	 */
 	public MDSLGeneratorModel(String apiName) {
 		this.apiName = apiName;
-		this.dataTypes = Lists.newLinkedList();
-		this.endpoints = Lists.newLinkedList();
-		this.providers = Lists.newLinkedList();
-		this.clients = Lists.newLinkedList();
-		this.providerImplementations = Lists.newLinkedList();
-		this.orchestrationFlows = Lists.newLinkedList();
+		this.dataTypes = Lists.newArrayList();
+		this.endpoints = Lists.newArrayList();
+		this.providers = Lists.newArrayList();
+		this.clients = Lists.newArrayList();
+		this.providerImplementations = Lists.newArrayList();
+		this.orchestrationFlows = Lists.newArrayList();
 		this.cuts = new ArrayList<ClusterCollection>();
+		this.dataTypeNames = new SymbolTable();
+		this.sectionLoaders = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Registers a loader that fills a section of the model when the section is
+	 * accessed for the first time. The same loader can be registered for several
+	 * sections; it runs only once.
+	 * 
+	 * @param section the section filled by the loader
+	 * @param loader  the conversion that fills the section
+	 */
+	public void setSectionLoader(Section section, Runnable loader) {
+		SectionLoader sectionLoader = sectionLoaders.values().stream().filter(l -> l.loader == loader).findFirst().orElseGet(() -> new SectionLoader(loader));
+		this.sectionLoaders.put(section, sectionLoader);
+	}
+
+	/**
+	 * Tells whether a section is complete, without loading it.
+	 * 
+	 * @param section the section of the model
+	 * @return false if the loader of the section has not run (completely) yet
+	 */
+	public boolean isLoaded(Section section) {
+		return !sectionLoaders.containsKey(section);
+	}
+
+	/**
+	 * Runs the loaders of all sections that have not been loaded yet.
+	 */
+	public void loadAllSections() {
+		for (Section section : Section.values())
+			loadSection(section);
+	}
+
+	private void loadSection(Section section) {
+		SectionLoader sectionLoader = sectionLoaders.get(section);
+		if (sectionLoader == null)
+			return;
+		sectionLoader.load();
+		// drop the loader (and the converter it refers to) once the section is complete
+		sectionLoaders.remove(section, sectionLoader);
+	}
+
+	/**
+	 * Runs a loader once; threads that access the section meanwhile wait for it.
+	 * A failure is kept and rethrown on every later access of the section.
+	 */
+	private static class SectionLoader {
+		private final Runnable loader;
+		private final FutureTask<Void> task;
+		private volatile Thread loadingThread;
+
+		private SectionLoader(Runnable loader) {
+			this.loader = loader;
+			this.task = new FutureTask<>(() -> {
+				loadingThread = Thread.currentThread();
+				try {
+					loader.run();
+				} finally {
+					loadingThread = null;
+				}
+			}, null);
+		}
+
+		private void load() {
+			// the loader of a section may access the section itself (on the same thread)
+			if (loadingThread == Thread.currentThread())
+				return;
+			task.run(); // does nothing if another thread runs (or has run) the loader
+			try {
+				task.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				if (e.getCause() instanceof Error)
+					throw (Error) e.getCause();
+				throw new MDSLException("Could not load generator model section", e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MDSLException("Interrupted while loading generator model section", e);
+			}
+		}
 	}
 
 	/**
@@ -71,7 +177,31 @@ public class MDSLGeneratorModel {
 	 * @return a list of all data types of the MDSL model
 	 */
 	public List<DataType> getDataTypes() {
-		return Lists.newLinkedList(dataTypes);
+		loadSection(Section.DATA_TYPES);
+		return Lists.newArrayList(dataTypes);
+	}
+
+	/**
+	 * Returns the data types that have been added to the generator model after the
+	 * first n data types.
+	 * 
+	 * @param index the number of data types to skip
+	 * @return a list of the data types added last
+	 */
+	public List<DataType> getDataTypesFrom(int index) {
+		loadSection(Section.DATA_TYPES);
+		return Lists.newArrayList(dataTypes.subList(index, dataTypes.size()));
+	}
+
+	/**
+	 * Returns the number of data types in the generator model.
+	 * 
+	 * @return the number of data types
+	 */
+	@JsonIgnore
+	public int getNumberOfDataTypes() {
+		loadSection(Section.DATA_TYPES);
+		return dataTypes.size();
 	}
 
 	/**
@@ -80,7 +210,8 @@ public class MDSLGeneratorModel {
 	 * @return a list with all endpoints of the MDSL API
 	 */
 	public List<EndpointContract> getEndpoints() {
-		return Lists.newLinkedList(endpoints);
+		loadSection(Section.ENDPOINTS);
+		return Lists.newArrayList(endpoints);
 	}
 
 	/**
@@ -89,7 +220,8 @@ public class MDSLGeneratorModel {
 	 * @return a list of all providers of the MDSL API
 	 */
 	public List<Provider> getProviders() {
-		return Lists.newLinkedList(providers);
+		loadSection(Section.PROVIDERS);
+		return Lists.newArrayList(providers);
 	}
 
 	/**
@@ -98,7 +230,8 @@ public class MDSLGeneratorModel {
 	 * @return a list of all clients of the MDSL API
 	 */
 	public List<Client> getClients() {
-		return Lists.newLinkedList(clients);
+		loadSection(Section.CLIENTS);
+		return Lists.newArrayList(clients);
 	}
 
 	/**
@@ -107,7 +240,8 @@ public class MDSLGeneratorModel {
 	 * @return a list of all provider implementations of the MDSL API
 	 */
 	public List<ProviderImplementation> getProviderImplementations() {
-		return Lists.newLinkedList(providerImplementations);
+		loadSection(Section.PROVIDER_IMPLEMENTATIONS);
+		return Lists.newArrayList(providerImplementations);
 	}
 	
 	/**
@@ -116,6 +250,7 @@ public class MDSLGeneratorModel {
 	 * @return a list of all provider implementations of the MDSL API
 	 */
 	public LinkedList<Flow> getOrchestrationFlows() {
+		loadSection(Section.ORCHESTRATION_FLOWS);
 		return Lists.newLinkedList(orchestrationFlows);
 	}
 
@@ -126,6 +261,45 @@ public class MDSLGeneratorModel {
 	 */
 	public void addDataType(DataType dataType) {
 		this.dataTypes.add(dataType);
+		this.dataTypeNames.reserve(dataType.getName());
+	}
+
+	/**
+	 * Removes a data type from the generator model and releases its name.
+	 * 
+	 * @param dataType the data type that shall be removed
+	 */
+	public void removeDataType(DataType dataType) {
+		if (this.dataTypes.removeIf(d -> d == dataType) && !this.dataTypes.contains(dataType))
+			this.dataTypeNames.release(dataType.getName());
+	}
+
+	/**
+	 * Replaces a data type of the generator model with another one (at the same
+	 * position).
+	 * 
+	 * @param oldDataType the data type that shall be replaced
+	 * @param newDataType the replacement
+	 */
+	public void replaceDataType(DataType oldDataType, DataType newDataType) {
+		for (int i = 0; i < this.dataTypes.size(); i++) {
+			if (this.dataTypes.get(i) == oldDataType) {
+				this.dataTypes.set(i, newDataType);
+				this.dataTypeNames.reserve(newDataType.getName());
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Derives a data type name that is not used by any data type of the generator
+	 * model yet (by adding a numeric suffix if necessary) and reserves it.
+	 * 
+	 * @param baseName the preferred name of the new data type
+	 * @return a data type name that is unique within this generator model
+	 */
+	public String reserveUniqueDataTypeName(String baseName) {
+		return this.dataTypeNames.getUniqueName(baseName);
 	}
 
 	/**
@@ -181,8 +355,25 @@ public class MDSLGeneratorModel {
 		this.cuts.addAll(clusters);
 	}
 
+	/**
+	 * Releases the unused capacity of the lists held by the model, its data types
+	 * and endpoints. Sections that have not been loaded yet are not loaded (and
+	 * not trimmed). Adding elements later is still possible.
+	 */
+	public void trimToSize() {
+		this.dataTypes.trimToSize();
+		this.endpoints.trimToSize();
+		this.providers.trimToSize();
+		this.clients.trimToSize();
+		this.providerImplementations.trimToSize();
+		this.orchestrationFlows.trimToSize();
+		this.dataTypes.forEach(DataType::trimToSize);
+		this.endpoints.forEach(EndpointContract::trimToSize);
+	}
+
 	public void resetOrchestrationPart() {
-		this.orchestrationFlows = Lists.newLinkedList();
+		this.sectionLoaders.remove(Section.ORCHESTRATION_FLOWS);
+		this.orchestrationFlows = Lists.newArrayList();
 		this.cuts = new ArrayList<ClusterCollection>();
 	}
 }
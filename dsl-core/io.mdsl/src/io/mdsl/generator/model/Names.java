@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.model;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Interns the names used in generator models, so that equal names (field names
+ * such as "id" appear in many data types) share one string instance across all
+ * generator models of the process. Names no longer used by any model can be
+ * garbage collected.
+ */
+final class Names {
+
+	private static final Interner<String> NAMES = Interners.newWeakInterner();
+
+	private Names() {
+	}
+
+	static String intern(String name) {
+		if (name == null)
+			return null;
+		return NAMES.intern(name);
+	}
+}
@@ -15,6 +15,7 @@
  */
 package io.mdsl.generator.model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.google.common.collect.Lists;
@@ -26,7 +27,7 @@ public class Operation {
 
 	private String name;
 	private MDSLType response;
-	private List<OperationParameter> parameters;
+	private ArrayList<OperationParameter> parameters;
 	private String responsibility;
 
 	/**
@@ -35,8 +36,8 @@ public class Operation {
 	 * @param name the name of the operation
 	 */
 	public Operation(String name) {
-		this.name = name;
-		this.parameters = Lists.newLinkedList();
+		this.name = Names.intern(name);
+		this.parameters = Lists.newArrayList();
 		this.responsibility = "";
 	}
 
@@ -92,7 +93,7 @@ public class Operation {
 	 * @return a list with all the parameters of the operation
 	 */
 	public List<OperationParameter> getParameters() {
-		return Lists.newLinkedList(parameters);
+		return Lists.newArrayList(parameters);
 	}
 
 	/**
@@ -123,5 +124,20 @@ public class Operation {
 		this.responsibility = responsibility;
 	}
 
+	/**
+	 * Releases the unused capacity of the lists held by this operation and its
+	 * message types. Can be called once the operation is complete; adding
+	 * parameters later is still possible.
+	 */
+	public void trimToSize() {
+		this.parameters.trimToSize();
+		if (this.response instanceof DataType)
+			((DataType) this.response).trimToSize();
+		for (OperationParameter parameter : this.parameters) {
+			if (parameter.getType() instanceof DataType)
+				((DataType) parameter.getType()).trimToSize();
+		}
+	}
+
 	// TODO provide a sampleJSON method here that walks through the parameters and turns them into a JSON object
 }
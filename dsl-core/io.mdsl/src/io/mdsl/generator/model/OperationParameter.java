@@ -31,7 +31,7 @@ public class OperationParameter {
 	 * @param type the type of the new parameter
 	 */
 	public OperationParameter(String name, MDSLType type) {
-		this.name = name;
+		this.name = Names.intern(name);
 		this.type = type;
 	}
 
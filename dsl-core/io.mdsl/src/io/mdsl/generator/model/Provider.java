@@ -35,8 +35,8 @@ public class Provider {
 	 * @param name the name of the new provider
 	 */
 	public Provider(String name) {
-		this.name = name;
-		this.offeredEndpoints = Lists.newLinkedList();
+		this.name = Names.intern(name);
+		this.offeredEndpoints = Lists.newArrayList();
 	}
 
 	/**
@@ -54,7 +54,7 @@ public class Provider {
 	 * @return a list with all endpoints offered by the provider
 	 */
 	public List<EndpointContract> offeredEndpoints() {
-		return Lists.newLinkedList(offeredEndpoints); 
+		return Lists.newArrayList(offeredEndpoints); 
 	}
 	
 	public List<String> getOfferedEndpoints() {
@@ -15,10 +15,8 @@
  */
 package io.mdsl.generator.model.converter;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 
@@ -101,7 +99,7 @@ public class DataTypeConverter {
 	}
 
 	private void mapParameterForest(ParameterForest pf, DataType dataType) {
-		List<ParameterTree> trees = Lists.newLinkedList();
+		List<ParameterTree> trees = Lists.newArrayList();
 		trees.add(pf.getPtl().getFirst());
 		trees.addAll(pf.getPtl().getNext());
 		for (ParameterTree tree : trees) {
@@ -120,7 +118,7 @@ public class DataTypeConverter {
 	}
 
 	private void mapParameterTree(ParameterTree pt, DataType dataType) {
-		List<TreeNode> treeNodes = Lists.newLinkedList();
+		List<TreeNode> treeNodes = Lists.newArrayList();
 		treeNodes.add(pt.getFirst());
 		treeNodes.addAll(pt.getNexttn());
 		for (TreeNode treeNode : treeNodes) {
@@ -165,7 +163,7 @@ public class DataTypeConverter {
 
 	private void mapAtomicParameterList(AtomicParameterList apl, DataType dataType) {
 		// TODO handle defaultValue
-		List<AtomicParameter> parameters = new LinkedList<>();
+		List<AtomicParameter> parameters = new ArrayList<>();
 		parameters.add(apl.getFirst());
 		parameters.addAll(apl.getNextap());
 		for (AtomicParameter ap : parameters) {
@@ -203,15 +201,7 @@ public class DataTypeConverter {
 			return getUniqueTypeName(ANONYMOUS_TYPE_NAME);
 
 		name = name.substring(0, 1).toUpperCase() + name.substring(1);
-		Set<String> alreadyExistingTypeNames = model.getDataTypes().stream().map(d -> d.getName())
-				.collect(Collectors.toSet());
-		String baseName = name;
-		int counter = 2;
-		while (alreadyExistingTypeNames.contains(name)) {
-			name = baseName + "_" + counter;
-			counter++;
-		}
-		return name;
+		return model.reserveUniqueDataTypeName(name);
 	}
 
 }
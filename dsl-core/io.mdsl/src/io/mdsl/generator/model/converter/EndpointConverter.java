@@ -19,10 +19,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.xtext.EcoreUtil2;
 
 import io.mdsl.apiDescription.Cardinality;
 import io.mdsl.apiDescription.ElementStructure;
@@ -51,6 +49,7 @@ import io.mdsl.generator.model.OperationParameter;
 import io.mdsl.generator.model.ProtocolBinding;
 import io.mdsl.generator.model.StateTransition;
 import io.mdsl.utils.CardinalityHelper;
+import io.mdsl.utils.ProtocolBindingIndex;
 
 /**
  * Converts MDSL endpoints (AST model) into endpoints of our generator model.
@@ -71,8 +70,20 @@ public class EndpointConverter {
 	}
 
 	public EndpointContract convert(io.mdsl.apiDescription.EndpointContract mdslEndpoint) {
+		return convert(mdslEndpoint, convertProtocolBinding(mdslEndpoint));
+	}
+
+	/**
+	 * Converts an MDSL endpoint, using a protocol binding that has been converted
+	 * before (see {@link #convertProtocolBinding}).
+	 * 
+	 * @param mdslEndpoint    the MDSL endpoint that shall be converted
+	 * @param protocolBinding the converted binding of the endpoint (may be null)
+	 * @return the generator model endpoint
+	 */
+	public EndpointContract convert(io.mdsl.apiDescription.EndpointContract mdslEndpoint, ProtocolBinding protocolBinding) {
 		EndpointContract endpoint = new EndpointContract(mdslEndpoint.getName());
-		endpoint.setProtocolBinding(createProtocolBindingIfAvailable(mdslEndpoint.getName()));
+		endpoint.setProtocolBinding(protocolBinding);
 		for (io.mdsl.apiDescription.Operation operation : mdslEndpoint.getOps()) {
 			endpoint.addOperation(convertOperation(operation));
 			StateTransition transition = convertStateTransitionAndAddStates(endpoint, operation);
@@ -241,18 +252,29 @@ public class EndpointConverter {
 		return "";
 	}
 
+	/**
+	 * Converts the (first) protocol binding of an MDSL endpoint. Does not modify the
+	 * generator model, so it is safe to call this method concurrently for
+	 * different endpoints.
+	 * 
+	 * @param mdslEndpoint the MDSL endpoint whose binding shall be converted
+	 * @return the generator model binding or null if the endpoint is not bound
+	 */
+	public ProtocolBinding convertProtocolBinding(io.mdsl.apiDescription.EndpointContract mdslEndpoint) {
+		return createProtocolBindingIfAvailable(mdslEndpoint.getName());
+	}
+
 	private ProtocolBinding createProtocolBindingIfAvailable(String endpointName) {
-		List<EndpointList> endpointListList = EcoreUtil2.eAllOfType(serviceSpecification, EndpointList.class).stream()
-				.filter(e -> e.getContract() != null && endpointName.equals(e.getContract().getName())).collect(Collectors.toList());
-		for (EndpointList endpointList : endpointListList) {
-			Optional<JavaBinding> javaBinding = EcoreUtil2.eAllOfType(endpointList, JavaBinding.class).stream().findFirst();
-			if (javaBinding.isPresent())
-				return mapJavaBinding(javaBinding.get());
-			Optional<HTTPBinding> httpBinding = EcoreUtil2.eAllOfType(endpointList, HTTPBinding.class).stream().findFirst();
-			if (httpBinding.isPresent()) {
+		ProtocolBindingIndex bindingIndex = ProtocolBindingIndex.of(serviceSpecification);
+		for (EndpointList endpointList : bindingIndex.getEndpointLists(endpointName)) {
+			List<JavaBinding> javaBindings = bindingIndex.getJavaBindings(endpointList);
+			if (!javaBindings.isEmpty())
+				return mapJavaBinding(javaBindings.get(0));
+			List<HTTPBinding> httpBindings = bindingIndex.getHTTPBindings(endpointList);
+			if (!httpBindings.isEmpty()) {
 				if(endpointList.getEndpoints().size()!=1)
 					throw new MDSLException("Unexpected number of endpoint instances in provider");
-				return mapHTTPBinding(httpBinding.get(), endpointList.getEndpoints().get(0).getLocation());
+				return mapHTTPBinding(httpBindings.get(0), endpointList.getEndpoints().get(0).getLocation());
 			}
 			// TODO (L) future work: support other bindings (gRPC, Jolie) 
 		}
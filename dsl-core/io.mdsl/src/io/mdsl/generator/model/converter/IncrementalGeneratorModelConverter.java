@@ -0,0 +1,380 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.generator.model.converter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.xtext.EcoreUtil2;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import io.mdsl.MDSLResource;
+import io.mdsl.apiDescription.DataContract;
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.apiDescription.TypeReference;
+import io.mdsl.generator.model.DataType;
+import io.mdsl.generator.model.EndpointContract;
+import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.Operation;
+import io.mdsl.generator.model.OperationParameter;
+import io.mdsl.generator.model.ProtocolBinding;
+
+/**
+ * Keeps a generator model in sync with an MDSL specification that is being
+ * edited (for instance, in the Eclipse editor or the language server).
+ *
+ * The converter listens to the EMF notifications of the resource that contains
+ * the specification (or of the specification, if it is not contained in a
+ * resource). When the resource is reparsed and its contents are replaced, the
+ * next update converts the new specification completely. Changes
+ * inside a data type or an endpoint type only mark the corresponding element
+ * (and the elements referencing a changed data type) as dirty; {@link #update()}
+ * then re-runs the data type or endpoint conversion for these elements only and
+ * patches the existing generator model in place. The generator model objects of
+ * patched elements keep their identity, so providers, clients and operations
+ * referencing them see the new content. All other changes (adding or removing
+ * types and endpoints, renaming them, changing providers, bindings, flows etc.)
+ * cause a full conversion on the next update.
+ *
+ * Note that anonymous names generated during a partial update continue the
+ * numbering of the previous conversion, and that data types derived from a
+ * patched element are moved to the end of the data type list. A full conversion
+ * can be enforced with {@link #convert()}.
+ *
+ * The converter is not thread-safe; notifications and updates are expected to
+ * happen on the thread that modifies the specification.
+ */
+public class IncrementalGeneratorModelConverter {
+
+	private static final String NAME_FEATURE = "name";
+
+	private Resource resource;
+	private ServiceSpecification serviceSpecification;
+	private ChangeRecorder changeRecorder;
+	private SliceRecordingConverter converter;
+	private MDSLGeneratorModel genModel;
+
+	private Set<DataContract> dirtyDataTypes;
+	private Set<io.mdsl.apiDescription.EndpointContract> dirtyEndpoints;
+	private boolean fullConversionRequired;
+
+	public IncrementalGeneratorModelConverter(Resource resource) {
+		this(new MDSLResource(resource).getServiceSpecification());
+	}
+
+	public IncrementalGeneratorModelConverter(ServiceSpecification serviceSpecification) {
+		this.resource = serviceSpecification.eResource();
+		this.serviceSpecification = serviceSpecification;
+		this.changeRecorder = new ChangeRecorder();
+		this.dirtyDataTypes = new LinkedHashSet<>();
+		this.dirtyEndpoints = new LinkedHashSet<>();
+		this.fullConversionRequired = true;
+	}
+
+	/**
+	 * Converts the whole specification (like {@link MDSL2GeneratorModelConverter})
+	 * and starts listening to changes.
+	 *
+	 * @return the generator model of the specification
+	 */
+	public MDSLGeneratorModel convert() {
+		if (!getObservedNotifier().eAdapters().contains(changeRecorder))
+			getObservedNotifier().eAdapters().add(changeRecorder);
+		// a reparse may have replaced the specification
+		if (resource != null)
+			this.serviceSpecification = new MDSLResource(resource).getServiceSpecification();
+
+		this.converter = new SliceRecordingConverter(serviceSpecification);
+		this.genModel = converter.convert();
+		this.dirtyDataTypes.clear();
+		this.dirtyEndpoints.clear();
+		this.fullConversionRequired = false;
+		return genModel;
+	}
+
+	/**
+	 * Applies the changes recorded since the last conversion or update to the
+	 * generator model.
+	 *
+	 * @return the updated generator model (a new model object in case a full
+	 *         conversion was necessary)
+	 */
+	public MDSLGeneratorModel update() {
+		if (fullConversionRequired || genModel == null)
+			return convert();
+		if (!hasPendingChanges())
+			return genModel;
+
+		addDependentElements();
+		for (DataContract dataContract : dirtyDataTypes) {
+			if (!updateDataType(dataContract))
+				return convert();
+		}
+		for (io.mdsl.apiDescription.EndpointContract endpoint : dirtyEndpoints) {
+			if (!updateEndpoint(endpoint))
+				return convert();
+		}
+		dirtyDataTypes.clear();
+		dirtyEndpoints.clear();
+		return genModel;
+	}
+
+	/**
+	 * Returns the current generator model (without applying pending changes).
+	 *
+	 * @return the generator model, null if the specification has not been converted
+	 *         yet
+	 */
+	public MDSLGeneratorModel getGeneratorModel() {
+		return genModel;
+	}
+
+	/**
+	 * Checks whether changes have been recorded since the last conversion or
+	 * update.
+	 *
+	 * @return true if {@link #update()} would change the generator model
+	 */
+	public boolean hasPendingChanges() {
+		return fullConversionRequired || !dirtyDataTypes.isEmpty() || !dirtyEndpoints.isEmpty();
+	}
+
+	/**
+	 * Stops listening to changes of the specification.
+	 */
+	public void dispose() {
+		getObservedNotifier().eAdapters().remove(changeRecorder);
+	}
+
+	private Notifier getObservedNotifier() {
+		return resource != null ? resource : serviceSpecification;
+	}
+
+	private boolean updateDataType(DataContract dataContract) {
+		DataType existingDataType = converter.convertedDataTypes.get(dataContract);
+		if (existingDataType == null)
+			return false;
+		List<DataType> derivedTypes = removeDerivedTypes(dataContract);
+		int numberOfTypes = genModel.getNumberOfDataTypes();
+		DataType newDataType = converter.convertDataType(dataContract);
+		existingDataType.updateFrom(newDataType);
+		converter.derivedTypes.put(dataContract, reuseDerivedTypes(derivedTypes, numberOfTypes));
+		return true;
+	}
+
+	private boolean updateEndpoint(io.mdsl.apiDescription.EndpointContract mdslEndpoint) {
+		EndpointContract existingEndpoint = converter.convertedEndpoints.get(mdslEndpoint);
+		if (existingEndpoint == null)
+			return false;
+		List<DataType> derivedTypes = removeDerivedTypes(mdslEndpoint);
+		int numberOfTypes = genModel.getNumberOfDataTypes();
+		// bindings are declared outside of the endpoint type; changing them requires a full conversion
+		ProtocolBinding binding = existingEndpoint.getProtocolBinding();
+		EndpointContract newEndpoint = converter.convertEndpoint(mdslEndpoint, binding);
+		existingEndpoint.updateFrom(newEndpoint);
+		converter.derivedTypes.put(mdslEndpoint, reuseDerivedTypes(derivedTypes, numberOfTypes));
+		return true;
+	}
+
+	private List<DataType> removeDerivedTypes(EObject slice) {
+		List<DataType> derivedTypes = converter.derivedTypes.getOrDefault(slice, Lists.newArrayList());
+		for (DataType derivedType : derivedTypes) {
+			genModel.removeDataType(derivedType);
+		}
+		return derivedTypes;
+	}
+
+	/**
+	 * Replaces the data types that a reconverted element added to the model with
+	 * the previously derived instances of the same name (so that references to
+	 * these instances stay valid). Previously derived types that are still used by
+	 * other endpoints are kept in the model.
+	 */
+	private List<DataType> reuseDerivedTypes(List<DataType> oldDerivedTypes, int firstNewTypeIndex) {
+		Map<String, DataType> oldTypesByName = Maps.newHashMap();
+		for (DataType oldType : oldDerivedTypes) {
+			oldTypesByName.put(oldType.getName(), oldType);
+		}
+
+		List<DataType> newDerivedTypes = Lists.newArrayList();
+		for (DataType newType : genModel.getDataTypesFrom(firstNewTypeIndex)) {
+			DataType oldType = oldTypesByName.remove(newType.getName());
+			if (oldType != null) {
+				oldType.updateFrom(newType);
+				genModel.replaceDataType(newType, oldType);
+				newDerivedTypes.add(oldType);
+			} else {
+				newDerivedTypes.add(newType);
+			}
+		}
+
+		for (DataType remainingType : oldTypesByName.values()) {
+			if (isUsedByEndpoint(remainingType))
+				genModel.addDataType(remainingType);
+		}
+		return newDerivedTypes;
+	}
+
+	private boolean isUsedByEndpoint(DataType dataType) {
+		for (EndpointContract endpoint : genModel.getEndpoints()) {
+			for (Operation operation : endpoint.getOperations()) {
+				if (operation.getResponse() == dataType)
+					return true;
+				for (OperationParameter parameter : operation.getParameters()) {
+					if (parameter.getType() == dataType)
+						return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Data types referencing another data type contain a converted copy of it; such
+	 * data types and endpoints have to be reconverted when a referenced data type
+	 * changes.
+	 */
+	private void addDependentElements() {
+		Deque<DataContract> worklist = new ArrayDeque<>(dirtyDataTypes);
+		while (!worklist.isEmpty()) {
+			DataContract changedType = worklist.pop();
+			for (DataContract dataContract : serviceSpecification.getTypes()) {
+				if (!dirtyDataTypes.contains(dataContract) && references(dataContract, changedType)) {
+					dirtyDataTypes.add(dataContract);
+					worklist.push(dataContract);
+				}
+			}
+		}
+		for (DataContract changedType : dirtyDataTypes) {
+			for (io.mdsl.apiDescription.EndpointContract endpoint : converter.convertedEndpoints.keySet()) {
+				if (references(endpoint, changedType))
+					dirtyEndpoints.add(endpoint);
+			}
+		}
+	}
+
+	private boolean references(EObject element, DataContract dataContract) {
+		for (TypeReference reference : EcoreUtil2.eAllOfType(element, TypeReference.class)) {
+			if (reference.getDcref() == dataContract)
+				return true;
+		}
+		return false;
+	}
+
+	private void recordChange(Notification notification) {
+		if (notification.isTouch() || fullConversionRequired)
+			return;
+		if (notification.getNotifier() instanceof Resource) {
+			// the modification flag, URI etc. of the resource do not affect the generator model
+			if (notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS)
+				fullConversionRequired = true;
+			return;
+		}
+		if (!(notification.getNotifier() instanceof EObject)) {
+			fullConversionRequired = true;
+			return;
+		}
+
+		EObject notifier = (EObject) notification.getNotifier();
+		DataContract dataContract = EcoreUtil2.getContainerOfType(notifier, DataContract.class);
+		io.mdsl.apiDescription.EndpointContract endpoint = EcoreUtil2.getContainerOfType(notifier, io.mdsl.apiDescription.EndpointContract.class);
+		if (dataContract != null && !isRename(notification, dataContract)) {
+			dirtyDataTypes.add(dataContract);
+		} else if (endpoint != null && !isRename(notification, endpoint)) {
+			dirtyEndpoints.add(endpoint);
+		} else {
+			fullConversionRequired = true;
+		}
+	}
+
+	private boolean isRename(Notification notification, EObject element) {
+		Object feature = notification.getFeature();
+		return notification.getNotifier() == element && feature instanceof EStructuralFeature
+				&& NAME_FEATURE.equals(((EStructuralFeature) feature).getName());
+	}
+
+	/**
+	 * Records the AST changes of the resource (or specification) and its contents.
+	 */
+	private class ChangeRecorder extends EContentAdapter {
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			super.notifyChanged(notification);
+			recordChange(notification);
+		}
+	}
+
+	/**
+	 * Remembers which generator model objects have been created for which AST
+	 * elements.
+	 */
+	private static class SliceRecordingConverter extends MDSL2GeneratorModelConverter {
+
+		private Map<DataContract, DataType> convertedDataTypes;
+		private Map<io.mdsl.apiDescription.EndpointContract, EndpointContract> convertedEndpoints;
+		private Map<EObject, List<DataType>> derivedTypes;
+
+		SliceRecordingConverter(ServiceSpecification serviceSpecification) {
+			super(serviceSpecification);
+			this.convertedDataTypes = Maps.newHashMap();
+			this.convertedEndpoints = Maps.newHashMap();
+			this.derivedTypes = Maps.newHashMap();
+		}
+
+		@Override
+		protected DataType convertDataType(DataContract contract) {
+			int numberOfTypes = getNumberOfConvertedTypes();
+			DataType dataType = super.convertDataType(contract);
+			if (!convertedDataTypes.containsKey(contract)) {
+				convertedDataTypes.put(contract, dataType);
+				derivedTypes.put(contract, getConvertedTypesFrom(numberOfTypes));
+			}
+			return dataType;
+		}
+
+		@Override
+		protected EndpointContract convertEndpoint(io.mdsl.apiDescription.EndpointContract mdslEndpoint, ProtocolBinding protocolBinding) {
+			int numberOfTypes = getNumberOfConvertedTypes();
+			EndpointContract endpoint = super.convertEndpoint(mdslEndpoint, protocolBinding);
+			if (!convertedEndpoints.containsKey(mdslEndpoint)) {
+				convertedEndpoints.put(mdslEndpoint, endpoint);
+				derivedTypes.put(mdslEndpoint, getConvertedTypesFrom(numberOfTypes));
+			}
+			return endpoint;
+		}
+
+		private int getNumberOfConvertedTypes() {
+			return getGeneratorModel().getNumberOfDataTypes();
+		}
+
+		private List<DataType> getConvertedTypesFrom(int index) {
+			return getGeneratorModel().getDataTypesFrom(index);
+		}
+	}
+}
@@ -16,6 +16,11 @@
 package io.mdsl.generator.model.converter;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
 
 import com.google.common.collect.Lists; // TODO replace with ArrayList
 
@@ -27,6 +32,8 @@ import io.mdsl.generator.model.Client;
 import io.mdsl.generator.model.DataType;
 import io.mdsl.generator.model.EndpointContract;
 import io.mdsl.generator.model.MDSLGeneratorModel;
+import io.mdsl.generator.model.MDSLGeneratorModel.Section;
+import io.mdsl.generator.model.ProtocolBinding;
 import io.mdsl.generator.model.Provider;
 import io.mdsl.generator.model.ProviderImplementation;
 // import io.mdsl.generator.model.carving.ClusterCollection;
@@ -35,11 +42,26 @@ import io.mdsl.generator.model.composition.converter.OrchestrationConverter;
 
 /**
  * Converts MDSL (AST model) into a simpler generator model.
- *
+ * 
+ * In parallel mode, the elements of a conversion stage (for instance, all
+ * providers) are converted concurrently on a fork-join pool. The results are
+ * added to the generator model in the order of their declaration in the MDSL
+ * file, so the resulting model does not depend on the mode. Generators enable
+ * it with {@link io.mdsl.generator.AbstractMDSLGenerator#setConversionPool}.
+ * 
+ * Data types and the operations of endpoints are always converted sequentially:
+ * they add the types derived from nested structures and payloads to the model,
+ * and the names of these types are made unique model-wide in conversion order.
+ * Endpoints also share derived types by name (an operation reuses the list or
+ * optional wrapper type an earlier endpoint has created, for instance) and
+ * refer to the shared instance. Converting endpoints in separate name scopes
+ * would yield duplicate types and names that depend on the scope, which could
+ * only be merged by renaming and relinking types after the fact.
  */
 public class MDSL2GeneratorModelConverter {
 
 	private ServiceSpecificationAdapter serviceSpecification;
+	private ForkJoinPool pool;
 	private DataTypeConverter dataTypeConverter;
 	private EndpointConverter endpointConverter;
 	private ProviderConverter providerConverter;
@@ -59,6 +81,18 @@ public class MDSL2GeneratorModelConverter {
 		this.orchestrationConverter = new OrchestrationConverter(genModel);
 	}
 
+	/**
+	 * Creates a converter that runs in parallel mode.
+	 * 
+	 * @param serviceSpecification the MDSL specification that shall be converted
+	 * @param pool                 the fork-join pool that runs the per-element
+	 *                             conversions
+	 */
+	public MDSL2GeneratorModelConverter(ServiceSpecification serviceSpecification, ForkJoinPool pool) {
+		this(serviceSpecification);
+		this.pool = pool;
+	}
+
 	/**
 	 * Converts the service specification passed to the constructor into the
 	 * generator model.
@@ -66,83 +100,154 @@ public class MDSL2GeneratorModelConverter {
 	 * @return the generator model of the corresponding MDSL model
 	 */
 	public MDSLGeneratorModel convert() {
-		// convert data types
+		convertLazily().loadAllSections();
+		return genModel;
+	}
+
+	/**
+	 * Converts the service specification passed to the constructor into the
+	 * generator model on demand: the sections of the model (data types, endpoints,
+	 * providers etc.) are converted when they are accessed for the first time, so
+	 * generators only pay for the sections they use. The service specification
+	 * must not be modified until all sections have been loaded; the model refers to
+	 * this converter (and the specification) until then.
+	 * 
+	 * @return the generator model of the corresponding MDSL model, filled on
+	 *         demand
+	 */
+	public MDSLGeneratorModel convertLazily() {
+		if (isParallel()) {
+			// resolve cross references (lazy EMF proxies) once, before several threads read the AST 
+			EcoreUtil.resolveAll(serviceSpecification);
+		}
+
+		// data types and endpoints are converted together, as endpoints add the types of their messages  
+		Runnable typesAndEndpointsLoader = this::loadDataTypesAndEndpoints;
+		genModel.setSectionLoader(Section.DATA_TYPES, typesAndEndpointsLoader);
+		genModel.setSectionLoader(Section.ENDPOINTS, typesAndEndpointsLoader);
+		genModel.setSectionLoader(Section.PROVIDERS, this::loadProviders);
+		genModel.setSectionLoader(Section.CLIENTS, this::loadClients);
+		genModel.setSectionLoader(Section.PROVIDER_IMPLEMENTATIONS, this::loadProviderImplementations);
+		genModel.setSectionLoader(Section.ORCHESTRATION_FLOWS, this::loadOrchestrationFlows);
+
+		// List<ClusterCollection> clusters = OrchestrationConverter.postprocessFlowConversions(); // NYI
+		// genModel.addAllClustersToCuts(clusters);
+
+		return genModel;
+	}
+
+	private void loadDataTypesAndEndpoints() {
 		for (DataType dataType : convertDataTypes(serviceSpecification.getTypes()))
 			genModel.addDataType(dataType);
-  
-		// convert endpoints
+
 		for (EndpointContract endpoint : convertEndpoints(serviceSpecification.getEndpointContracts()))
 			genModel.addEndpoint(endpoint);
+		genModel.trimToSize();
+	}
 
-		// convert providers
+	private void loadProviders() {
+		genModel.getEndpoints(); // load referenced section on this thread (not on the pool)
 		for (Provider provider : convertProviders(serviceSpecification.getProviderProviders()))
 			genModel.addProvider(provider);
+	}
 
-		// convert clients
+	private void loadClients() {
+		genModel.getEndpoints();
 		for (Client client : convertClients(serviceSpecification.getClientClients()))
 			genModel.addClient(client);
+	}
 
-		// convert provider implementations
+	private void loadProviderImplementations() {
+		genModel.getProviders();
 		for (ProviderImplementation providerImpl : convertProviderImplementations(serviceSpecification.getRealizations()))
 			genModel.addProviderImplementation(providerImpl);
-		
-		// convert orchestration flows
-		for (Flow oFlow : convertOrchestrationFlows(serviceSpecification.getOrchestrations())) {
-			genModel.addOrchestration(oFlow);
-		}
-		
-		// List<ClusterCollection> clusters = OrchestrationConverter.postprocessFlowConversions(); // NYI
-		// genModel.addAllClustersToCuts(clusters);
+	}
 
-		return genModel;
+	private void loadOrchestrationFlows() {
+		for (Flow oFlow : convertOrchestrationFlows(serviceSpecification.getOrchestrations()))
+			genModel.addOrchestration(oFlow);
 	}
 	
+	/**
+	 * Returns the generator model that is filled by this converter.
+	 * 
+	 * @return the (possibly not yet complete) generator model
+	 */
+	protected MDSLGeneratorModel getGeneratorModel() {
+		return genModel;
+	}
+
+	private boolean isParallel() {
+		return pool != null;
+	}
+
+	/**
+	 * Converts all elements of a stage, concurrently if in parallel mode. The
+	 * conversion function must not modify the generator model.
+	 */
+	private <S, T> List<T> convertAll(List<S> elements, Function<S, T> conversion) {
+		if (!isParallel())
+			return elements.stream().map(conversion).collect(Collectors.toList());
+		// parallel streams preserve the encounter order when collecting into a list
+		return pool.submit(() -> elements.parallelStream().map(conversion).collect(Collectors.toList())).join();
+	}
+
 	private List<Flow> convertOrchestrationFlows(List<Orchestration> orchestrations) {
-		List<Flow> oFlows = Lists.newLinkedList();
-		for (Orchestration oFlow : orchestrations) {
-			oFlows.add(orchestrationConverter.convert(oFlow));
-		}
-		return oFlows;
+		return convertAll(orchestrations, orchestrationConverter::convert);
 	}
 
 	private List<DataType> convertDataTypes(List<DataContract> contracts) {
-		List<DataType> dataTypes = Lists.newLinkedList();
+		List<DataType> dataTypes = Lists.newArrayList();
 		for (DataContract contract : contracts) {
-			dataTypes.add(dataTypeConverter.convert(contract));
+			dataTypes.add(convertDataType(contract));
 		}
 		return dataTypes;
 	}
 
+	/**
+	 * Converts a single MDSL data contract. Nested types are added to the generator
+	 * model, the returned type is not.
+	 * 
+	 * @param contract the MDSL data contract
+	 * @return the generator model data type
+	 */
+	protected DataType convertDataType(DataContract contract) {
+		return dataTypeConverter.convert(contract);
+	}
+
+	/**
+	 * Converts a single MDSL endpoint. Data types derived from the payloads are
+	 * added to the generator model, the returned endpoint is not.
+	 * 
+	 * @param mdslEndpoint    the MDSL endpoint
+	 * @param protocolBinding the converted protocol binding of the endpoint (may be
+	 *                        null)
+	 * @return the generator model endpoint
+	 */
+	protected EndpointContract convertEndpoint(io.mdsl.apiDescription.EndpointContract mdslEndpoint, ProtocolBinding protocolBinding) {
+		return endpointConverter.convert(mdslEndpoint, protocolBinding);
+	}
+
 	private List<EndpointContract> convertEndpoints(List<io.mdsl.apiDescription.EndpointContract> mdslEndpoints) {
-		List<EndpointContract> endpoints = Lists.newLinkedList();
-		for (io.mdsl.apiDescription.EndpointContract endpoint : mdslEndpoints) {
-			endpoints.add(endpointConverter.convert(endpoint));
+		// bindings do not depend on the data types created while converting the operations
+		List<ProtocolBinding> bindings = convertAll(mdslEndpoints, endpointConverter::convertProtocolBinding);
+		List<EndpointContract> endpoints = Lists.newArrayList();
+		for (int i = 0; i < mdslEndpoints.size(); i++) {
+			endpoints.add(convertEndpoint(mdslEndpoints.get(i), bindings.get(i)));
 		}
 		return endpoints;
 	}
 
 	private List<Provider> convertProviders(List<io.mdsl.apiDescription.Provider> mdslProviders) {
-		List<Provider> providers = Lists.newLinkedList();
-		for (io.mdsl.apiDescription.Provider provider : mdslProviders) {
-			providers.add(providerConverter.convert(provider));
-		}
-		return providers;
+		return convertAll(mdslProviders, providerConverter::convert);
 	}
 
 	private List<Client> convertClients(List<io.mdsl.apiDescription.Client> mdslClients) {
-		List<Client> clients = Lists.newLinkedList();
-		for (io.mdsl.apiDescription.Client client : mdslClients) {
-			clients.add(clientConverter.convert(client));
-		}
-		return clients;
+		return convertAll(mdslClients, clientConverter::convert);
 	}
 
 	private List<ProviderImplementation> convertProviderImplementations(List<io.mdsl.apiDescription.ProviderImplementation> mdslProviderImplemenations) {
-		List<ProviderImplementation> providerImplementations = Lists.newLinkedList();
-		for (io.mdsl.apiDescription.ProviderImplementation providerImpl : mdslProviderImplemenations) {
-			providerImplementations.add(providerImplementationConverter.convert(providerImpl));
-		}
-		return providerImplementations;
+		return convertAll(mdslProviderImplemenations, providerImplementationConverter::convert);
 	}
 
 }
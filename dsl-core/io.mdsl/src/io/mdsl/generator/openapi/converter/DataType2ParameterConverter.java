@@ -35,14 +35,20 @@ public class DataType2ParameterConverter {
 
 	private static final String PARAMETER_PREFIX = "Parameter";
 	private static final String ANONYMOUS_TREE_IDENTIFIER = "anonymousTree";
-	private int anonymousParameterCounter = 1;
+	private List<Parameter> anonymousParameters = new ArrayList<>();
 	private DataType2SchemaConverter schemaConverter;
 	private MDSLSpecificationWrapper mdslResolver;
+	private Integer maxItems;
 
 	public DataType2ParameterConverter(ServiceSpecificationAdapter mdslSpecification) {
 		this.schemaConverter = new DataType2SchemaConverter();
 		this.mdslResolver = new MDSLSpecificationWrapper(mdslSpecification);
 	}
+
+	public void setMaxItems(Integer maxItems) {
+		this.maxItems = maxItems;
+		this.schemaConverter.setMaxItems(maxItems);
+	}
 	
 	public Parameter convertParameterTree(ParameterTree pt, HTTPParameter boundParameter, boolean externalCardinality) {
 		if(pt==null) {
@@ -120,10 +126,11 @@ public class DataType2ParameterConverter {
 		if(card != null && (card.getZeroOrOne()!=null || card.getAtLeastOne()!=null)) {
 			// handle array (for atomic parameters)			
 			ArraySchema arraySchema = new ArraySchema();
+			arraySchema.setMaxItems(maxItems);
 			Schema<?> schema = schemaConverter.convert(atomicParameter);
 			if(schema!=null) {
 				arraySchema.items(schema);
-				result = new Parameter().name(getUniqueName(roleAndType.getName()))
+				result = withUniqueName(new Parameter(), roleAndType.getName())
 						.in(inValue).description(parameterDescription) // not needed twice?
 						.required(required).schema(arraySchema);
 		}
@@ -131,7 +138,7 @@ public class DataType2ParameterConverter {
 		else {
 			Schema<?> schema = schemaConverter.convert(atomicParameter);
 			if(schema!=null) {
-				result = new Parameter().name(getUniqueName(roleAndType.getName()))
+				result = withUniqueName(new Parameter(), roleAndType.getName())
 						.in(inValue).description(parameterDescription)
 						.required(required).schema(schema);
 			}
@@ -159,7 +166,7 @@ public class DataType2ParameterConverter {
 		Parameter result = null;
 		Schema<?> schema = schemaConverter.convert(genP);
 		if(schema!=null) {
-			result = new Parameter().name(getUniqueName(genP.getName()))
+			result = withUniqueName(new Parameter(), genP.getName())
 					.in(inValue).description(parameterDescription).schema(schema);
 			result.setDescription(parameterDescription);
 		}
@@ -178,7 +185,7 @@ public class DataType2ParameterConverter {
 		Parameter result = null;
 		Schema<?> schema = schemaConverter.createSchemaForTypeReference(tr);
 		if(schema!=null) {
-			result = new Parameter().name(getUniqueName(tr.getName()))
+			result = withUniqueName(new Parameter(), tr.getName())
 					.in(inValue).description(parameterDescription).schema(schema);
 			result.setDescription(parameterDescription);
 		}
@@ -204,13 +211,28 @@ public class DataType2ParameterConverter {
 		throw new MDSLException("Unsupported mapping type " + parameter.getLiteral()); // can't get here
 	}
 
-	private String getUniqueName(String originalName) {
+	private Parameter withUniqueName(Parameter parameter, String originalName) {
 		if (originalName != null && !"".equals(originalName))
-			return originalName;
+			return parameter.name(originalName);
 
-		String anonymousName = PARAMETER_PREFIX + anonymousParameterCounter;
-		anonymousParameterCounter++;
-		return anonymousName;
+		// named by nameAnonymousParameters, once the numbers of the preceding converters are known
+		anonymousParameters.add(parameter);
+		return parameter;
+	}
+
+	/**
+	 * Names the anonymous parameters converted so far (Parameter1, Parameter2
+	 * etc.), continuing the numbering of the converters that precede this one.
+	 * 
+	 * @param precedingAnonymousParameters the number of anonymous parameters named
+	 *                                     by the preceding converters
+	 * @return the number of anonymous parameters named by this converter
+	 */
+	public int nameAnonymousParameters(int precedingAnonymousParameters) {
+		for (int i = 0; i < anonymousParameters.size(); i++) {
+			anonymousParameters.get(i).setName(PARAMETER_PREFIX + (precedingAnonymousParameters + i + 1));
+		}
+		return anonymousParameters.size();
 	}
 	
 	public List<Parameter> convertSingleRepresentationElementToOneOrMoreParameters(ElementStructure structure, HTTPParameter boundParameter) {
@@ -20,6 +20,7 @@ import io.mdsl.apiDescription.SingleParameterNode;
 import io.mdsl.apiDescription.TreeNode;
 import io.mdsl.apiDescription.TypeReference;
 import io.mdsl.generator.AnonymousFieldNameGenerator;
+import io.mdsl.generator.SymbolTable;
 import io.mdsl.utils.MDSLLogger;
 import io.mdsl.utils.MDSLSpecificationWrapper;
 import io.swagger.v3.oas.models.media.ArraySchema;
@@ -51,9 +52,22 @@ public class DataType2SchemaConverter {
 	private static final String TREE_IDENTIFIER_PREFIX = "tree";
 
 	private AnonymousFieldNameGenerator fieldNameGenerator;
+	private Integer maxItems;
 
 	public DataType2SchemaConverter() {
-		this.fieldNameGenerator = new AnonymousFieldNameGenerator();
+		this(new SymbolTable());
+	}
+
+	public DataType2SchemaConverter(SymbolTable symbolTable) {
+		this.fieldNameGenerator = new AnonymousFieldNameGenerator(symbolTable);
+	}
+
+	/**
+	 * Bounds the arrays that the cardinalities '*' and '+' map to (maxItems).
+	 * Unbounded if null (default).
+	 */
+	public void setMaxItems(Integer maxItems) {
+		this.maxItems = maxItems;
 	}
 
 	public Schema convert(DataContract dataType) {
@@ -254,7 +268,7 @@ public class DataType2SchemaConverter {
 	}
 	
 	private Schema getArrayWrapperSchema(Schema schema) {
-		return new ArraySchema().items(schema).name(schema.getName());
+		return new ArraySchema().items(schema).name(schema.getName()).maxItems(maxItems);
 	}
 
 	private Schema getSchema4ParameterType(AtomicParameter parameter) {
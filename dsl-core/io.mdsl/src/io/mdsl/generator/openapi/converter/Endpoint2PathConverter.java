@@ -1,8 +1,11 @@
 package io.mdsl.generator.openapi.converter;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.emf.common.util.EList;
 
@@ -27,24 +30,37 @@ import io.mdsl.apiDescription.TreeNode;
 import io.mdsl.apiDescription.TypeReference;
 import io.mdsl.dsl.ServiceSpecificationAdapter;
 import io.mdsl.exception.MDSLException;
+import io.mdsl.transformations.MAPDecoratorHelpers;
+import io.mdsl.transformations.TransformationHelpers;
 import io.mdsl.utils.MAPLinkResolver;
 import io.mdsl.utils.MDSLLogger;
 import io.mdsl.utils.MDSLSpecificationWrapper;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.ArraySchema;
 import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.IntegerSchema;
 import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
 import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
 import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.responses.ApiResponses;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.oas.models.tags.Tag;
 
 /**
  * Converts an MDSL endpoint to an OpenAPI path item
  * 
+ * An instance keeps the state of the conversion in progress (and the numbering
+ * of anonymous parameters) in fields, so it must be confined to one thread;
+ * {@link MDSL2OpenAPIConverter} creates one instance per resource it converts
+ * and continues the numbering across the instances when it merges the results.
+ * 
  * @author ska, socadk
  *
  */
@@ -57,6 +73,51 @@ public class Endpoint2PathConverter {
 	private static final String SUCCESSFUL_EXECUTION = " successful execution";
 	private static final String X_999_CODE = "x-999";
 	private static final String TBD_TEXT = "tbd";
+	private static final String PAGINATION_DECORATOR = "Pagination";
+	private static final int MAX_PAGE_SIZE = 100;
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final String QUERY = "query";
+	private static final String INTEGER_TYPE = "integer";
+	private static final List<String> PAGE_SIZE_PARAMETERS = List.of("limit", "pageSize", "requestedPageSize", "size");
+	private static final List<String> STARTING_POINT_PARAMETERS = List.of("offset", "page", "requestedPage", "cursor");
+	private static final String LIMIT_PARAMETER = "limit";
+	private static final String LIMIT_DESCRIPTION = "maximum number of items in the page";
+	private static final String OFFSET_PARAMETER = "offset";
+	private static final String OFFSET_DESCRIPTION = "number of items to skip";
+	private static final String CURSOR_PARAMETER = "cursor";
+	private static final String CURSOR_DESCRIPTION = "position after the previous page (cursor received with it)";
+	private static final String LINK_HEADER = "Link";
+	private static final String LINK_DESCRIPTION = "web links (RFC 8288) to the next and other pages, for instance <...>; rel=\"next\"";
+	private static final String ACCEPTED_RESPONSE_NAME = "202";
+	private static final String ACCEPTED_DESCRIPTION = " accepted, reply available from status resource";
+	private static final String NOT_FOUND_RESPONSE_NAME = "404";
+	private static final String UNKNOWN_REQUEST_DESCRIPTION = "unknown request";
+	private static final String STATUS_RESOURCE_SUFFIX = "-status";
+	private static final String STATUS_RESOURCE_SUMMARY = "status of asynchronous requests to ";
+	private static final String STATUS_OPERATION_SUFFIX = "-status";
+	private static final String STATUS_OPERATION_SUMMARY = " (status and reply)";
+	private static final String STATUS_DESCRIPTION = "processing status, with the reply once the request has succeeded";
+	private static final String REQUEST_ID_PARAMETER = "requestId";
+	private static final String STATUS_PROPERTY = "status";
+	private static final String STATUS_PROPERTY_DESCRIPTION = "processing status of the request";
+	private static final String RESULT_PROPERTY = "result";
+	private static final List<String> PROCESSING_STATES = List.of("pending", "running", "succeeded", "failed");
+	private static final String LOCATION_HEADER = "Location";
+	private static final String LOCATION_DESCRIPTION = "URI of the status resource of the request: ...";
+	private static final String RETRY_AFTER_HEADER = "Retry-After";
+	private static final String RETRY_AFTER_DESCRIPTION = "seconds to wait before polling the status resource";
+	private static final String NOT_MODIFIED_RESPONSE_NAME = "304";
+	private static final String NOT_MODIFIED_DESCRIPTION = "not modified since the version identified by If-None-Match or If-Modified-Since";
+	private static final String CACHE_CONTROL_HEADER = "Cache-Control";
+	private static final String CACHE_CONTROL_DESCRIPTION = "caching directives";
+	private static final String ETAG_HEADER = "ETag";
+	private static final String ETAG_DESCRIPTION = "version identifier of the representation";
+	private static final String LAST_MODIFIED_HEADER = "Last-Modified";
+	private static final String LAST_MODIFIED_DESCRIPTION = "time of the last modification (HTTP-date)";
+	private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+	private static final String IF_NONE_MATCH_DESCRIPTION = "ETag of the cached representation";
+	private static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+	private static final String IF_MODIFIED_SINCE_DESCRIPTION = "Last-Modified time of the cached representation (HTTP-date)";
 
 	private DataType2SchemaConverter dataType2SchemaConverter; 
 	private DataType2ParameterConverter dataType2ParameterConverter; 
@@ -69,6 +130,8 @@ public class Endpoint2PathConverter {
 	private HttpMethod httpVerb;
 	private List<String> mediaTypes = null;
 	private io.swagger.v3.oas.models.Operation oasOperation;
+	private Map<String, SecurityScheme> securitySchemes = new LinkedHashMap<>();
+	private Map<String, PathItem> statusPathItems = new LinkedHashMap<>();
 	
 	private boolean eventMappingEnabled = false;
 	
@@ -77,6 +140,8 @@ public class Endpoint2PathConverter {
 		this.dataType2ParameterConverter = new DataType2ParameterConverter(apiDescriptionToBeConverted);
 		this.mdslWrapper = new MDSLSpecificationWrapper(apiDescriptionToBeConverted);
 		this.mdsl2OpenAPIConverter = mdsl2OpenAPIConverter;
+		this.dataType2SchemaConverter.setMaxItems(mdsl2OpenAPIConverter.getMaxItems());
+		this.dataType2ParameterConverter.setMaxItems(mdsl2OpenAPIConverter.getMaxItems());
 	}
 
 	public PathItem convertMetadataAndOperations(EndpointContract endpointType, HTTPResourceBinding binding) {
@@ -137,6 +202,35 @@ public class Endpoint2PathConverter {
 		return pathItemForResource;
 	}
 
+	/**
+	 * @return the security schemes of the policies used by the operations
+	 *         converted so far, by policy name
+	 */
+	public Map<String, SecurityScheme> getSecuritySchemes() {
+		return securitySchemes;
+	}
+
+	/**
+	 * @return the status resources of the asynchronous operations converted so
+	 *         far, by URI (relative to the URI of the resource)
+	 */
+	public Map<String, PathItem> getStatusPathItems() {
+		return statusPathItems;
+	}
+
+	/**
+	 * Names the anonymous parameters of the converted operations; they have no
+	 * name until then. Several converters contribute to one specification, so
+	 * the numbering continues after the given number.
+	 * 
+	 * @param precedingAnonymousParameters the number of anonymous parameters named
+	 *                                     by the preceding converters
+	 * @return the number of anonymous parameters named by this converter
+	 */
+	public int nameAnonymousParameters(int precedingAnonymousParameters) {
+		return dataType2ParameterConverter.nameAnonymousParameters(precedingAnonymousParameters);
+	}
+
 	private io.swagger.v3.oas.models.Operation convertOperation(Operation mdslOperation) {
 		this.mdslOperation = mdslOperation;
 		this.oasOperation = new io.swagger.v3.oas.models.Operation();
@@ -167,12 +261,17 @@ public class Endpoint2PathConverter {
 		
 		convertRequestMessage();
 		convertResponseMessages();
+		convertPaginationContract();
+		HTTPBindingConverterHelpers.handleContentEncodings(mdslOperation, httpBinding, oasOperation);
+		convertCachingContract();
 		
 		// TODO (future work) support/handle endpoint-level security default (OAS concept? PathItem/Tags?)
 		List<SecurityRequirement> securityRequrementList = handleSecurity();
 		if(securityRequrementList!=null)
 			securityRequrementList.forEach(requirement->oasOperation.addSecurityItem(requirement));
 		
+		convertAsynchronousRequestReply();
+		
 		return oasOperation;
 	}
 	
@@ -882,6 +981,183 @@ public class Endpoint2PathConverter {
 		}
 	}
 	
+	// ** pagination
+
+	// bounded pages, paging query parameters and Link header for responses decorated with <<Pagination>>
+	private void convertPaginationContract() {
+		if(!mdslWrapper.operationHasReturnValue(mdslOperation) || !isPaginated(mdslOperation.getResponseMessage().getPayload()))
+			return;
+
+		ApiResponse response = oasOperation.getResponses().get(DEFAULT_RESPONSE_NAME);
+		boolean cursorBased = false;
+		for(MediaType mediaType : response.getContent().values()) {
+			cursorBased |= boundPage(mediaType.getSchema());
+		}
+		response.addHeaderObject(LINK_HEADER, createStringHeader(LINK_DESCRIPTION));
+
+		// other verbs: paging parameters are in the request body
+		if(httpVerb==HttpMethod.GET)
+			convertPagingParameters(cursorBased);
+	}
+
+	private boolean isPaginated(ElementStructure responsePayload) {
+		ParameterTree pt = responsePayload.getPt();
+		if(pt!=null)
+			return MAPDecoratorHelpers.isDecoratedWith(pt, PAGINATION_DECORATOR) || TransformationHelpers.findStereotypeInTree(pt, PAGINATION_DECORATOR)!=null;
+		SingleParameterNode spn = responsePayload.getNp();
+		return spn!=null && MAPDecoratorHelpers.isDecoratedWith(spn, PAGINATION_DECORATOR);
+	}
+
+	// bounds the arrays on the top level of the page; returns true if the page contains a cursor
+	@SuppressWarnings("rawtypes")
+	private boolean boundPage(Schema page) {
+		if(page==null)
+			return false;
+		boundPageItems(page);
+		if(page.getProperties()==null)
+			return false;
+		boolean cursorBased = false;
+		for(Object nameAndProperty : page.getProperties().entrySet()) {
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) nameAndProperty;
+			boundPageItems((Schema) entry.getValue());
+			cursorBased |= entry.getKey().toString().toLowerCase().contains(CURSOR_PARAMETER);
+		}
+		return cursorBased;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void boundPageItems(Schema schema) {
+		if(schema instanceof ArraySchema && (schema.getMaxItems()==null || schema.getMaxItems()>MAX_PAGE_SIZE))
+			schema.setMaxItems(MAX_PAGE_SIZE);
+	}
+
+	private void convertPagingParameters(boolean cursorBased) {
+		Parameter pageSize = findQueryParameter(PAGE_SIZE_PARAMETERS);
+		if(pageSize==null) {
+			pageSize = new Parameter().in(QUERY).name(LIMIT_PARAMETER).description(LIMIT_DESCRIPTION).schema(new IntegerSchema()._default(DEFAULT_PAGE_SIZE));
+			oasOperation.addParametersItem(pageSize);
+		}
+		if(INTEGER_TYPE.equals(pageSize.getSchema().getType()))
+			pageSize.getSchema().minimum(BigDecimal.ONE).maximum(BigDecimal.valueOf(MAX_PAGE_SIZE));
+
+		Parameter startingPoint = findQueryParameter(STARTING_POINT_PARAMETERS);
+		if(startingPoint==null) {
+			if(cursorBased)
+				startingPoint = new Parameter().in(QUERY).name(CURSOR_PARAMETER).description(CURSOR_DESCRIPTION).schema(new StringSchema());
+			else
+				startingPoint = new Parameter().in(QUERY).name(OFFSET_PARAMETER).description(OFFSET_DESCRIPTION).schema(new IntegerSchema()._default(0));
+			oasOperation.addParametersItem(startingPoint);
+		}
+		if(INTEGER_TYPE.equals(startingPoint.getSchema().getType()))
+			startingPoint.getSchema().minimum(BigDecimal.ZERO);
+	}
+
+	private Parameter findQueryParameter(List<String> names) {
+		if(oasOperation.getParameters()==null)
+			return null;
+		for(Parameter parameter : oasOperation.getParameters()) {
+			if(QUERY.equals(parameter.getIn()) && names.contains(parameter.getName()) && parameter.getSchema()!=null)
+				return parameter;
+		}
+		return null;
+	}
+
+	// ** asynchronous request-reply
+
+	// 202 Accepted with the location of a status resource that the client polls for the reply
+	private void convertAsynchronousRequestReply() {
+		if(httpVerb==HttpMethod.GET || !HTTPBindingConverterHelpers.isAsynchronous(mdslOperation, httpBinding))
+			return;
+
+		String statusURI = "/" + mdslOperation.getName() + STATUS_RESOURCE_SUFFIX + "/{" + REQUEST_ID_PARAMETER + "}";
+		ApiResponse reply = oasOperation.getResponses().remove(DEFAULT_RESPONSE_NAME);
+		ApiResponse accepted = new ApiResponse().description(mdslOperation.getName() + ACCEPTED_DESCRIPTION);
+		accepted.addHeaderObject(LOCATION_HEADER, createStringHeader(LOCATION_DESCRIPTION + statusURI));
+		accepted.addHeaderObject(RETRY_AFTER_HEADER, createRetryAfterHeader());
+
+		// reports stay with the request
+		ApiResponses responses = new ApiResponses().addApiResponse(ACCEPTED_RESPONSE_NAME, accepted);
+		oasOperation.getResponses().forEach(responses::addApiResponse);
+		oasOperation.setResponses(responses);
+
+		PathItem statusResource = new PathItem().summary(STATUS_RESOURCE_SUMMARY + mdslOperation.getName());
+		statusResource.setGet(createStatusOperation(reply));
+		statusPathItems.put(statusURI, statusResource);
+	}
+
+	private io.swagger.v3.oas.models.Operation createStatusOperation(ApiResponse reply) {
+		io.swagger.v3.oas.models.Operation statusOperation = new io.swagger.v3.oas.models.Operation();
+		statusOperation.setOperationId(oasOperation.getOperationId() + STATUS_OPERATION_SUFFIX);
+		statusOperation.setSummary(mdslOperation.getName() + STATUS_OPERATION_SUMMARY);
+		statusOperation.setTags(new ArrayList<String>(oasOperation.getTags()));
+
+		Content content = new Content();
+		if(reply.getContent()==null || reply.getContent().isEmpty())
+			HTTPBindingConverterHelpers.findMediaTypeForResponse(mdslOperation, httpBinding).forEach(mediaType->content.addMediaType(mediaType, new MediaType().schema(createStatusSchema(null))));
+		else
+			reply.getContent().forEach((mediaType, replyContent)->content.addMediaType(mediaType, new MediaType().schema(createStatusSchema(replyContent.getSchema()))));
+		ApiResponse status = new ApiResponse().description(STATUS_DESCRIPTION).content(content);
+		// the reply is delivered here, so are its headers (e.g. Link, Content-Encoding)
+		if(reply.getHeaders()!=null)
+			reply.getHeaders().forEach(status::addHeaderObject);
+		status.addHeaderObject(RETRY_AFTER_HEADER, createRetryAfterHeader());
+
+		statusOperation.setResponses(new ApiResponses()
+				.addApiResponse(DEFAULT_RESPONSE_NAME, status)
+				.addApiResponse(NOT_FOUND_RESPONSE_NAME, new ApiResponse().description(UNKNOWN_REQUEST_DESCRIPTION)));
+		statusOperation.setSecurity(oasOperation.getSecurity());
+		return statusOperation;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Schema createStatusSchema(Schema replySchema) {
+		ObjectSchema statusSchema = new ObjectSchema();
+		statusSchema.addProperties(STATUS_PROPERTY, new StringSchema()._enum(PROCESSING_STATES).description(STATUS_PROPERTY_DESCRIPTION));
+		if(replySchema!=null)
+			statusSchema.addProperties(RESULT_PROPERTY, replySchema);
+		statusSchema.addRequiredItem(STATUS_PROPERTY);
+		return statusSchema;
+	}
+
+	private Header createRetryAfterHeader() {
+		return new Header().description(RETRY_AFTER_DESCRIPTION).schema(new IntegerSchema());
+	}
+
+	// ** caching
+
+	// conditional requests and Cache-Control for retrievals (only GET responses are cached)
+	private void convertCachingContract() {
+		if(httpVerb!=HttpMethod.GET)
+			return;
+		String cacheControl = HTTPBindingConverterHelpers.findCacheControlFor(mdslOperation, endpointType, httpBinding);
+		if(cacheControl==null)
+			return;
+
+		ApiResponse response = oasOperation.getResponses().get(DEFAULT_RESPONSE_NAME);
+		response.addHeaderObject(CACHE_CONTROL_HEADER, createCacheControlHeader(cacheControl));
+		if(HTTPBindingConverterHelpers.cachingIsDisabled(cacheControl))
+			return;
+
+		response.addHeaderObject(ETAG_HEADER, createStringHeader(ETAG_DESCRIPTION));
+		response.addHeaderObject(LAST_MODIFIED_HEADER, createStringHeader(LAST_MODIFIED_DESCRIPTION));
+
+		oasOperation.addParametersItem(new Parameter().in("header").name(IF_NONE_MATCH_HEADER).description(IF_NONE_MATCH_DESCRIPTION).schema(new StringSchema()));
+		oasOperation.addParametersItem(new Parameter().in("header").name(IF_MODIFIED_SINCE_HEADER).description(IF_MODIFIED_SINCE_DESCRIPTION).schema(new StringSchema()));
+
+		ApiResponse notModified = new ApiResponse().description(NOT_MODIFIED_DESCRIPTION);
+		notModified.addHeaderObject(CACHE_CONTROL_HEADER, createCacheControlHeader(cacheControl));
+		notModified.addHeaderObject(ETAG_HEADER, createStringHeader(ETAG_DESCRIPTION));
+		oasOperation.getResponses().addApiResponse(NOT_MODIFIED_RESPONSE_NAME, notModified);
+	}
+
+	private Header createCacheControlHeader(String cacheControl) {
+		return new Header().description(CACHE_CONTROL_DESCRIPTION).schema(new StringSchema().example(cacheControl));
+	}
+
+	private Header createStringHeader(String description) {
+		return new Header().description(description).schema(new StringSchema());
+	}
+
 	private ApiResponse createAPIResponse(ElementStructure responsePayload, String description, List<String> mediaTypes) {
 		Content c = new Content();
 		mediaTypes.forEach(mediaType->c.addMediaType(mediaType, new MediaType().schema(this.dataType2SchemaConverter.getSchema4RequestOrResponseStructure(responsePayload))));
@@ -915,7 +1191,9 @@ public class Endpoint2PathConverter {
 			String spName = securityPolicy.getName();
 			SecurityBinding boundPolicy = mdslWrapper.findPolicyInBinding(mdslOperation.getName(), spName, httpBinding);
 			
-			this.mdsl2OpenAPIConverter.convertPolicy2SecurityScheme(securityPolicy, boundPolicy);
+			SecurityScheme securityScheme = this.mdsl2OpenAPIConverter.createSecurityScheme(securityPolicy, boundPolicy);
+			if(securityScheme!=null)
+				this.securitySchemes.put(spName, securityScheme);
 						
 			if(boundPolicy!=null) {
 				MDSLLogger.reportInformation("Found a security policy " + spName + " for " + mdslOperation.getName()); 
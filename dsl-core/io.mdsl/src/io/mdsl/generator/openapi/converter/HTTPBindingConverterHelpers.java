@@ -9,41 +9,51 @@ import org.eclipse.emf.ecore.util.EcoreUtil;
 
 import io.mdsl.apiDescription.ApiDescriptionFactory;
 import io.mdsl.apiDescription.AtomicParameter;
-import io.mdsl.apiDescription.CustomMediaType;
+import io.mdsl.apiDescription.EndpointContract;
 import io.mdsl.apiDescription.GenericParameter;
+import io.mdsl.apiDescription.HTTPContentCoding;
 import io.mdsl.apiDescription.HTTPOperationBinding;
 import io.mdsl.apiDescription.HTTPParameter;
-import io.mdsl.apiDescription.HTTPParameterBinding;
 import io.mdsl.apiDescription.HTTPResourceBinding;
 import io.mdsl.apiDescription.HTTPTypeBinding;
 import io.mdsl.apiDescription.HTTPVerb;
 import io.mdsl.apiDescription.LinkContract;
-import io.mdsl.apiDescription.MediaTypeList;
 import io.mdsl.apiDescription.Operation;
 import io.mdsl.apiDescription.OperationResponsibility;
 import io.mdsl.apiDescription.ParameterTree;
 import io.mdsl.apiDescription.RelationshipLink;
 import io.mdsl.apiDescription.SingleParameterNode;
-import io.mdsl.apiDescription.StandardMediaType;
 import io.mdsl.apiDescription.TreeNode;
 import io.mdsl.apiDescription.TypeReference;
+import io.mdsl.utils.HTTPResourceBindingIndex;
 import io.mdsl.utils.MDSLLogger;
 import io.mdsl.utils.MDSLSpecificationWrapper;
 import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.headers.Header;
 import io.swagger.v3.oas.models.links.Link;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.servers.Server;
 
 public class HTTPBindingConverterHelpers {
 
 	private static final String DEFAULT_MEDIA_TYPE = "application/json"; 
+	private static final String REFERENCE_DATA_CACHE_CONTROL = "public, max-age=86400, immutable"; 
+	private static final String MASTER_DATA_CACHE_CONTROL = "private, max-age=3600"; 
+	private static final String NO_STORE_DIRECTIVE = "no-store"; 
+	private static final String CONTENT_ENCODING_HEADER = "Content-Encoding"; 
+	private static final String CONTENT_ENCODING_REQUEST_DESCRIPTION = "compression of the request body"; 
+	private static final String CONTENT_ENCODING_RESPONSE_DESCRIPTION = "compression of the response body (absent if not compressed)"; 
+	private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding"; 
+	private static final String ACCEPT_ENCODING_DESCRIPTION = "compressions of the response body that the client accepts"; 
 
 	// ** finders 
 	
 	public static List<String> findMediaTypeForRequest(Operation mdslOperation, HTTPResourceBinding binding) {
-		HTTPOperationBinding opB = findOperationBindingFor(mdslOperation.getName(), binding);
+		List<String> mediaTypes = binding!=null ? HTTPResourceBindingIndex.of(binding).getRequestMediaTypes(mdslOperation.getName()) : null;
 
-		if(opB==null || opB.getInContentTypes()==null) {
+		if(mediaTypes==null) {
 			List<String> defaultTypeList = new ArrayList<String>();
 			defaultTypeList.add(DEFAULT_MEDIA_TYPE);
 			return defaultTypeList;
@@ -51,35 +61,19 @@ public class HTTPBindingConverterHelpers {
 
 		// TODO also work with MIME type info in links (in endpoint type, in binding)
 
-		return findMediaTypes(opB.getInContentTypes());		
+		return mediaTypes;		
 	}
 
 	public static List<String> findMediaTypeForResponse(Operation mdslOperation, HTTPResourceBinding binding) {
-		HTTPOperationBinding opB = findOperationBindingFor(mdslOperation.getName(), binding);
+		List<String> mediaTypes = binding!=null ? HTTPResourceBindingIndex.of(binding).getResponseMediaTypes(mdslOperation.getName()) : null;
 
-		if(opB==null || opB.getOutContentTypes()==null) {
+		if(mediaTypes==null) {
 			List<String> defaultTypeList = new ArrayList<String>();
 			defaultTypeList.add(DEFAULT_MEDIA_TYPE);
 			return defaultTypeList;
 		}
 
-		return findMediaTypes(opB.getOutContentTypes());	
-	}
-
-	private static List<String> findMediaTypes(MediaTypeList mimeTypes) {
-		List<String> result = new ArrayList<>();
-		if(mimeTypes.getCmt()!=null) {
-			EList<CustomMediaType> cmtl = mimeTypes.getCmt();
-			if(cmtl!=null) {
-				cmtl.forEach(cmt->result.add(cmt.getValue()));
-			}
-		}
-		if(mimeTypes.getSmt()!=null) {
-			EList<StandardMediaType> smtl = mimeTypes.getSmt();
-			if(smtl!=null&&smtl.size()>0)
-				smtl.forEach(smt->result.add(smt.getIanaName())); 
-		}
-		return result;
+		return mediaTypes;	
 	}
 
 	public static HTTPParameter defaultBindingFor(HttpMethod verb) {
@@ -126,35 +120,20 @@ public class HTTPBindingConverterHelpers {
 		if(binding==null)
 			return null;
 
-		EList<HTTPOperationBinding> operationBindings = binding.getOpsB();
-		for(int i=0;i<operationBindings.size();i++) {
-			HTTPOperationBinding opB = operationBindings.get(i);
-			if(opB.getBoundOperation().equals(operation)) {
-				return opB;
-			}
-		}
-		return null;
+		return HTTPResourceBindingIndex.of(binding).getOperationBinding(operation);
 	}
 
 	public static HTTPParameter findParameterBindingFor(String operation, String parameterName, HTTPResourceBinding binding) {
 		if(binding==null)
 			return null;
 
-		HTTPOperationBinding opB = findOperationBindingFor(operation, binding);
-
-		if(opB==null)
+		HTTPResourceBindingIndex index = HTTPResourceBindingIndex.of(binding);
+		if(index.getOperationBinding(operation)==null)
 			return null; // no binding, so default mapping of "body" (?)
 
-		if(opB.getGlobalBinding()!=null) {
-			return opB.getGlobalBinding().getParameterMapping();
-		}
-
-		EList<HTTPParameterBinding> parameterBindings = opB.getParameterBindings();
-		for(int i=0;i<parameterBindings.size();i++) {
-			HTTPParameterBinding pB = parameterBindings.get(i);
-			if(pB.getBoundParameter().equals(parameterName)) {
-				return pB.getParameterMapping();
-			}
+		HTTPParameter parameterMapping = index.getParameterMapping(operation, parameterName);
+		if(parameterMapping!=null) {
+			return parameterMapping;
 		}
 
 		if(parameterName==null) {
@@ -166,6 +145,73 @@ public class HTTPBindingConverterHelpers {
 		return null;
 	}
 
+	// ** caching 
+
+	public static String findCacheControlFor(Operation mdslOperation, EndpointContract endpointType, HTTPResourceBinding binding) {
+		// option 1: Cache-Control directives in binding
+		HTTPOperationBinding opB = findOperationBindingFor(mdslOperation.getName(), binding);
+		if(opB!=null && opB.getCachingBinding()!=null)
+			return opB.getCachingBinding().getCacheControl();
+
+		// option 2: default of the endpoint role (MAP)
+		return defaultCacheControlFor(endpointType);
+	}
+
+	public static String defaultCacheControlFor(EndpointContract endpointType) {
+		String role = endpointType.getPrimaryRole();
+		if("REFERENCE_DATA_HOLDER".equals(role))
+			return REFERENCE_DATA_CACHE_CONTROL; // immutable
+		if("MASTER_DATA_HOLDER".equals(role))
+			return MASTER_DATA_CACHE_CONTROL; // long-lived, but can change
+		return null; // no caching contract unless bound explicitly
+	}
+
+	public static boolean cachingIsDisabled(String cacheControl) {
+		return cacheControl.contains(NO_STORE_DIRECTIVE);
+	}
+
+	// ** content encoding (compression) 
+
+	public static void handleContentEncodings(Operation mdslOperation, HTTPResourceBinding binding, io.swagger.v3.oas.models.Operation oasOperation) {
+		HTTPOperationBinding opB = findOperationBindingFor(mdslOperation.getName(), binding);
+		if(opB==null || opB.getEncodingBinding()==null)
+			return;
+		List<String> inEncodings = getContentCodings(opB.getEncodingBinding().getInEncodings());
+		List<String> outEncodings = getContentCodings(opB.getEncodingBinding().getOutEncodings());
+
+		// compressed request bodies
+		if(!inEncodings.isEmpty() && oasOperation.getRequestBody()!=null)
+			oasOperation.addParametersItem(new Parameter().in("header").name(CONTENT_ENCODING_HEADER).description(CONTENT_ENCODING_REQUEST_DESCRIPTION).schema(createContentCodingSchema(inEncodings)));
+
+		// compressed response bodies, negotiated via Accept-Encoding 
+		if(outEncodings.isEmpty())
+			return;
+		oasOperation.addParametersItem(new Parameter().in("header").name(ACCEPT_ENCODING_HEADER).description(ACCEPT_ENCODING_DESCRIPTION).schema(new StringSchema().example(String.join(", ", outEncodings))));
+		oasOperation.getResponses().values().forEach(response -> {
+			if(response.getContent()!=null && !response.getContent().isEmpty())
+				response.addHeaderObject(CONTENT_ENCODING_HEADER, new Header().description(CONTENT_ENCODING_RESPONSE_DESCRIPTION).schema(createContentCodingSchema(outEncodings)));
+		});
+	}
+
+	private static List<String> getContentCodings(EList<HTTPContentCoding> contentCodings) {
+		List<String> result = new ArrayList<String>();
+		contentCodings.forEach(contentCoding -> result.add(contentCoding.getLiteral()));
+		return result;
+	}
+
+	private static StringSchema createContentCodingSchema(List<String> contentCodings) {
+		StringSchema schema = new StringSchema();
+		schema.setEnum(contentCodings);
+		return schema;
+	}
+
+	// ** asynchronous request-reply 
+
+	public static boolean isAsynchronous(Operation mdslOperation, HTTPResourceBinding binding) {
+		HTTPOperationBinding opB = findOperationBindingFor(mdslOperation.getName(), binding);
+		return opB!=null && opB.isAsynchronous();
+	}
+
 	// ** link management 
 
 	public static void handleLinks(Operation mdslOperation, HTTPResourceBinding binding, ApiResponse httpResponse) {
@@ -195,13 +241,7 @@ public class HTTPBindingConverterHelpers {
 	}
 
 	public static HTTPTypeBinding findLinkTypeBindingFor(String name, HTTPResourceBinding binding) {
-		EList<HTTPTypeBinding> tps = binding.getTB();
-		for(HTTPTypeBinding tb : tps) {
-			if(tb.getLt()!=null && tb.getLt().getName().equals(name)) {
-				return tb;
-			}
-		}
-		return null;
+		return HTTPResourceBindingIndex.of(binding).getLinkTypeBinding(name);
 	}
 
 	public static void handleSingleLink(RelationshipLink mdslLink, HTTPTypeBinding linkBinding, ApiResponse httpResponse) {
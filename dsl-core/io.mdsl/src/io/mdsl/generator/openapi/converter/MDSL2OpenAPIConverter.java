@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.EcoreUtil2;
 
 import io.mdsl.apiDescription.DataContract;
@@ -18,6 +18,8 @@ import io.mdsl.apiDescription.ElementStructure;
 import io.mdsl.apiDescription.EndpointContract;
 import io.mdsl.apiDescription.EndpointInstance;
 import io.mdsl.apiDescription.EndpointList;
+import io.mdsl.apiDescription.Gate;
+import io.mdsl.apiDescription.Gateway;
 import io.mdsl.apiDescription.HTTPResourceBinding;
 import io.mdsl.apiDescription.OASSecurity;
 import io.mdsl.apiDescription.Provider;
@@ -26,6 +28,7 @@ import io.mdsl.apiDescription.SecurityPolicy;
 import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.dsl.ServiceSpecificationAdapter;
 import io.mdsl.exception.MDSLException;
+import io.mdsl.utils.HTTPResourceBindingIndex;
 import io.mdsl.utils.MAPLinkResolver;
 import io.mdsl.utils.MDSLLogger;
 import io.mdsl.utils.MDSLSpecificationWrapper;
@@ -68,6 +71,9 @@ public class MDSL2OpenAPIConverter {
 	private Map<String, SecurityScheme> securitySchemes;
 
 	private List<Server> servers;
+	private boolean extractSharedSchemas;
+	private boolean parallelPathConversion;
+	private Integer maxItems;
 
 	public MDSL2OpenAPIConverter(ServiceSpecification mdslSpecification) {
 		this.mdslSpecification = new ServiceSpecificationAdapter(mdslSpecification);
@@ -76,6 +82,37 @@ public class MDSL2OpenAPIConverter {
 		this.servers = new ArrayList<Server>();
 	}
 
+	/**
+	 * Moves object schemas that occur more than once (in requests, responses and
+	 * data types) into "components/schemas" and references them, instead of
+	 * repeating them inline. Off by default.
+	 */
+	public void setExtractSharedSchemas(boolean extractSharedSchemas) {
+		this.extractSharedSchemas = extractSharedSchemas;
+	}
+
+	/**
+	 * Converts the endpoint/resource pairs in parallel, on the common fork-join
+	 * pool (off by default). The output is the same either way. Cross-references
+	 * of the whole resource are resolved before the conversion starts.
+	 */
+	public void setParallelPathConversion(boolean parallelPathConversion) {
+		this.parallelPathConversion = parallelPathConversion;
+	}
+
+	/**
+	 * Bounds all arrays (cardinalities '*' and '+') to the given number of
+	 * items. Unbounded by default; arrays in paginated responses are always
+	 * bounded by the maximum page size.
+	 */
+	public void setMaxItems(Integer maxItems) {
+		this.maxItems = maxItems;
+	}
+
+	Integer getMaxItems() {
+		return maxItems;
+	}
+
 	/**
 	 * MDSL to OpenAPI model transformation.
 	 * 
@@ -116,6 +153,8 @@ public class MDSL2OpenAPIConverter {
 		oas.servers(this.servers);
 		if(!this.securitySchemes.isEmpty())
 		    oas.getComponents().securitySchemes(this.securitySchemes);
+		if(this.extractSharedSchemas)
+			new SharedSchemaExtractor(oas).extract();
 		
 		return oas;
 	}
@@ -165,7 +204,7 @@ public class MDSL2OpenAPIConverter {
 		List<Tag> tags = new ArrayList<Tag>();
 		boolean foundAtLeastOneBinding = false;
 		
-		for (HTTPResourceBinding resourceBinding : EcoreUtil2.eAllOfType(mdslSpecification, HTTPResourceBinding.class)) {
+		for (HTTPResourceBinding resourceBinding : mdslWrapper.getProtocolBindingIndex().getHTTPResourceBindings()) {
 			Tag tag = createTag(null, resourceBinding, true);
 			tags.add(tag);
 			foundAtLeastOneBinding=true;
@@ -182,18 +221,29 @@ public class MDSL2OpenAPIConverter {
 		Tag tag = new Tag();
 		if(resourceBinding!=null) {
 			EndpointInstance ei = getContainingEndpointInstance(resourceBinding);
-			EndpointList eil = (EndpointList) ei.eContainer();
-			Provider provider = (Provider) eil.eContainer();
+			String ownerName;
+			EndpointContract contract;
+			if(ei.eContainer() instanceof Gate) {
+				// gateway offering the upstream contract(s) of the gate
+				Gate gate = (Gate) ei.eContainer();
+				ownerName = ((Gateway) gate.eContainer()).getName();
+				contract = gate.getUpstreamContract().get(0);
+			}
+			else {
+				EndpointList eil = (EndpointList) ei.eContainer();
+				ownerName = ((Provider) eil.eContainer()).getName();
+				contract = eil.getContract();
+			}
 
-			tag.setName(provider.getName() + "-" + resourceBinding.getName());
+			tag.setName(ownerName + "-" + resourceBinding.getName());
 			// not looking good in some OAS tools
-			// String contractName = eil.getContract().getName();
+			// String contractName = contract.getName();
 			// tag.setDescription("Offered contract/endpoint type: " + contractName);
 
 			if(createExternalDescription) {
 				ExternalDocumentation externalDocs = new ExternalDocumentation();
-				externalDocs.setDescription(wrapContractAndPatternName(eil.getContract()));
-				externalDocs.setUrl(MAPLinkResolver.provideLinktoMAPWebsite(eil.getContract()));
+				externalDocs.setDescription(wrapContractAndPatternName(contract));
+				externalDocs.setUrl(MAPLinkResolver.provideLinktoMAPWebsite(contract));
 				tag.setExternalDocs(externalDocs);
 			}
 		}
@@ -228,9 +278,7 @@ public class MDSL2OpenAPIConverter {
 	}
 	
 	public EndpointInstance getContainingEndpointInstance(HTTPResourceBinding resourceBinding) {
-		EObject rbc = resourceBinding.eContainer();
-		EObject eic = rbc.eContainer().eContainer().eContainer();
-		return (EndpointInstance) eic;
+		return EcoreUtil2.getContainerOfType(resourceBinding, EndpointInstance.class);
 	}
 	
 	private List<Tag> createTagsViaEndpointType() {
@@ -246,7 +294,19 @@ public class MDSL2OpenAPIConverter {
 		return tags;
 	}
 
-	public SecurityScheme convertPolicy2SecurityScheme(SecurityPolicy sp, SecurityBinding secBinding) { 
+	public SecurityScheme convertPolicy2SecurityScheme(SecurityPolicy sp, SecurityBinding secBinding) {
+		SecurityScheme ss = createSecurityScheme(sp, secBinding);
+		if(ss!=null)
+			this.securitySchemes.put(sp.getName(), ss);
+		return ss;
+	}
+
+	/**
+	 * Same as {@link #convertPolicy2SecurityScheme(SecurityPolicy, SecurityBinding)}
+	 * but does not register the scheme, so it can be called while paths are
+	 * converted in parallel.
+	 */
+	SecurityScheme createSecurityScheme(SecurityPolicy sp, SecurityBinding secBinding) { 
 		// expects this structure in MDSL: protected by policy "HTTPBasicAuthentication": MD<string>
 		// binding is ID and STRING only
 		// see https://github.com/OAI/OpenAPI-Specification/blob/master/versions/3.0.1.md#securitySchemeObject
@@ -271,19 +331,16 @@ public class MDSL2OpenAPIConverter {
 		if(secBinding.getHttp().getValue()==OASSecurity.BASIC_AUTHENTICATION_VALUE) {
 			ss = new SecurityScheme().type(SecurityScheme.Type.HTTP);
 			ss.scheme(BASIC_SCHEME_NAME);
-			this.securitySchemes.put(sp.getName(), ss); 
 		}
 		else if(secBinding.getHttp().getValue()==OASSecurity.JWT_VALUE) {
 			ss = new SecurityScheme().type(SecurityScheme.Type.HTTP);
 			ss.scheme(BEARER_SCHEME_NAME);
 			ss.bearerFormat(JWT_BEARER_FORMAT);
-			this.securitySchemes.put(sp.getName(), ss); 
 		}
 		else if(secBinding.getHttp().getValue()==OASSecurity.API_KEY_VALUE) {
 			ss = new SecurityScheme().type(SecurityScheme.Type.APIKEY); 
 			ss.in(In.HEADER);
 			ss.name(API_KEY_SCHEME_NAME);
-			this.securitySchemes.put(sp.getName(), ss); 
 		}
 		else if(secBinding.getHttp().getValue()==OASSecurity.OAUTH_IMPLICIT_VALUE) {
 			// https://swagger.io/specification/#oauth-flows-object
@@ -306,7 +363,6 @@ public class MDSL2OpenAPIConverter {
 			flows.authorizationCode(authorizationCode);
 	
 			ss.flows(flows );
-			this.securitySchemes.put(sp.getName(), ss); 
 		}
 		else if(secBinding.getHttp().getValue()==OASSecurity.OAUTH_FLOW_VALUE) {
 			// TODO (future work) could get OpenID decision from input
@@ -315,7 +371,6 @@ public class MDSL2OpenAPIConverter {
 			
 			// TODO test and document scopes and use them here too (see implicit flow)?
 			
-			this.securitySchemes.put(sp.getName(), ss); 
 		}
 		else {
 			// TODO (future work): how about the other security policy string enums?
@@ -334,10 +389,15 @@ public class MDSL2OpenAPIConverter {
 
 	/**
 	 * Convert endpoints and their operations 
+	 * 
+	 * The endpoint/resource pairs are collected first and then converted, in
+	 * parallel unless disabled; the resulting path items and security schemes
+	 * are merged in the order of the pairs, so the output does not depend on the
+	 * scheduling.
 	 */
 	private Paths convertEndpoints2Paths() {
 		Paths paths = new Paths();
-		Endpoint2PathConverter pathsConverter = new Endpoint2PathConverter(mdslSpecification, this);
+		List<PathConversion> conversions = new ArrayList<PathConversion>();
 		for (EndpointContract endpointType : mdslSpecification.getEndpointContracts()) {
 			List<EndpointInstance> endpointInstanceList = mdslWrapper.findProviderEndpointInstancesFor(endpointType);
 			 
@@ -348,11 +408,9 @@ public class MDSL2OpenAPIConverter {
 			if(endpointInstanceList.size()==0) {
 				MDSLLogger.reportInformation("No endpoint instance/provider in " + endpointType.getName());
 				String pathURI = "/" + endpointType.getName(); // use type name if no provider endpoint specified
-				PathItem mappedEndpoint = pathsConverter.convertMetadataAndOperations(endpointType, null);
-				addPathItemIfPossible(paths, pathURI, mappedEndpoint);
+				conversions.add(new PathConversion(endpointType, null, pathURI));
 			}
 			else for(int i=0;i<endpointInstanceList.size();i++) {
-				Parameter pp = null;
 				String pathURI;
 				
 				Server server = new Server().url(endpointInstanceList.get(i).getLocation());
@@ -377,8 +435,7 @@ public class MDSL2OpenAPIConverter {
 				
 				if(bindings.size()==0) {
 					MDSLLogger.reportWarning("No HTTP binding found for " + endpointType.getName());
-					PathItem mappedEndpoint = pathsConverter.convertMetadataAndOperations(endpointType, null);
-					addPathItemIfPossible(paths, pathURI, mappedEndpoint);
+					conversions.add(new PathConversion(endpointType, null, pathURI));
 				}
 				else for(int j=0;j<bindings.size();j++) {
 					String relURI = "";
@@ -396,37 +453,114 @@ public class MDSL2OpenAPIConverter {
 						MDSLLogger.reportWarning("HTTP binding does not have a relative URI, adding resource name " + endpointType.getName());
 						relURI = "/" + binding.getName();
 					}
-									
-					PathItem mappedEndpoint = pathsConverter.convertMetadataAndOperations(endpointType, binding);
-					List<String> templates = URITemplateHelper.findTemplateParameters(relURI);
-					if(templates!=null) {
-						for(int k=0;k<templates.size();k++) {
-							pp = new Parameter();
-							String template = templates.get(k);
-							pp.name(template.substring(1,template.length()-1));
-							pp.in("path");
-							pp.schema(new Schema().type("string"));
-							mappedEndpoint.addParametersItem(pp);
-						}
-					}
-					else {
-						MDSLLogger.reportInformation("No URI template parameters in resource URI: " + relURI);
-					}
-		
-					addPathItemIfPossible(paths, relURI, mappedEndpoint);
+					// build the binding index before the workers share it
+					HTTPResourceBindingIndex.of(binding);
+					conversions.add(new PathConversion(endpointType, binding, relURI));
 				}
 			}
 		}
+
+		if(parallelPathConversion && conversions.size()>1) {
+			// the workers must not resolve (and thereby modify) cross-references concurrently
+			if(mdslSpecification.eResource()!=null)
+				EcoreUtil.resolveAll(mdslSpecification.eResource());
+			conversions.parallelStream().forEach(PathConversion::run);
+		}
+		else {
+			conversions.forEach(PathConversion::run);
+		}
+
+		int anonymousParameters = 0;
+		for(PathConversion conversion : conversions) {
+			PathItem pathItem = conversion.getPathItem();
+			// the anonymous parameters are named here, in pair order, before the path item is used
+			anonymousParameters += conversion.pathsConverter.nameAnonymousParameters(anonymousParameters);
+			addPathItemIfPossible(paths, conversion.pathURI, pathItem);
+			conversion.pathsConverter.getSecuritySchemes().forEach(this.securitySchemes::put);
+			conversion.getStatusPathItems().forEach((statusURI, statusPathItem) -> addPathItemIfPossible(paths, statusURI, statusPathItem));
+		}
 		
 		return paths;
 	}
 
+	/**
+	 * Converts one endpoint/resource pair (with a converter of its own).
+	 */
+	private class PathConversion {
+		private EndpointContract endpointType;
+		private HTTPResourceBinding binding;
+		private String pathURI;
+		private Endpoint2PathConverter pathsConverter;
+		private PathItem pathItem;
+		private RuntimeException failure;
+
+		private PathConversion(EndpointContract endpointType, HTTPResourceBinding binding, String pathURI) {
+			this.endpointType = endpointType;
+			this.binding = binding;
+			this.pathURI = pathURI;
+			this.pathsConverter = new Endpoint2PathConverter(mdslSpecification, MDSL2OpenAPIConverter.this);
+		}
+
+		private void run() {
+			try {
+				this.pathItem = convert();
+			} catch (RuntimeException e) {
+				// reported when the path item is merged, so the first error (in order) wins
+				this.failure = e;
+			}
+		}
+
+		private PathItem convert() {
+			PathItem mappedEndpoint = pathsConverter.convertMetadataAndOperations(endpointType, binding);
+			if(binding==null)
+				return mappedEndpoint;
+
+			addTemplateParameters(mappedEndpoint, pathURI);
+			getStatusPathItems().forEach((statusURI, statusPathItem) -> addTemplateParameters(statusPathItem, statusURI));
+			return mappedEndpoint;
+		}
+
+		private void addTemplateParameters(PathItem pathItem, String uri) {
+			List<String> templates = URITemplateHelper.findTemplateParameters(uri);
+			if(templates!=null) {
+				for(int k=0;k<templates.size();k++) {
+					Parameter pp = new Parameter();
+					String template = templates.get(k);
+					pp.name(template.substring(1,template.length()-1));
+					pp.in("path");
+					pp.schema(new Schema().type("string"));
+					pathItem.addParametersItem(pp);
+				}
+			}
+			else {
+				MDSLLogger.reportInformation("No URI template parameters in resource URI: " + uri);
+			}
+		}
+
+		/**
+		 * @return the status resources of the asynchronous operations, by URI
+		 */
+		private Map<String, PathItem> getStatusPathItems() {
+			Map<String, PathItem> statusPathItems = new LinkedHashMap<>();
+			String resourceURI = pathURI.endsWith("/") ? pathURI.substring(0, pathURI.length()-1) : pathURI;
+			pathsConverter.getStatusPathItems().forEach((relativeURI, statusPathItem) -> statusPathItems.put(resourceURI + relativeURI, statusPathItem));
+			return statusPathItems;
+		}
+
+		private PathItem getPathItem() {
+			if(failure!=null)
+				throw failure;
+			return pathItem;
+		}
+	}
+
 	// ** converters 
 	
 	@SuppressWarnings("rawtypes")
 	private Map<String, Schema> convertDataTypes2Schemas() {
 		Map<String, Schema> map = new LinkedHashMap<>();
 		DataType2SchemaConverter typesConverter = new DataType2SchemaConverter();
+		typesConverter.setMaxItems(maxItems);
 		for (DataContract dataType : mdslSpecification.getTypes()) {
 			map.put(dataType.getName(), typesConverter.convert(dataType));
 		}
@@ -0,0 +1,286 @@
+package io.mdsl.generator.openapi.converter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.mdsl.exception.MDSLException;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+/**
+ * Moves object schemas that occur more than once in an OpenAPI model into
+ * "components/schemas" and replaces the occurrences with references
+ * ({@link DataType2SchemaConverter#REF_PREFIX}).
+ *
+ * The schemas are hash-consed: structurally equal schemas (schemas that are
+ * serialized identically) are mapped to one node, so a structure counts as
+ * used more than once only if it occurs in different places of the output,
+ * not if it is merely nested into a structure that is repeated. A structure
+ * that equals an existing component schema is replaced by a reference to this
+ * component.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+class SharedSchemaExtractor {
+
+	private static final String DEFAULT_COMPONENT_NAME = "Schema";
+	private static final String REQUEST_SUFFIX = "Request";
+	private static final String RESPONSE_SUFFIX = "Response";
+
+	private OpenAPI oas;
+	private Map<String, Schema> componentSchemas;
+	private Map<String, SchemaNode> nodes = new HashMap<>();
+	private Map<Schema, String> keys = new IdentityHashMap<>();
+
+	SharedSchemaExtractor(OpenAPI oas) {
+		this.oas = oas;
+	}
+
+	void extract() {
+		if (oas.getComponents() == null)
+			oas.setComponents(new Components());
+		Map<String, Schema> existingSchemas = oas.getComponents().getSchemas();
+		this.componentSchemas = existingSchemas != null ? new LinkedHashMap<>(existingSchemas) : new LinkedHashMap<>();
+
+		// first pass: build the graph of distinct schemas and count how often each one is used
+		for (Map.Entry<String, Schema> componentSchema : componentSchemas.entrySet()) {
+			SchemaNode node = count(componentSchema.getValue());
+			if (node != null && node.componentName == null)
+				node.componentName = componentSchema.getKey();
+		}
+		forEachSchemaUse(this::countUse);
+
+		// second pass: replace the shared schemas by references
+		// (replacing can add components)
+		new ArrayList<>(componentSchemas.values()).forEach(this::replaceSharedChildren);
+		forEachSchemaUse(this::replace);
+
+		if (!componentSchemas.isEmpty())
+			oas.getComponents().setSchemas(componentSchemas);
+	}
+
+	private Schema countUse(Schema schema, String nameHint) {
+		count(schema);
+		return schema;
+	}
+
+	private SchemaNode count(Schema schema) {
+		if (schema == null)
+			return null;
+		String key = getKey(schema);
+		SchemaNode node = nodes.get(key);
+		if (node == null) {
+			node = new SchemaNode(schema);
+			nodes.put(key, node);
+			// the children of a structure are counted once, however often the structure is used
+			for (Schema child : getChildren(schema))
+				count(child);
+		}
+		node.uses++;
+		return node;
+	}
+
+	/**
+	 * @param nameHint the name of the component if the schema is shared, unless
+	 *                 the schema has a name
+	 */
+	private Schema replace(Schema schema, String nameHint) {
+		if (schema == null)
+			return null;
+		SchemaNode node = nodes.get(getKey(schema));
+		if (node != null && node.isShared()) {
+			if (node.componentName == null) {
+				node.componentName = getUniqueComponentName(node.schema.getName() != null ? node.schema.getName() : nameHint);
+				componentSchemas.put(node.componentName, node.schema);
+				replaceSharedChildren(node.schema);
+			}
+			return new Schema<>().$ref(DataType2SchemaConverter.REF_PREFIX + node.componentName);
+		}
+		replaceSharedChildren(schema);
+		return schema;
+	}
+
+	private void replaceSharedChildren(Schema schema) {
+		if (schema.getProperties() != null) {
+			Map<String, Schema> properties = new LinkedHashMap<>();
+			((Map<String, Schema>) schema.getProperties()).forEach((name, property) -> properties.put(name, replace(property, name)));
+			schema.setProperties(properties);
+		}
+		if (schema instanceof ArraySchema)
+			((ArraySchema) schema).setItems(replace(((ArraySchema) schema).getItems(), schema.getName()));
+		if (schema.getAdditionalProperties() instanceof Schema)
+			schema.setAdditionalProperties(replace((Schema) schema.getAdditionalProperties(), schema.getName()));
+		if (schema.getNot() != null)
+			schema.setNot(replace(schema.getNot(), schema.getName()));
+		if (schema instanceof ComposedSchema) {
+			ComposedSchema composedSchema = (ComposedSchema) schema;
+			replaceAll(composedSchema.getAllOf(), schema.getName());
+			replaceAll(composedSchema.getAnyOf(), schema.getName());
+			replaceAll(composedSchema.getOneOf(), schema.getName());
+		}
+	}
+
+	private void replaceAll(List<Schema> schemas, String nameHint) {
+		if (schemas != null)
+			schemas.replaceAll(schema -> replace(schema, nameHint));
+	}
+
+	private List<Schema> getChildren(Schema schema) {
+		List<Schema> children = new ArrayList<>();
+		if (schema.getProperties() != null)
+			children.addAll(((Map<String, Schema>) schema.getProperties()).values());
+		if (schema instanceof ArraySchema && ((ArraySchema) schema).getItems() != null)
+			children.add(((ArraySchema) schema).getItems());
+		if (schema.getAdditionalProperties() instanceof Schema)
+			children.add((Schema) schema.getAdditionalProperties());
+		if (schema.getNot() != null)
+			children.add(schema.getNot());
+		if (schema instanceof ComposedSchema) {
+			ComposedSchema composedSchema = (ComposedSchema) schema;
+			addAll(children, composedSchema.getAllOf());
+			addAll(children, composedSchema.getAnyOf());
+			addAll(children, composedSchema.getOneOf());
+		}
+		return children;
+	}
+
+	private void addAll(List<Schema> children, List<Schema> schemas) {
+		if (schemas != null)
+			children.addAll(schemas);
+	}
+
+	/**
+	 * The key of a schema is its serialization, so structurally equal schemas
+	 * are exactly those that appear identically in the output.
+	 */
+	private String getKey(Schema schema) {
+		return keys.computeIfAbsent(schema, s -> {
+			try {
+				return Json.mapper().writeValueAsString(s);
+			} catch (JsonProcessingException e) {
+				throw new MDSLException("Could not serialize schema " + s.getName(), e);
+			}
+		});
+	}
+
+	private String getUniqueComponentName(String schemaName) {
+		String name = schemaName != null ? schemaName.replaceAll("[^a-zA-Z0-9\\.\\-_]", "_") : "";
+		if (name.isEmpty())
+			name = DEFAULT_COMPONENT_NAME;
+		String uniqueName = name;
+		for (int i = 2; componentSchemas.containsKey(uniqueName); i++)
+			uniqueName = name + i;
+		return uniqueName;
+	}
+
+	/**
+	 * Applies the function to all schemas used in paths and non-schema
+	 * components and sets the result. The name hints are derived from the place
+	 * where a schema is used (for example, the operation of a request).
+	 */
+	private void forEachSchemaUse(SchemaFunction function) {
+		if (oas.getPaths() != null) {
+			for (PathItem pathItem : oas.getPaths().values()) {
+				forEachParameter(pathItem.getParameters(), function);
+				for (Operation operation : pathItem.readOperations()) {
+					String operationName = capitalize(operation.getOperationId());
+					forEachParameter(operation.getParameters(), function);
+					if (operation.getRequestBody() != null)
+						forEachContent(operation.getRequestBody().getContent(), operationName + REQUEST_SUFFIX, function);
+					if (operation.getResponses() != null)
+						operation.getResponses().values().forEach(response -> forEachResponse(response, operationName + RESPONSE_SUFFIX, function));
+				}
+			}
+		}
+		Components components = oas.getComponents();
+		if (components.getParameters() != null)
+			components.getParameters().values().forEach(parameter -> forEachParameter(List.of(parameter), function));
+		if (components.getRequestBodies() != null)
+			components.getRequestBodies().forEach((name, requestBody) -> forEachContent(requestBody.getContent(), name, function));
+		if (components.getResponses() != null)
+			components.getResponses().forEach((name, response) -> forEachResponse(response, name, function));
+		if (components.getHeaders() != null)
+			components.getHeaders().forEach((name, header) -> forEachHeader(header, name, function));
+	}
+
+	private void forEachParameter(List<Parameter> parameters, SchemaFunction function) {
+		if (parameters == null)
+			return;
+		for (Parameter parameter : parameters) {
+			if (parameter == null)
+				continue;
+			if (parameter.getSchema() != null)
+				parameter.setSchema(function.apply(parameter.getSchema(), parameter.getName()));
+			forEachContent(parameter.getContent(), parameter.getName(), function);
+		}
+	}
+
+	private void forEachResponse(ApiResponse response, String nameHint, SchemaFunction function) {
+		if (response == null)
+			return;
+		forEachContent(response.getContent(), nameHint, function);
+		if (response.getHeaders() != null)
+			response.getHeaders().forEach((name, header) -> forEachHeader(header, name, function));
+	}
+
+	private void forEachHeader(Header header, String nameHint, SchemaFunction function) {
+		if (header == null)
+			return;
+		if (header.getSchema() != null)
+			header.setSchema(function.apply(header.getSchema(), nameHint));
+		forEachContent(header.getContent(), nameHint, function);
+	}
+
+	private void forEachContent(Content content, String nameHint, SchemaFunction function) {
+		if (content == null)
+			return;
+		for (MediaType mediaType : content.values()) {
+			if (mediaType != null && mediaType.getSchema() != null)
+				mediaType.setSchema(function.apply(mediaType.getSchema(), nameHint));
+		}
+	}
+
+	private String capitalize(String name) {
+		if (name == null || name.isEmpty())
+			return "";
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private interface SchemaFunction {
+		Schema apply(Schema schema, String nameHint);
+	}
+
+	private static class SchemaNode {
+		private final Schema schema;
+		private int uses;
+		private String componentName;
+
+		private SchemaNode(Schema schema) {
+			this.schema = schema;
+		}
+
+		/**
+		 * Only object structures are moved into the components; a reference to an
+		 * atomic schema would not make the output any shorter.
+		 */
+		private boolean isShared() {
+			return uses > 1 && schema.get$ref() == null && schema.getProperties() != null && !schema.getProperties().isEmpty();
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package io.mdsl.generator.openapi.serializer;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.mdsl.exception.MDSLException;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+
+/**
+ * Writes an OpenAPI model as several YAML documents instead of one:
+ * <ul>
+ * <li>{baseName}.yaml: the root document (info, servers, tags, security
+ * schemes), with a "$ref" per path</li>
+ * <li>{baseName}/{tag}.yaml: the path items whose operations have this tag
+ * (one document per resource, in MDSL terms)</li>
+ * <li>{baseName}/components.yaml: the schemas and the other components</li>
+ * </ul>
+ * The references between the documents are relative, so the documents can be
+ * moved together. Each document is handed to the file writer as soon as it is
+ * serialized; the root document comes last, so that it only references
+ * documents that exist. Documents of an earlier run that are not written again
+ * can be deleted afterwards (see {@link #deleteStaleDocuments}).
+ */
+public class SplitOpenAPIWriter {
+
+	public static final String COMPONENTS_DOCUMENT = "components.yaml";
+	private static final String DOCUMENT_SUFFIX = ".yaml";
+	private static final String DEFAULT_PATH_DOCUMENT = "paths";
+	private static final String LOCAL_COMPONENT_REF_PREFIX = "#/components/";
+	private static final String REF = "$ref";
+	private static final String PATHS = "paths";
+	private static final String COMPONENTS = "components";
+	private static final String SECURITY_SCHEMES = "securitySchemes";
+	private static final String TAGS = "tags";
+
+	private ObjectMapper mapper = Yaml.mapper();
+	private OpenAPI oas;
+	private String baseName;
+	private Set<String> writtenDocuments = new HashSet<>();
+
+	/**
+	 * @param oas      the OpenAPI model (not modified)
+	 * @param baseName the name of the root document without extension; also the
+	 *                 name of the directory of the other documents
+	 */
+	public SplitOpenAPIWriter(OpenAPI oas, String baseName) {
+		this.oas = oas;
+		this.baseName = baseName;
+	}
+
+	/**
+	 * @return the file name of the root document
+	 */
+	public String getRootDocumentName() {
+		return baseName + DOCUMENT_SUFFIX;
+	}
+
+	/**
+	 * Serializes the documents and passes them to the file writer, one after the
+	 * other.
+	 * 
+	 * @param fileWriter receives the file name (relative to the output directory)
+	 *                   and the content of each document
+	 */
+	public void write(BiConsumer<String, String> fileWriter) {
+		writtenDocuments.clear();
+		BiConsumer<String, String> documentWriter = (fileName, content) -> {
+			writtenDocuments.add(fileName);
+			fileWriter.accept(fileName, content);
+		};
+		ObjectNode root = mapper.valueToTree(oas);
+
+		// path documents, grouped by the (first) tag of the operations
+		JsonNode paths = root.remove(PATHS);
+		ObjectNode pathRefs = mapper.createObjectNode();
+		if (paths != null) {
+			Map<String, ObjectNode> pathDocuments = new LinkedHashMap<>();
+			for (Iterator<Map.Entry<String, JsonNode>> pathItems = paths.fields(); pathItems.hasNext();) {
+				Map.Entry<String, JsonNode> pathItem = pathItems.next();
+				String documentName = getPathDocumentName(pathItem.getValue());
+				pathDocuments.computeIfAbsent(documentName, name -> mapper.createObjectNode()).set(pathItem.getKey(), pathItem.getValue());
+				pathRefs.set(pathItem.getKey(), mapper.createObjectNode().put(REF, baseName + "/" + documentName + "#" + toJsonPointer(pathItem.getKey())));
+			}
+			pathDocuments.forEach((documentName, pathDocument) -> {
+				redirectComponentRefs(pathDocument);
+				documentWriter.accept(baseName + "/" + documentName, serialize(pathDocument));
+			});
+		}
+
+		// components document (the security schemes stay in the root, as security requirements refer to them by name)
+		JsonNode components = root.remove(COMPONENTS);
+		if (components instanceof ObjectNode) {
+			JsonNode securitySchemes = ((ObjectNode) components).remove(SECURITY_SCHEMES);
+			if (components.size() > 0) {
+				ObjectNode componentsDocument = mapper.createObjectNode();
+				componentsDocument.set(COMPONENTS, components);
+				documentWriter.accept(baseName + "/" + COMPONENTS_DOCUMENT, serialize(componentsDocument));
+			}
+			if (securitySchemes != null)
+				root.set(COMPONENTS, mapper.createObjectNode().set(SECURITY_SCHEMES, securitySchemes));
+		}
+
+		// root document, with the paths where they were (before the components)
+		ObjectNode rootDocument = mapper.createObjectNode();
+		root.fields().forEachRemaining(field -> {
+			if (field.getKey().equals(COMPONENTS) && paths != null)
+				rootDocument.set(PATHS, pathRefs);
+			rootDocument.set(field.getKey(), field.getValue());
+		});
+		if (paths != null && !rootDocument.has(PATHS))
+			rootDocument.set(PATHS, pathRefs);
+		documentWriter.accept(getRootDocumentName(), serialize(rootDocument));
+	}
+
+	/**
+	 * Deletes the YAML documents in the directory {baseName} that the last call
+	 * of {@link #write(BiConsumer)} has not written, for instance the paths of a
+	 * resource that has been removed or renamed since the previous run.
+	 * 
+	 * @param existingFiles the files in the directory {baseName} (names relative
+	 *                      to the output directory, as passed to the file writer)
+	 * @param fileDeleter   deletes a file, given its name
+	 */
+	public void deleteStaleDocuments(Collection<String> existingFiles, Consumer<String> fileDeleter) {
+		for (String fileName : existingFiles) {
+			String documentName = fileName.startsWith(baseName + "/") ? fileName.substring(baseName.length() + 1) : null;
+			if (documentName != null && documentName.endsWith(DOCUMENT_SUFFIX) && !documentName.contains("/") && !writtenDocuments.contains(fileName))
+				fileDeleter.accept(fileName);
+		}
+	}
+
+	private String getPathDocumentName(JsonNode pathItem) {
+		for (HttpMethod method : HttpMethod.values()) {
+			JsonNode tags = pathItem.get(method.name().toLowerCase());
+			if (tags != null)
+				tags = tags.get(TAGS);
+			if (tags instanceof ArrayNode && tags.size() > 0 && !tags.get(0).asText().isEmpty())
+				return tags.get(0).asText().replaceAll("[^a-zA-Z0-9\\.\\-_]", "_") + DOCUMENT_SUFFIX;
+		}
+		return DEFAULT_PATH_DOCUMENT + DOCUMENT_SUFFIX;
+	}
+
+	/**
+	 * Lets the local component references of a path document point to the
+	 * components document (which is in the same directory).
+	 */
+	private void redirectComponentRefs(JsonNode node) {
+		if (node instanceof ObjectNode) {
+			JsonNode ref = node.get(REF);
+			if (ref != null && ref.isTextual() && ref.asText().startsWith(LOCAL_COMPONENT_REF_PREFIX))
+				((ObjectNode) node).put(REF, COMPONENTS_DOCUMENT + ref.asText());
+		}
+		node.forEach(this::redirectComponentRefs);
+	}
+
+	/**
+	 * Escapes a path as JSON pointer (RFC 6901) in a URI fragment.
+	 */
+	private String toJsonPointer(String path) {
+		return "/" + path.replace("~", "~0").replace("/", "~1").replace("{", "%7B").replace("}", "%7D");
+	}
+
+	private String serialize(JsonNode document) {
+		try {
+			return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(document);
+		} catch (JsonProcessingException e) {
+			throw new MDSLException("Could not serialize OpenAPI document", e);
+		}
+	}
+
+}
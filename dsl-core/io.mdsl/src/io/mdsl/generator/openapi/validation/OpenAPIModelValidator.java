@@ -0,0 +1,368 @@
+package io.mdsl.generator.openapi.validation;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.security.SecurityScheme;
+import io.swagger.v3.oas.models.tags.Tag;
+
+/**
+ * Validates an OpenAPI model in memory, without serializing and parsing it
+ * again. Checks the rules of the OpenAPI 3.0 specification that the OpenAPI
+ * parser checks (required attributes, names, path parameters, unique operation
+ * IDs) and, in addition, that the local references point to existing
+ * components.
+ *
+ * The messages have the format of the parser messages ("attribute
+ * paths.'/customers'(get).responses is missing").
+ */
+public class OpenAPIModelValidator {
+
+	private static final Pattern COMPONENT_NAME = Pattern.compile("^[a-zA-Z0-9\\.\\-_]+$");
+	private static final Pattern PATH_TEMPLATE_PARAMETER = Pattern.compile("\\{([^}/]+)\\}");
+	private static final Pattern RESPONSE_CODE = Pattern.compile("^([1-5][0-9][0-9]|[1-5]XX|default)$");
+	private static final Set<String> PARAMETER_LOCATIONS = Set.of("path", "query", "header", "cookie");
+	private static final Set<String> SCHEMA_TYPES = Set.of("string", "number", "integer", "boolean", "array", "object");
+	private static final String EXTENSION_PREFIX = "x-";
+	private static final String COMPONENTS_REF_PREFIX = "#/components/";
+
+	private OpenAPI oas;
+	private Set<String> messages;
+	private Set<String> operationIds;
+	private Set<Schema<?>> visitedSchemas;
+
+	public OpenAPIModelValidator(OpenAPI oas) {
+		this.oas = oas;
+	}
+
+	/**
+	 * Validates the model.
+	 *
+	 * @return the validation messages (empty if the model is valid)
+	 */
+	public Set<String> validate() {
+		this.messages = new LinkedHashSet<>();
+		this.operationIds = new HashSet<>();
+		this.visitedSchemas = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		if (isEmpty(oas.getOpenapi()))
+			missing("openapi");
+		else if (!oas.getOpenapi().startsWith("3.0"))
+			message("openapi", "is unsupported");
+		validateInfo();
+		validatePaths();
+		validateComponents();
+		validateTags();
+		return messages;
+	}
+
+	private void validateInfo() {
+		if (oas.getInfo() == null) {
+			missing("info");
+			return;
+		}
+		if (isEmpty(oas.getInfo().getTitle()))
+			missing("info.title");
+		if (isEmpty(oas.getInfo().getVersion()))
+			missing("info.version");
+	}
+
+	private void validatePaths() {
+		if (oas.getPaths() == null) {
+			missing("paths");
+			return;
+		}
+		for (Map.Entry<String, PathItem> path : oas.getPaths().entrySet()) {
+			String location = "paths.'" + path.getKey() + "'";
+			if (!path.getKey().startsWith("/"))
+				message("paths", "Resource " + path.getKey() + " should start with /");
+			PathItem pathItem = path.getValue();
+			if (pathItem == null || pathItem.get$ref() != null)
+				continue;
+			validateParameters(location, pathItem.getParameters());
+			for (Map.Entry<PathItem.HttpMethod, Operation> operation : pathItem.readOperationsMap().entrySet())
+				validateOperation(location + "(" + operation.getKey().name().toLowerCase() + ")", path.getKey(), pathItem,
+						operation.getValue());
+		}
+	}
+
+	private void validateOperation(String location, String path, PathItem pathItem, Operation operation) {
+		if (operation.getOperationId() != null && !operationIds.add(operation.getOperationId()))
+			message(location + ".operationId", "is repeated");
+		validateParameters(location, operation.getParameters());
+		validatePathTemplate(location, path, pathItem.getParameters(), operation.getParameters());
+		validateRequestBody(location + ".requestBody", operation.getRequestBody());
+
+		if (operation.getResponses() == null || operation.getResponses().isEmpty()) {
+			missing(location + ".responses");
+			return;
+		}
+		for (Map.Entry<String, ApiResponse> response : operation.getResponses().entrySet()) {
+			if (response.getKey().startsWith(EXTENSION_PREFIX))
+				continue;
+			if (!RESPONSE_CODE.matcher(response.getKey()).matches())
+				message(location + ".responses." + response.getKey(), "is unexpected");
+			validateResponse(location + ".responses." + response.getKey(), response.getValue());
+		}
+	}
+
+	private void validatePathTemplate(String location, String path, List<Parameter> pathParameters,
+			List<Parameter> operationParameters) {
+		Matcher matcher = PATH_TEMPLATE_PARAMETER.matcher(path);
+		while (matcher.find()) {
+			String name = matcher.group(1);
+			if (!isDeclaredPathParameter(name, operationParameters) && !isDeclaredPathParameter(name, pathParameters))
+				message(location, "Declared path parameter " + name
+						+ " needs to be defined as a path parameter in path or operation level");
+		}
+	}
+
+	private boolean isDeclaredPathParameter(String name, List<Parameter> parameters) {
+		if (parameters == null)
+			return false;
+		for (Parameter parameter : parameters) {
+			if (parameter != null && (parameter.get$ref() != null
+					|| ("path".equals(parameter.getIn()) && name.equals(parameter.getName()))))
+				return true;
+		}
+		return false;
+	}
+
+	private void validateParameters(String location, List<Parameter> parameters) {
+		if (parameters == null)
+			return;
+		Set<String> declared = new HashSet<>();
+		for (int i = 0; i < parameters.size(); i++) {
+			Parameter parameter = parameters.get(i);
+			if (parameter == null)
+				continue;
+			String parameterLocation = location + ".parameters.[" + (parameter.getName() != null ? parameter.getName() : i) + "]";
+			if (parameter.get$ref() != null) {
+				validateRef(parameterLocation, parameter.get$ref(), "parameters", getComponents().getParameters());
+				continue;
+			}
+			validateParameter(parameterLocation, parameter);
+			if (!declared.add(parameter.getIn() + ":" + parameter.getName()))
+				message(location + ".parameters", "There are duplicate parameter values");
+		}
+	}
+
+	private void validateParameter(String location, Parameter parameter) {
+		if (isEmpty(parameter.getName()))
+			missing(location + ".name");
+		if (isEmpty(parameter.getIn()))
+			missing(location + ".in");
+		else if (!PARAMETER_LOCATIONS.contains(parameter.getIn()))
+			message(location + ".in", "is not of type `path|query|header|cookie`");
+		if ("path".equals(parameter.getIn()) && !Boolean.TRUE.equals(parameter.getRequired()))
+			message(location + ".required", "the required value should be true");
+		if (parameter.getSchema() == null && parameter.getContent() == null)
+			missing(location + ".schema");
+		validateSchema(location + ".schema", parameter.getSchema());
+		validateContent(location, parameter.getContent());
+	}
+
+	private void validateRequestBody(String location, RequestBody requestBody) {
+		if (requestBody == null)
+			return;
+		if (requestBody.get$ref() != null) {
+			validateRef(location, requestBody.get$ref(), "requestBodies", getComponents().getRequestBodies());
+			return;
+		}
+		if (requestBody.getContent() == null)
+			missing(location + ".content");
+		validateContent(location, requestBody.getContent());
+	}
+
+	private void validateResponse(String location, ApiResponse response) {
+		if (response == null)
+			return;
+		if (response.get$ref() != null) {
+			validateRef(location, response.get$ref(), "responses", getComponents().getResponses());
+			return;
+		}
+		if (response.getDescription() == null)
+			missing(location + ".description");
+		validateContent(location, response.getContent());
+		if (response.getHeaders() != null) {
+			for (Map.Entry<String, Header> header : response.getHeaders().entrySet())
+				validateHeader(location + ".headers." + header.getKey(), header.getValue());
+		}
+	}
+
+	private void validateHeader(String location, Header header) {
+		if (header == null)
+			return;
+		if (header.get$ref() != null) {
+			validateRef(location, header.get$ref(), "headers", getComponents().getHeaders());
+			return;
+		}
+		validateSchema(location + ".schema", header.getSchema());
+		validateContent(location, header.getContent());
+	}
+
+	private void validateContent(String location, Content content) {
+		if (content == null)
+			return;
+		for (Map.Entry<String, MediaType> mediaType : content.entrySet()) {
+			if (mediaType.getValue() != null)
+				validateSchema(location + ".content.'" + mediaType.getKey() + "'.schema", mediaType.getValue().getSchema());
+		}
+	}
+
+	private void validateSchema(String location, Schema<?> schema) {
+		// schemas can be shared (and, in theory, be recursive); each one is validated once
+		if (schema == null || !visitedSchemas.add(schema))
+			return;
+		if (schema.get$ref() != null) {
+			validateRef(location, schema.get$ref(), "schemas", getComponents().getSchemas());
+			return;
+		}
+		if (schema.getType() != null && !SCHEMA_TYPES.contains(schema.getType()))
+			message(location + ".type", "is not of type `string|number|integer|boolean|array|object`");
+		if (Boolean.TRUE.equals(schema.getReadOnly()) && Boolean.TRUE.equals(schema.getWriteOnly()))
+			message(location, " writeOnly and readOnly are both present");
+		Schema<?> items = schema instanceof ArraySchema ? ((ArraySchema) schema).getItems() : null;
+		if ("array".equals(schema.getType()) && items == null)
+			missing(location + ".items");
+
+		validateSchema(location + ".items", items);
+		validateSchema(location + ".not", schema.getNot());
+		if (schema instanceof ComposedSchema) {
+			ComposedSchema composedSchema = (ComposedSchema) schema;
+			validateSchemas(location + ".allOf", composedSchema.getAllOf());
+			validateSchemas(location + ".anyOf", composedSchema.getAnyOf());
+			validateSchemas(location + ".oneOf", composedSchema.getOneOf());
+		}
+		if (schema.getAdditionalProperties() instanceof Schema)
+			validateSchema(location + ".additionalProperties", (Schema<?>) schema.getAdditionalProperties());
+		if (schema.getProperties() != null) {
+			for (Map.Entry<String, Schema> property : schema.getProperties().entrySet())
+				validateSchema(location + ".properties." + property.getKey(), property.getValue());
+		}
+	}
+
+	private void validateSchemas(String location, List<Schema> schemas) {
+		if (schemas == null)
+			return;
+		for (int i = 0; i < schemas.size(); i++)
+			validateSchema(location + ".[" + i + "]", schemas.get(i));
+	}
+
+	private void validateComponents() {
+		Components components = oas.getComponents();
+		if (components == null)
+			return;
+		validateComponentNames("schemas", components.getSchemas());
+		validateComponentNames("responses", components.getResponses());
+		validateComponentNames("parameters", components.getParameters());
+		validateComponentNames("requestBodies", components.getRequestBodies());
+		validateComponentNames("headers", components.getHeaders());
+		validateComponentNames("securitySchemes", components.getSecuritySchemes());
+
+		if (components.getSchemas() != null) {
+			for (Map.Entry<String, Schema> schema : components.getSchemas().entrySet())
+				validateSchema("components.schemas." + schema.getKey(), schema.getValue());
+		}
+		if (components.getSecuritySchemes() != null) {
+			for (Map.Entry<String, SecurityScheme> scheme : components.getSecuritySchemes().entrySet())
+				validateSecurityScheme("components.securitySchemes." + scheme.getKey(), scheme.getValue());
+		}
+	}
+
+	private void validateComponentNames(String type, Map<String, ?> components) {
+		if (components == null)
+			return;
+		for (String name : components.keySet()) {
+			if (!COMPONENT_NAME.matcher(name).matches())
+				message("components." + type + "." + name, "doesn't adhere to regular expression " + COMPONENT_NAME.pattern());
+		}
+	}
+
+	private void validateSecurityScheme(String location, SecurityScheme scheme) {
+		if (scheme == null || scheme.get$ref() != null)
+			return;
+		if (scheme.getType() == null) {
+			missing(location + ".type");
+			return;
+		}
+		switch (scheme.getType()) {
+		case APIKEY:
+			if (isEmpty(scheme.getName()))
+				missing(location + ".name");
+			if (scheme.getIn() == null)
+				missing(location + ".in");
+			break;
+		case HTTP:
+			if (isEmpty(scheme.getScheme()))
+				missing(location + ".scheme");
+			break;
+		case OAUTH2:
+			if (scheme.getFlows() == null)
+				missing(location + ".flows");
+			break;
+		case OPENIDCONNECT:
+			if (isEmpty(scheme.getOpenIdConnectUrl()))
+				missing(location + ".openIdConnectUrl");
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void validateTags() {
+		if (oas.getTags() == null)
+			return;
+		Set<String> names = new HashSet<>();
+		for (Tag tag : oas.getTags()) {
+			if (isEmpty(tag.getName()))
+				missing("tags.name");
+			else if (!names.add(tag.getName()))
+				message("tags." + tag.getName(), "is repeated");
+		}
+	}
+
+	private void validateRef(String location, String ref, String componentType, Map<String, ?> components) {
+		String prefix = COMPONENTS_REF_PREFIX + componentType + "/";
+		if (!ref.startsWith("#"))
+			return; // external references are not resolved here
+		if (!ref.startsWith(prefix) || components == null || !components.containsKey(ref.substring(prefix.length())))
+			message(location + ".$ref", "refers to the missing component " + ref);
+	}
+
+	private Components getComponents() {
+		return oas.getComponents() != null ? oas.getComponents() : new Components();
+	}
+
+	private void missing(String location) {
+		message(location, "is missing");
+	}
+
+	private void message(String location, String text) {
+		messages.add("attribute " + location + " " + text.trim());
+	}
+
+	private boolean isEmpty(String value) {
+		return value == null || value.isEmpty();
+	}
+}
@@ -9,10 +9,8 @@ import static io.github.microserviceapipatterns.protobufgen.model.SimpleFieldTyp
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 
 import io.github.microserviceapipatterns.protobufgen.model.AnyType;
 import io.github.microserviceapipatterns.protobufgen.model.FieldType;
@@ -30,6 +28,7 @@ import io.mdsl.apiDescription.ParameterTree;
 import io.mdsl.apiDescription.SingleParameterNode;
 import io.mdsl.apiDescription.TreeNode;
 import io.mdsl.generator.AnonymousFieldNameGenerator;
+import io.mdsl.generator.SymbolTable;
 import io.mdsl.utils.CardinalityHelper;
 
 /**
@@ -42,12 +41,12 @@ public class DataType2MessageConverter {
 	private ProtoSpec.Builder protoSpec;
 	private AnonymousFieldNameGenerator fieldNameGenerator;
 	private Message unspecifiedTypeMessage;
-	private Set<String> generatedTypeNames;
+	private SymbolTable generatedTypeNames;
 
 	public DataType2MessageConverter(ProtoSpec.Builder protoSpec) {
 		this.protoSpec = protoSpec;
-		this.fieldNameGenerator = new AnonymousFieldNameGenerator();
-		this.generatedTypeNames = Sets.newHashSet();
+		this.generatedTypeNames = new SymbolTable();
+		this.fieldNameGenerator = new AnonymousFieldNameGenerator(generatedTypeNames);
 	}
 
 	public Message convert(DataContract contract) {
@@ -160,16 +159,7 @@ public class DataType2MessageConverter {
 		String notNullOrEmptyName = fieldNameGenerator.getUniqueName(parameterName);
 		String derivedName = notNullOrEmptyName.substring(0, 1).toUpperCase() + notNullOrEmptyName.substring(1)
 				+ "Message";
-		if (generatedTypeNames.contains(derivedName)) {
-			String baseName = derivedName;
-			int counter = 2;
-			while (generatedTypeNames.contains(derivedName)) {
-				derivedName = baseName + "_" + counter;
-				counter++;
-			}
-		}
-		generatedTypeNames.add(derivedName);
-		return derivedName;
+		return generatedTypeNames.getUniqueName(derivedName);
 	}
 
 	private FieldType mapBasicType(String mdslType) {
@@ -149,6 +149,13 @@ public class HTTPBindingTransformations {
 		hrb.setUri(hrb.getUri() + "/" + uriTemplate);
 	}
 
+	public void makeOperationBindingAsynchronous(HTTPOperationBinding hopb) {
+		if (hopb.getMethod() == HTTPVerb.GET) {
+			MDSLLogger.reportError("GET requests are answered synchronously; bind " + hopb.getBoundOperation() + " to another verb first.");
+		}
+		hopb.setAsynchronous(true);
+	}
+
 	// ** binding helpers
 
 	private static void addBindingIfNameAvailable(ServiceSpecification ss, Provider httpBindingProvider) {
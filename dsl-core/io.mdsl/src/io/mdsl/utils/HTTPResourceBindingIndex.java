@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+
+import io.mdsl.apiDescription.CustomMediaType;
+import io.mdsl.apiDescription.HTTPOperationBinding;
+import io.mdsl.apiDescription.HTTPParameter;
+import io.mdsl.apiDescription.HTTPParameterBinding;
+import io.mdsl.apiDescription.HTTPResourceBinding;
+import io.mdsl.apiDescription.HTTPTypeBinding;
+import io.mdsl.apiDescription.MediaTypeList;
+import io.mdsl.apiDescription.StandardMediaType;
+
+/**
+ * Index of the operation, parameter and link type bindings of an HTTP resource
+ * binding, with the media types of the operations resolved to their names.
+ *
+ * The index is built once per resource binding and shared by all converters
+ * (see {@link #of(HTTPResourceBinding)}). It is dropped as soon as one of the
+ * indexed model elements changes.
+ */
+public class HTTPResourceBindingIndex {
+
+	private final Map<String, OperationBindingEntry> operationBindings = new HashMap<>();
+	private final Map<String, HTTPTypeBinding> linkTypeBindings = new HashMap<>();
+
+	private HTTPResourceBindingIndex(HTTPResourceBinding binding, IndexHolder holder) {
+		holder.observe(binding);
+		for (HTTPOperationBinding operationBinding : binding.getOpsB()) {
+			// the first binding of an operation wins (as in a linear search)
+			if (operationBinding.getBoundOperation() != null)
+				operationBindings.putIfAbsent(operationBinding.getBoundOperation(), new OperationBindingEntry(operationBinding, holder));
+		}
+		for (HTTPTypeBinding typeBinding : binding.getTB()) {
+			holder.observe(typeBinding);
+			if (typeBinding.getLt() != null && typeBinding.getLt().getName() != null)
+				linkTypeBindings.putIfAbsent(typeBinding.getLt().getName(), typeBinding);
+		}
+	}
+
+	/**
+	 * Returns the index of a resource binding, building it if it does not exist
+	 * yet or if the binding has changed since it was built.
+	 *
+	 * @param binding the HTTP resource binding
+	 * @return the (shared) index of the binding
+	 */
+	public static HTTPResourceBindingIndex of(HTTPResourceBinding binding) {
+		IndexHolder holder;
+		synchronized (binding.eAdapters()) {
+			holder = (IndexHolder) binding.eAdapters().stream().filter(a -> a instanceof IndexHolder).findFirst().orElse(null);
+			if (holder == null) {
+				holder = new IndexHolder();
+				binding.eAdapters().add(holder);
+			}
+		}
+		return holder.getIndex(binding);
+	}
+
+	/**
+	 * @param operationName the name of an operation
+	 * @return the binding of the operation, or null if it is not bound
+	 */
+	public HTTPOperationBinding getOperationBinding(String operationName) {
+		OperationBindingEntry entry = operationBindings.get(operationName);
+		return entry != null ? entry.operationBinding : null;
+	}
+
+	/**
+	 * @param operationName the name of an operation
+	 * @param parameterName the name of a parameter of the operation
+	 * @return the parameter mapping of the global binding of the operation if
+	 *         there is one, otherwise the mapping of the parameter; null if the
+	 *         operation or the parameter is not bound
+	 */
+	public HTTPParameter getParameterMapping(String operationName, String parameterName) {
+		OperationBindingEntry entry = operationBindings.get(operationName);
+		if (entry == null)
+			return null;
+		if (entry.operationBinding.getGlobalBinding() != null)
+			return entry.operationBinding.getGlobalBinding().getParameterMapping();
+		return entry.parameterMappings.get(parameterName);
+	}
+
+	/**
+	 * @param operationName the name of an operation
+	 * @return the names of the request media types of the operation, or null if
+	 *         the operation or its request media types are not bound
+	 */
+	public List<String> getRequestMediaTypes(String operationName) {
+		OperationBindingEntry entry = operationBindings.get(operationName);
+		return entry != null ? entry.requestMediaTypes : null;
+	}
+
+	/**
+	 * @param operationName the name of an operation
+	 * @return the names of the response media types of the operation, or null if
+	 *         the operation or its response media types are not bound
+	 */
+	public List<String> getResponseMediaTypes(String operationName) {
+		OperationBindingEntry entry = operationBindings.get(operationName);
+		return entry != null ? entry.responseMediaTypes : null;
+	}
+
+	/**
+	 * @param linkTypeName the name of a link type
+	 * @return the type binding of the link type, or null if it is not bound
+	 */
+	public HTTPTypeBinding getLinkTypeBinding(String linkTypeName) {
+		return linkTypeBindings.get(linkTypeName);
+	}
+
+	private static class OperationBindingEntry {
+		private final HTTPOperationBinding operationBinding;
+		private final Map<String, HTTPParameter> parameterMappings = new HashMap<>();
+		private final List<String> requestMediaTypes;
+		private final List<String> responseMediaTypes;
+
+		private OperationBindingEntry(HTTPOperationBinding operationBinding, IndexHolder holder) {
+			holder.observe(operationBinding);
+			if (operationBinding.getGlobalBinding() != null)
+				holder.observe(operationBinding.getGlobalBinding());
+			this.operationBinding = operationBinding;
+			for (HTTPParameterBinding parameterBinding : operationBinding.getParameterBindings()) {
+				holder.observe(parameterBinding);
+				if (parameterBinding.getBoundParameter() != null)
+					parameterMappings.putIfAbsent(parameterBinding.getBoundParameter(), parameterBinding.getParameterMapping());
+			}
+			this.requestMediaTypes = resolveMediaTypes(operationBinding.getInContentTypes(), holder);
+			this.responseMediaTypes = resolveMediaTypes(operationBinding.getOutContentTypes(), holder);
+		}
+
+		private static List<String> resolveMediaTypes(MediaTypeList mediaTypes, IndexHolder holder) {
+			if (mediaTypes == null)
+				return null;
+			holder.observe(mediaTypes);
+			List<String> result = new ArrayList<>();
+			for (CustomMediaType customMediaType : mediaTypes.getCmt()) {
+				holder.observe(customMediaType);
+				result.add(customMediaType.getValue());
+			}
+			for (StandardMediaType standardMediaType : mediaTypes.getSmt()) {
+				holder.observe(standardMediaType);
+				result.add(standardMediaType.getIanaName());
+			}
+			return Collections.unmodifiableList(result);
+		}
+	}
+
+	/**
+	 * Keeps the index of a resource binding and drops it when one of the indexed
+	 * elements changes. Attached to the binding and to all indexed elements.
+	 */
+	private static class IndexHolder extends AdapterImpl {
+		private volatile HTTPResourceBindingIndex index;
+
+		private synchronized HTTPResourceBindingIndex getIndex(HTTPResourceBinding binding) {
+			if (index == null)
+				index = new HTTPResourceBindingIndex(binding, this);
+			return index;
+		}
+
+		private void observe(EObject element) {
+			if (!element.eAdapters().contains(this))
+				element.eAdapters().add(this);
+		}
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			if (!notification.isTouch())
+				index = null;
+		}
+
+		@Override
+		public void setTarget(Notifier newTarget) {
+			// attached to many elements; the binding is passed on access
+		}
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type == HTTPResourceBindingIndex.class;
+		}
+	}
+}
@@ -15,14 +15,11 @@
  */
 package io.mdsl.utils;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.ecore.EObject;
-import org.eclipse.xtext.EcoreUtil2;
 
 import com.google.common.collect.Lists;
 
@@ -45,7 +42,6 @@ import io.mdsl.apiDescription.ReportBinding;
 import io.mdsl.apiDescription.RoleAndType;
 import io.mdsl.apiDescription.SecurityBinding;
 import io.mdsl.apiDescription.SecurityPolicy;
-import io.mdsl.apiDescription.ServiceSpecification;
 import io.mdsl.apiDescription.TechnologyBinding;
 import io.mdsl.apiDescription.TreeNode;
 import io.mdsl.apiDescription.TypeReference;
@@ -310,29 +306,10 @@ public class MDSLSpecificationWrapper {
 	}
 	
 	public List<EndpointInstance> findProviderEndpointInstancesFor(EndpointContract endpointType) {
-		List<EndpointList> endpoints = EcoreUtil2.eAllOfType(mdslSpecification, EndpointList.class);
-		List<EndpointInstance> result = new ArrayList<EndpointInstance>();
-
-		for(int i=0; i<endpoints.size();i++) {
-			EndpointList nextEndpointList = endpoints.get(i);
-			if(nextEndpointList.getContract().getName().equals(endpointType.getName())) {
-				
-				EList<EndpointInstance> endpointInstances = nextEndpointList.getEndpoints();
-				for(int j=0; j<endpointInstances.size(); j++) {
-					EndpointInstance nextEndpoint = endpointInstances.get(j);
-					EList<TechnologyBinding> tbs = nextEndpoint.getPb();
-					for(int k=0;k<tbs.size();k++) {
-						TechnologyBinding tb = tbs.get(k);
-						if(tb.getProtBinding().getHttp()!= null ) {
-							result.add(nextEndpoint);
-						}
-						else 
-							this.logInformation("(EB]) Non-HTTP binding found for " + nextEndpointList.getContract().getName());
-					}
-				}
-			}
+		List<EndpointInstance> result = getProtocolBindingIndex().getHTTPEndpointInstances(endpointType.getName());
+		if(result.size()<getProtocolBindingIndex().getEndpointInstances(endpointType.getName()).size()) {
+			logInformation("(EB]) Non-HTTP binding found for " + endpointType.getName());
 		}
-		
 		return result;
 	}
 	
@@ -353,61 +330,35 @@ public class MDSLSpecificationWrapper {
 	}
 	
 	public List<Provider> findProvidersFor(EndpointContract endpointType) {
-		EList<EObject> providers = ((ServiceSpecification) endpointType.eContainer()).getProviders();
-		List<Provider> result = new ArrayList<Provider>(); 
-		for(EObject provider : providers) {
-			if(provider instanceof Provider) {
-				// expecting 0 index here:
-				EList<EndpointList> epList = ((Provider) provider).getEpl();
-				if(epList.size()==0) {
-					MDSLLogger.reportError("No endpoint provider found for " + endpointType.getName());
-				}
-				
-				if (epList.size()>=1){
-					MDSLLogger.reportWarning("More than one provider instance found, using first.");
-				}
-				EndpointContract offeredContract = epList.get(0).getContract();
-				if(offeredContract.getName().equals(endpointType.getName())) {
-					providers.add(provider);
-				}
-			}
-			else
-				; // skip, must be AsyncAPI
-		}
-		return result;
+		return getProtocolBindingIndex().getProviders(endpointType.getName());
 	}
 
 	public EndpointInstance findFirstProviderAndHttpBindingFor(EndpointContract endpointType) {
-		EList<EObject> providers = ((ServiceSpecification) endpointType.eContainer()).getProviders();
-		for(EObject provider : providers) {
-			if(provider instanceof Provider) {
-				// expecting 0 index here:
-				EList<EndpointList> epList = ((Provider) provider).getEpl();
-				if(epList.size()==0) {
-					MDSLLogger.reportError("No endpoint provider found for " + endpointType.getName());
-				}
-				
-				if (epList.size()>=1){
-					MDSLLogger.reportWarning("More than one endpoint provider instance found, using first.");
-				}
-				EndpointContract offeredContract = epList.get(0).getContract();
-				if(offeredContract.getName().equals(endpointType.getName())) {
-					EList<EndpointInstance> eps = epList.get(0).getEndpoints();
-					if(eps.size()==0) {
-						MDSLLogger.reportWarning("No endpoint instance found for " + endpointType.getName());
-						return null;
-					}
-					if(eps.size()>1) {
-						MDSLLogger.reportWarning("Provider for " + endpointType.getName() + " has multiple endpoint instances, using first one.");
-					}
-					return eps.get(0); // TODO v55 collect in list rather than return first
-				}
-			}
-			else
-				; // skip, must be AsyncAPI
+		List<EndpointList> epList = getProtocolBindingIndex().getEndpointLists(endpointType.getName());
+		if(epList.size()==0) {
+			logInformation("Endpoint instance in provider for " + endpointType.getName() + " does not have an endpoint provider.");
+			return null;
 		}
-		logInformation("Endpoint instance in provider for " + endpointType.getName() + " does not have an endpoint provider.");
-		return null;
+		if(epList.size()>1) {
+			MDSLLogger.reportWarning("More than one endpoint provider instance found, using first.");
+		}
+		EList<EndpointInstance> eps = epList.get(0).getEndpoints();
+		if(eps.size()==0) {
+			MDSLLogger.reportWarning("No endpoint instance found for " + endpointType.getName());
+			return null;
+		}
+		if(eps.size()>1) {
+			MDSLLogger.reportWarning("Provider for " + endpointType.getName() + " has multiple endpoint instances, using first one.");
+		}
+		return eps.get(0); // TODO v55 collect in list rather than return first
+	}
+
+	/**
+	 * @return the contract-to-binding index of the wrapped specification (shared
+	 *         with all other users of the specification)
+	 */
+	public ProtocolBindingIndex getProtocolBindingIndex() {
+		return ProtocolBindingIndex.of(mdslSpecification);
 	}
 		
 	public String findReportCodeInBinding(String operation, String reportNameInEndpointType, HTTPResourceBinding binding) {
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2020 The MDSL Project Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mdsl.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+
+import io.mdsl.apiDescription.EndpointContract;
+import io.mdsl.apiDescription.EndpointInstance;
+import io.mdsl.apiDescription.EndpointList;
+import io.mdsl.apiDescription.GRPCBinding;
+import io.mdsl.apiDescription.Gate;
+import io.mdsl.apiDescription.Gateway;
+import io.mdsl.apiDescription.HTTPBinding;
+import io.mdsl.apiDescription.HTTPResourceBinding;
+import io.mdsl.apiDescription.JavaBinding;
+import io.mdsl.apiDescription.ProtocolBinding;
+import io.mdsl.apiDescription.Provider;
+import io.mdsl.apiDescription.ServiceSpecification;
+import io.mdsl.apiDescription.TechnologyBinding;
+
+/**
+ * Index from endpoint contracts to the providers offering them, their endpoint
+ * instances and the HTTP, Java and gRPC bindings of these instances, plus the
+ * HTTP resource bindings of API gateways.
+ *
+ * The index is built in one pass over the providers of a specification and
+ * shared by all generators, converters and wrappers working on the same
+ * specification (see {@link #of(ServiceSpecification)}). It is dropped as soon
+ * as one of the indexed model elements changes.
+ */
+public class ProtocolBindingIndex {
+
+	private final Map<String, List<EndpointList>> endpointListsByContract = new LinkedHashMap<>();
+	private final Map<EndpointList, EndpointListBindings> bindingsByEndpointList = new IdentityHashMap<>();
+	private final List<HTTPResourceBinding> httpResourceBindings = new ArrayList<>();
+
+	private ProtocolBindingIndex(ServiceSpecification specification, IndexHolder holder) {
+		holder.observe(specification);
+		for (EObject element : specification.getProviders()) {
+			if (!(element instanceof Provider))
+				continue; // skip, must be AsyncAPI
+			holder.observe(element);
+			for (EndpointList endpointList : ((Provider) element).getEpl()) {
+				holder.observe(endpointList);
+				index(endpointList, holder);
+			}
+		}
+		for (Gateway gateway : specification.getGateways()) {
+			holder.observe(gateway);
+			for (Gate gate : gateway.getGateList()) {
+				holder.observe(gate);
+				for (EndpointInstance endpointInstance : gate.getEndpoints())
+					indexGatewayResources(endpointInstance, holder);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of a specification, building it if it does not exist yet or
+	 * if the specification has changed since it was built.
+	 *
+	 * @param specification the MDSL specification
+	 * @return the (shared) index of the specification
+	 */
+	public static ProtocolBindingIndex of(ServiceSpecification specification) {
+		IndexHolder holder;
+		synchronized (specification.eAdapters()) {
+			holder = (IndexHolder) specification.eAdapters().stream().filter(a -> a instanceof IndexHolder).findFirst()
+					.orElse(null);
+			if (holder == null) {
+				holder = new IndexHolder();
+				specification.eAdapters().add(holder);
+			}
+		}
+		return holder.getIndex(specification);
+	}
+
+	private void index(EndpointList endpointList, IndexHolder holder) {
+		EndpointContract contract = endpointList.getContract();
+		if (contract == null || contract.getName() == null)
+			return;
+		holder.observe(contract);
+		endpointListsByContract.computeIfAbsent(contract.getName(), name -> new ArrayList<>()).add(endpointList);
+
+		EndpointListBindings bindings = new EndpointListBindings();
+		for (EndpointInstance endpointInstance : endpointList.getEndpoints()) {
+			holder.observe(endpointInstance);
+			for (TechnologyBinding technologyBinding : endpointInstance.getPb()) {
+				holder.observe(technologyBinding);
+				ProtocolBinding protocolBinding = technologyBinding.getProtBinding();
+				if (protocolBinding == null)
+					continue;
+				holder.observe(protocolBinding);
+				if (protocolBinding.getHttp() != null) {
+					holder.observe(protocolBinding.getHttp());
+					bindings.httpBindings.add(protocolBinding.getHttp());
+					if (!bindings.httpEndpointInstances.contains(endpointInstance))
+						bindings.httpEndpointInstances.add(endpointInstance);
+					httpResourceBindings.addAll(protocolBinding.getHttp().getEb());
+				}
+				if (protocolBinding.getJava() != null)
+					bindings.javaBindings.add(protocolBinding.getJava());
+				if (protocolBinding.getGrpc() != null)
+					bindings.grpcBindings.add(protocolBinding.getGrpc());
+			}
+		}
+		bindingsByEndpointList.put(endpointList, bindings);
+	}
+
+	private void indexGatewayResources(EndpointInstance endpointInstance, IndexHolder holder) {
+		holder.observe(endpointInstance);
+		for (TechnologyBinding technologyBinding : endpointInstance.getPb()) {
+			holder.observe(technologyBinding);
+			ProtocolBinding protocolBinding = technologyBinding.getProtBinding();
+			if (protocolBinding == null || protocolBinding.getHttp() == null)
+				continue;
+			holder.observe(protocolBinding);
+			holder.observe(protocolBinding.getHttp());
+			httpResourceBindings.addAll(protocolBinding.getHttp().getEb());
+		}
+	}
+
+	/**
+	 * @param contractName the name of an endpoint contract
+	 * @return the endpoint lists ("offers" clauses) of all providers offering the
+	 *         contract, in the order of the specification
+	 */
+	public List<EndpointList> getEndpointLists(String contractName) {
+		return Collections.unmodifiableList(endpointListsByContract.getOrDefault(contractName, Collections.emptyList()));
+	}
+
+	/**
+	 * @param contractName the name of an endpoint contract
+	 * @return the providers offering the contract (each one once)
+	 */
+	public List<Provider> getProviders(String contractName) {
+		List<Provider> providers = new ArrayList<>();
+		for (EndpointList endpointList : getEndpointLists(contractName)) {
+			Provider provider = (Provider) endpointList.eContainer();
+			if (!providers.contains(provider))
+				providers.add(provider);
+		}
+		return providers;
+	}
+
+	/**
+	 * @param contractName the name of an endpoint contract
+	 * @return all endpoint instances that offer the contract
+	 */
+	public List<EndpointInstance> getEndpointInstances(String contractName) {
+		List<EndpointInstance> endpointInstances = new ArrayList<>();
+		for (EndpointList endpointList : getEndpointLists(contractName))
+			endpointInstances.addAll(endpointList.getEndpoints());
+		return endpointInstances;
+	}
+
+	/**
+	 * @param contractName the name of an endpoint contract
+	 * @return the endpoint instances that offer the contract via HTTP
+	 */
+	public List<EndpointInstance> getHTTPEndpointInstances(String contractName) {
+		List<EndpointInstance> endpointInstances = new ArrayList<>();
+		for (EndpointList endpointList : getEndpointLists(contractName))
+			endpointInstances.addAll(getBindings(endpointList).httpEndpointInstances);
+		return endpointInstances;
+	}
+
+	/**
+	 * @param endpointList an endpoint list of a provider
+	 * @return the HTTP bindings of all endpoint instances in the list
+	 */
+	public List<HTTPBinding> getHTTPBindings(EndpointList endpointList) {
+		return Collections.unmodifiableList(getBindings(endpointList).httpBindings);
+	}
+
+	/**
+	 * @param endpointList an endpoint list of a provider
+	 * @return the Java bindings of all endpoint instances in the list
+	 */
+	public List<JavaBinding> getJavaBindings(EndpointList endpointList) {
+		return Collections.unmodifiableList(getBindings(endpointList).javaBindings);
+	}
+
+	/**
+	 * @param endpointList an endpoint list of a provider
+	 * @return the gRPC bindings of all endpoint instances in the list
+	 */
+	public List<GRPCBinding> getGRPCBindings(EndpointList endpointList) {
+		return Collections.unmodifiableList(getBindings(endpointList).grpcBindings);
+	}
+
+	/**
+	 * @return the HTTP resource bindings of all providers and API gateways, in the
+	 *         order of the specification
+	 */
+	public List<HTTPResourceBinding> getHTTPResourceBindings() {
+		return Collections.unmodifiableList(httpResourceBindings);
+	}
+
+	private EndpointListBindings getBindings(EndpointList endpointList) {
+		EndpointListBindings bindings = bindingsByEndpointList.get(endpointList);
+		return bindings != null ? bindings : EndpointListBindings.NONE;
+	}
+
+	private static class EndpointListBindings {
+		private static final EndpointListBindings NONE = new EndpointListBindings();
+
+		private final List<EndpointInstance> httpEndpointInstances = new ArrayList<>();
+		private final List<HTTPBinding> httpBindings = new ArrayList<>();
+		private final List<JavaBinding> javaBindings = new ArrayList<>();
+		private final List<GRPCBinding> grpcBindings = new ArrayList<>();
+	}
+
+	/**
+	 * Keeps the index of a specification and drops it when one of the indexed
+	 * elements changes. Attached to the specification and to all indexed elements.
+	 */
+	private static class IndexHolder extends AdapterImpl {
+		private volatile ProtocolBindingIndex index;
+
+		private synchronized ProtocolBindingIndex getIndex(ServiceSpecification specification) {
+			if (index == null)
+				index = new ProtocolBindingIndex(specification, this);
+			return index;
+		}
+
+		private void observe(EObject element) {
+			if (!element.eAdapters().contains(this))
+				element.eAdapters().add(this);
+		}
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			if (!notification.isTouch())
+				index = null;
+		}
+
+		@Override
+		public void setTarget(Notifier newTarget) {
+			// attached to many elements; the specification is passed on access
+		}
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type == ProtocolBindingIndex.class;
+		}
+	}
+}
@@ -20,6 +20,7 @@ import io.mdsl.apiDescription.EndpointContract;
 import io.mdsl.apiDescription.EndpointInstance;
 import io.mdsl.apiDescription.EndpointList;
 import io.mdsl.apiDescription.HTTPBinding;
+import io.mdsl.apiDescription.HTTPCachingBinding;
 import io.mdsl.apiDescription.HTTPGlobalParameterBinding;
 import io.mdsl.apiDescription.HTTPOperationBinding;
 import io.mdsl.apiDescription.HTTPParameter;
@@ -28,13 +29,16 @@ import io.mdsl.apiDescription.HTTPResourceBinding;
 import io.mdsl.apiDescription.HTTPVerb;
 import io.mdsl.apiDescription.Operation;
 import io.mdsl.apiDescription.ReportBinding;
+import io.mdsl.apiDescription.ParameterTree;
 import io.mdsl.apiDescription.SecurityBinding;
 import io.mdsl.apiDescription.SecurityPolicies;
 import io.mdsl.apiDescription.SecurityPolicy;
+import io.mdsl.apiDescription.SingleParameterNode;
 import io.mdsl.apiDescription.StatusReport;
 import io.mdsl.apiDescription.StatusReports;
 import io.mdsl.apiDescription.TechnologyBinding;
 import io.mdsl.apiDescription.TreeNode;
+import io.mdsl.utils.CardinalityHelper;
 
 /**
  * This class contains custom validation rules.
@@ -50,6 +54,11 @@ public class HTTPBindingValidator extends AbstractMDSLValidator {
 	public final static String ERROR_REPORT_UNBOUND = "ERROR_REPORT_UNBOUND";
 	public final static String ERROR_REPORT_NOT_FOUND = "ERROR_REPORT_NOT_FOUND";
 	
+	public final static String CACHING_BINDING_IGNORED = "CACHING_BINDING_IGNORED";
+	public final static String ASYNCHRONOUS_BINDING_POSSIBLE = "ASYNCHRONOUS_BINDING_POSSIBLE";
+	public final static String ASYNCHRONOUS_BINDING_IGNORED = "ASYNCHRONOUS_BINDING_IGNORED";
+	public final static String COLLECTION_RESPONSE_UNCOMPRESSED = "COLLECTION_RESPONSE_UNCOMPRESSED";
+	
 	public final static String GLOBAL_PARAMETER_BINDING_FOUND = "GLOBAL_PARAMETER_BINDING_FOUND";
 	public final static String URI_TEMPLATE_FOR_PATH_PARAM_MISSING = "URI_TEMPLATE_FOR_PATH_PARAM_MISSING";
 	public static final String URI_TEMPLATE_MISSING_TEXT = "requires a URI template in resource URI";
@@ -333,7 +342,89 @@ public class HTTPBindingValidator extends AbstractMDSLValidator {
 				ApiDescriptionPackage.eINSTANCE.getHTTPOperationBinding_BoundOperation(), GLOBAL_PARAMETER_BINDING_FOUND);
 	}
 
+	@Check
+	public void checkCachingBindingOfRetrievalOperation(final HTTPCachingBinding cachingBinding) {
+		HTTPOperationBinding operationBinding = (HTTPOperationBinding) cachingBinding.eContainer();
+		if(operationBinding.getMethod()!=HTTPVerb.GET) {
+			warning("Responses to " + operationBinding.getMethod().getName() + " are not cached, so the caching directives are ignored. Bind the operation to GET or remove them.", cachingBinding,
+					ApiDescriptionPackage.eINSTANCE.getHTTPCachingBinding_CacheControl(), CACHING_BINDING_IGNORED);
+		}
+	}
+
+	@Check
+	public void checkAsynchronousOperationBinding(final HTTPOperationBinding operationBinding) {
+		if(operationBinding.getMethod()==HTTPVerb.GET) {
+			if(operationBinding.isAsynchronous())
+				warning("GET requests are answered synchronously, so 'asynchronous' is ignored. Bind the operation to another verb or remove it.", operationBinding,
+						ApiDescriptionPackage.eINSTANCE.getHTTPOperationBinding_Asynchronous(), ASYNCHRONOUS_BINDING_IGNORED);
+			return;
+		}
+		if(operationBinding.isAsynchronous())
+			return; // already bound asynchronously, nothing to suggest
+		
+		// long-running candidates (not bound asynchronously yet): business activities and state transitions
+		EndpointContract ec = findContract(operationBinding);
+		if(ec==null)
+			return;
+		Operation operation = findOperation(ec, operationBinding.getBoundOperation());
+		if(operation!=null && operation.getResponsibility()!=null && (operation.getResponsibility().getBap()!=null || operation.getResponsibility().getSto()!=null))
+			info(operationBinding.getBoundOperation() + " might be long-running; it can be bound asynchronously (202 Accepted and status resource).", operationBinding,
+					ApiDescriptionPackage.eINSTANCE.getHTTPOperationBinding_BoundOperation(), ASYNCHRONOUS_BINDING_POSSIBLE);
+	}
+
+	@Check
+	public void checkCompressionOfCollectionResponse(final HTTPOperationBinding operationBinding) {
+		if(operationBinding.getEncodingBinding()!=null && !operationBinding.getEncodingBinding().getOutEncodings().isEmpty())
+			return;
+		
+		EndpointContract ec = findContract(operationBinding);
+		if(ec==null)
+			return;
+		Operation operation = findOperation(ec, operationBinding.getBoundOperation());
+		if(operation==null || operation.getResponseMessage()==null)
+			return;
+		
+		if(deliversCollection(operation.getResponseMessage().getPayload()))
+			warning(operationBinding.getBoundOperation() + " delivers a collection, which can get large. Consider compressing the response (for instance, encodings replies gzip br).", operationBinding,
+					ApiDescriptionPackage.eINSTANCE.getHTTPOperationBinding_BoundOperation(), COLLECTION_RESPONSE_UNCOMPRESSED);
+	}
+
 	// ** helpers: 
+	
+	// top-level '*' and '+' elements only; nested collections are usually small 
+	private boolean deliversCollection(ElementStructure payload) {
+		if(payload==null)
+			return false;
+		if(payload.getNp()!=null)
+			return isCollection(payload.getNp());
+		if(payload.getApl()!=null)
+			return CardinalityHelper.isList(payload.getApl().getCard());
+		if(payload.getPt()!=null) {
+			ParameterTree pt = payload.getPt();
+			if(CardinalityHelper.isList(pt.getCard()))
+				return true;
+			List<TreeNode> nodes = Lists.newArrayList(pt.getFirst());
+			nodes.addAll(pt.getNexttn());
+			for(TreeNode node : nodes) {
+				if(node.getPn()!=null && isCollection(node.getPn()))
+					return true;
+				if(node.getApl()!=null && CardinalityHelper.isList(node.getApl().getCard()))
+					return true;
+				if(node.getChildren()!=null && CardinalityHelper.isList(node.getChildren().getCard()))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isCollection(SingleParameterNode node) {
+		if(node.getAtomP()!=null)
+			return CardinalityHelper.isList(node.getAtomP().getCard());
+		if(node.getTr()!=null)
+			return CardinalityHelper.isList(node.getTr().getCard());
+		return false;
+	}
+		
 		
 	private EndpointContract findContract(HTTPOperationBinding httpOperationBinding) {
 		TechnologyBinding tb = (TechnologyBinding) httpOperationBinding.eContainer().eContainer().eContainer().eContainer();